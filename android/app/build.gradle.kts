@@ -48,6 +48,10 @@ android {
     }
     testOptions {
         unitTests.isIncludeAndroidResources = true
+        // Benchmarks are skipped unless -Dbenchmarks=true reaches the forked test JVM
+        unitTests.all {
+            it.systemProperty("benchmarks", System.getProperty("benchmarks") ?: "false")
+        }
     }
 
 }
@@ -0,0 +1,74 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.static1.fishylottery.model.entities.DeletionJob;
+import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.model.logic.CascadeDeleter;
+import com.static1.fishylottery.model.logic.ICascadeDeleter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deletes through the given repositories instead of Firestore, so the admin screens can be
+ * tested with fake repositories. Nothing is resumable; every delete completes at once. The
+ * event repository may be null when only profiles are deleted.
+ */
+public class FakeCascadeDeleter implements ICascadeDeleter {
+    private final IEventRepository eventRepository;
+    private final IProfileRepository profileRepository;
+
+    public FakeCascadeDeleter(IEventRepository eventRepository, IProfileRepository profileRepository) {
+        this.eventRepository = eventRepository;
+        this.profileRepository = profileRepository;
+    }
+
+    @Override
+    public Task<DeletionJob> deleteEvent(@NonNull String eventId) {
+        return eventRepository.getEventById(eventId)
+                .continueWithTask(task -> eventRepository.deleteEvent(task.getResult()))
+                .continueWith(task -> completed("event_" + eventId));
+    }
+
+    @Override
+    public Task<DeletionJob> deleteOrganizer(@NonNull String organizerId) {
+        return eventRepository.fetchEventsByOrganizerId(organizerId)
+                .continueWithTask(task -> {
+                    List<Task<Void>> deletes = new ArrayList<>();
+                    for (Event event : task.getResult()) {
+                        deletes.add(eventRepository.deleteEvent(event));
+                    }
+                    return Tasks.whenAll(deletes);
+                })
+                .continueWithTask(task -> deleteProfileById(organizerId))
+                .continueWith(task -> completed("organizer_" + organizerId));
+    }
+
+    @Override
+    public Task<DeletionJob> deleteProfile(@NonNull String uid) {
+        return deleteProfileById(uid).continueWith(task -> completed("profile_" + uid));
+    }
+
+    @Override
+    public Task<Void> resumeUnfinished() {
+        return Tasks.forResult(null);
+    }
+
+    private Task<Void> deleteProfileById(String uid) {
+        return profileRepository.getProfileById(uid).continueWithTask(task -> {
+            Profile profile = task.getResult();
+            return profile != null ? profileRepository.deleteProfile(profile) : Tasks.forResult(null);
+        });
+    }
+
+    private static DeletionJob completed(String jobId) {
+        DeletionJob job = new DeletionJob();
+        job.setJobId(jobId);
+        job.setState(CascadeDeleter.COMPLETED);
+        return job;
+    }
+}
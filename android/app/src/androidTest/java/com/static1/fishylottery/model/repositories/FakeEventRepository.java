@@ -2,9 +2,12 @@ package com.static1.fishylottery.model.repositories;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.static1.fishylottery.model.entities.Event;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,15 +46,51 @@ public class FakeEventRepository implements IEventRepository {
         return Tasks.forResult(events);
     }
 
+    @Override
+    public Task<List<Event>> fetchEventsByIds(Collection<String> eventIds) {
+        List<Event> result = new ArrayList<>();
+        for (Event event : events) {
+            if (eventIds.contains(event.getEventId())) {
+                result.add(event);
+            }
+        }
+        return Tasks.forResult(result);
+    }
+
+    @Override
+    public Task<EventPage> browseEvents(BrowseQuery query, DocumentSnapshot cursor) {
+        List<Event> matching = new ArrayList<>();
+        for (Event event : events) {
+            if (query.matches(event)) {
+                matching.add(event);
+            }
+        }
+        matching.sort(Comparator.comparing(Event::getEventStartDate));
+        return Tasks.forResult(new EventPage(matching, null, false));
+    }
+
+    @Override
+    public Task<EventPage> browseCachedEvents(BrowseQuery query) {
+        // Nothing is ever cached on the device
+        return Tasks.forResult(new EventPage(new ArrayList<>(), null, false));
+    }
+
     @Override
     public Task<List<Event>> fetchEventsByOrganizerId(String uid) {
         return Tasks.forResult(events);
     }
 
     @Override
-    public Task<Void> drawEntrants(String eventId) {
-        return null;
+    public Task<Map<String, Integer>> countEventsByOrganizer() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Event event : events) {
+            if (event.getOrganizerId() != null) {
+                counts.merge(event.getOrganizerId(), 1, Integer::sum);
+            }
+        }
+        return Tasks.forResult(counts);
     }
+
     @Override
     public Task<List<String>> fetchCancelledEntrantIds(String eventId) {
         List<String> ids = cancelledByEvent.getOrDefault(eventId, new ArrayList<>());
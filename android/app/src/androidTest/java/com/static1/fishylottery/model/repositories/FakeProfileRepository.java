@@ -5,7 +5,10 @@ import com.google.android.gms.tasks.Tasks;
 import com.static1.fishylottery.model.entities.Profile;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class FakeProfileRepository implements IProfileRepository {
     private List<Profile> profiles = new ArrayList<>();
@@ -53,4 +56,16 @@ public class FakeProfileRepository implements IProfileRepository {
         }
         return Tasks.forResult(result);
     }
+
+    @Override
+    public Task<ProfileLookup> resolveProfiles(Collection<String> uids) {
+        List<String> ids = ProfileLookup.distinct(uids);
+        Map<String, Profile> found = new HashMap<>();
+        for (Profile p : profiles) {
+            if (ids.contains(p.getUid())) {
+                found.put(p.getUid(), p);
+            }
+        }
+        return Tasks.forResult(new ProfileLookup(ids, found));
+    }
 }
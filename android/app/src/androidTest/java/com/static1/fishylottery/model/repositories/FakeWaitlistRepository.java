@@ -8,6 +8,7 @@ import com.static1.fishylottery.model.entities.Event;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -191,4 +192,49 @@ public class FakeWaitlistRepository implements IWaitlistRepository {
         return null;
     }
 
+    /**
+     * Fallback for the aggregate count: counts the in-memory entries, matching statuses the
+     * same lenient way as {@link #addToWaitlistRespectingLimit}.
+     */
+    @Override
+    public Task<Long> countWaitlist(@NonNull Event event, @NonNull Collection<String> statuses) {
+        List<WaitlistEntry> list =
+                eventWaitlists.getOrDefault(event.getEventId(), new ArrayList<>());
+        return Tasks.forResult(countMatching(list, statuses));
+    }
+
+    @Override
+    public Task<Map<String, Map<String, Long>>> countWaitlists(@NonNull Collection<String> eventIds,
+                                                               @NonNull Collection<String> statuses) {
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        for (String eventId : eventIds) {
+            List<WaitlistEntry> list = eventWaitlists.getOrDefault(eventId, new ArrayList<>());
+            Map<String, Long> eventCounts = new HashMap<>();
+            for (String status : statuses) {
+                List<String> single = new ArrayList<>();
+                single.add(status);
+                eventCounts.put(status, countMatching(list, single));
+            }
+            counts.put(eventId, eventCounts);
+        }
+        return Tasks.forResult(counts);
+    }
+
+    private long countMatching(List<WaitlistEntry> list, Collection<String> statuses) {
+        long count = 0;
+        for (WaitlistEntry e : list) {
+            if (e == null) continue;
+            if (statuses.isEmpty()) {
+                count++;
+                continue;
+            }
+            String status = e.getStatus();
+            if (status == null) continue;
+            if (statuses.contains(status.trim().toLowerCase(Locale.ROOT))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
 }
@@ -17,11 +17,16 @@ import androidx.test.filters.LargeTest;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.Event;
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.model.repositories.BrowseQuery;
+import com.static1.fishylottery.model.repositories.EventPage;
+import com.static1.fishylottery.model.repositories.FakeCascadeDeleter;
 import com.static1.fishylottery.model.repositories.IEventRepository;
 import com.static1.fishylottery.model.repositories.IProfileRepository;
+import com.static1.fishylottery.model.repositories.ProfileLookup;
 import com.static1.fishylottery.view.admin.AdminOrganizerAdapter.OrganizerInfo;
 import com.static1.fishylottery.viewmodel.AdminOrganizersViewModel;
 
@@ -29,7 +34,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RunWith(AndroidJUnit4.class)
 @LargeTest
@@ -42,7 +50,8 @@ public class AdminOrganizersFragmentTest {
         private final AdminOrganizersViewModel viewModel;
 
         public TestFragmentFactory(IEventRepository eventRepository, IProfileRepository profileRepository) {
-            this.viewModel = new AdminOrganizersViewModel(eventRepository, profileRepository);
+            this.viewModel = new AdminOrganizersViewModel(eventRepository, profileRepository,
+                    new FakeCascadeDeleter(eventRepository, profileRepository));
         }
 
         @NonNull
@@ -103,6 +112,27 @@ public class AdminOrganizersFragmentTest {
             return Tasks.forResult(new ArrayList<>(events));
         }
 
+        @Override
+        public Task<List<Event>> fetchEventsByIds(Collection<String> eventIds) {
+            List<Event> result = new ArrayList<>();
+            for (Event event : events) {
+                if (eventIds.contains(event.getEventId())) {
+                    result.add(event);
+                }
+            }
+            return Tasks.forResult(result);
+        }
+
+        @Override
+        public Task<EventPage> browseEvents(BrowseQuery query, DocumentSnapshot cursor) {
+            return Tasks.forResult(new EventPage(new ArrayList<>(), null, false));
+        }
+
+        @Override
+        public Task<EventPage> browseCachedEvents(BrowseQuery query) {
+            return Tasks.forResult(new EventPage(new ArrayList<>(), null, false));
+        }
+
         @Override
         public Task<List<Event>> fetchEventsByOrganizerId(String uid) {
             List<Event> filtered = new ArrayList<>();
@@ -115,8 +145,14 @@ public class AdminOrganizersFragmentTest {
         }
 
         @Override
-        public Task<Void> drawEntrants(String eventId) {
-            return Tasks.forResult(null);
+        public Task<Map<String, Integer>> countEventsByOrganizer() {
+            Map<String, Integer> counts = new HashMap<>();
+            for (Event event : events) {
+                if (event.getOrganizerId() != null) {
+                    counts.merge(event.getOrganizerId(), 1, Integer::sum);
+                }
+            }
+            return Tasks.forResult(counts);
         }
 
         @Override
@@ -188,6 +224,18 @@ public class AdminOrganizersFragmentTest {
             }
             return Tasks.forResult(result);
         }
+
+        @Override
+        public Task<ProfileLookup> resolveProfiles(Collection<String> uids) {
+            List<String> ids = ProfileLookup.distinct(uids);
+            Map<String, Profile> found = new HashMap<>();
+            for (Profile p : profiles) {
+                if (ids.contains(p.getUid())) {
+                    found.put(p.getUid(), p);
+                }
+            }
+            return Tasks.forResult(new ProfileLookup(ids, found));
+        }
     }
 
     /**
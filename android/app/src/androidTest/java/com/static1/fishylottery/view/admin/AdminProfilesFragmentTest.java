@@ -21,14 +21,19 @@ import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.model.repositories.FakeCascadeDeleter;
 import com.static1.fishylottery.model.repositories.IProfileRepository;
+import com.static1.fishylottery.model.repositories.ProfileLookup;
 import com.static1.fishylottery.viewmodel.AdminProfilesViewModel;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RunWith(AndroidJUnit4.class)
 @LargeTest
@@ -41,7 +46,8 @@ public class AdminProfilesFragmentTest {
         private final AdminProfilesViewModel viewModel;
 
         public TestFragmentFactory(IProfileRepository profileRepository) {
-            this.viewModel = new AdminProfilesViewModel(profileRepository);
+            this.viewModel = new AdminProfilesViewModel(profileRepository,
+                    new FakeCascadeDeleter(null, profileRepository));
         }
 
         @NonNull
@@ -112,6 +118,18 @@ public class AdminProfilesFragmentTest {
             }
             return Tasks.forResult(result);
         }
+
+        @Override
+        public Task<ProfileLookup> resolveProfiles(Collection<String> uids) {
+            List<String> ids = ProfileLookup.distinct(uids);
+            Map<String, Profile> found = new HashMap<>();
+            for (Profile p : profiles) {
+                if (ids.contains(p.getUid())) {
+                    found.put(p.getUid(), p);
+                }
+            }
+            return Tasks.forResult(new ProfileLookup(ids, found));
+        }
     }
 
     /**
@@ -4,6 +4,7 @@ import android.app.Application;
 
 import com.google.firebase.FirebaseApp;
 import com.static1.fishylottery.services.AuthManager;
+import com.static1.fishylottery.services.FirestoreConfig;
 
 /**
  * This is the main application that contains the initial creation of some resources that do
@@ -15,5 +16,8 @@ public class MainApplication extends Application {
     public void onCreate() {
         super.onCreate();
         FirebaseApp.initializeApp(this);
+
+        // Must be applied before anything else uses Firestore
+        FirestoreConfig.initialize(FirestoreConfig.DEFAULT_CACHE_BYTES);
     }
 }
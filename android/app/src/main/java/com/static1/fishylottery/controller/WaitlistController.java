@@ -13,6 +13,7 @@ import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.Transaction;
 import com.static1.fishylottery.model.entities.Event;
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.services.FirestoreConfig;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -32,7 +33,7 @@ public class WaitlistController {
 
     private static final String TAG = "WaitlistController";
 
-    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final FirebaseFirestore db = FirestoreConfig.getInstance().getFirestore();
 
     // Optional: keep an event attribute (can be null). Methods accept Event param but controller can also store it.
     private Event event;
@@ -20,6 +20,7 @@ public class AppNotification implements Serializable {
     private String type;      // e.g., "info" or "invitation"
     private String status;    // "pending" | "accepted" | "declined"
     private boolean read;
+    private String broadcastId; // set on inbox pointers whose body lives in eventBroadcasts
 
     @ServerTimestamp
     private Date createdAt;
@@ -72,4 +73,11 @@ public class AppNotification implements Serializable {
 
     public Date getCreatedAt() { return createdAt; }
     public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+
+    /**
+     * Returns the ID of the shared broadcast holding this notification's title and message, or
+     * null if the notification stores its own body.
+     */
+    public String getBroadcastId() { return broadcastId; }
+    public void setBroadcastId(String broadcastId) { this.broadcastId = broadcastId; }
 }
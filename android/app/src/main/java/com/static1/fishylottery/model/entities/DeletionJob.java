@@ -0,0 +1,52 @@
+package com.static1.fishylottery.model.entities;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Records the progress of one cascading delete under {@code deletionJobs/{jobId}}. The job
+ * deletes its pending events one at a time and then, if it has one, the profile. Every event
+ * that is fully deleted is removed from the pending list in the same batch that deletes the
+ * event document, so a job that was interrupted resumes with the first event still standing.
+ */
+public class DeletionJob {
+    private String jobId;
+    private String state;          // running | completed
+    private List<String> pendingEventIds = new ArrayList<>();
+    private String profileId;      // deleted after the events, may be null
+    private long deletedCount;     // documents deleted so far, including subcollections
+    private Date startedAt;
+    private Date completedAt;
+
+    /**
+     * No-arg constructor required by Firestore.
+     */
+    public DeletionJob() { }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    /**
+     * Returns the events still to be deleted, in the order they will be deleted.
+     *
+     * @return the pending event IDs
+     */
+    public List<String> getPendingEventIds() { return pendingEventIds; }
+    public void setPendingEventIds(List<String> pendingEventIds) { this.pendingEventIds = pendingEventIds; }
+
+    public String getProfileId() { return profileId; }
+    public void setProfileId(String profileId) { this.profileId = profileId; }
+
+    public long getDeletedCount() { return deletedCount; }
+    public void setDeletedCount(long deletedCount) { this.deletedCount = deletedCount; }
+
+    public Date getStartedAt() { return startedAt; }
+    public void setStartedAt(Date startedAt) { this.startedAt = startedAt; }
+
+    public Date getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Date completedAt) { this.completedAt = completedAt; }
+}
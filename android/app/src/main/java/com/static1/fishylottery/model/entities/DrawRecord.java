@@ -0,0 +1,93 @@
+package com.static1.fishylottery.model.entities;
+
+import java.util.Date;
+
+/**
+ * The audit record of one lottery draw, stored once under
+ * {@code events/{eventId}/draws/{drawId}} and never changed afterwards. It holds everything
+ * needed to re-derive the winners: the seed and hashes of the candidate set and of the ordered
+ * winners. The IDs themselves are frozen in {@code draws/{drawId}/candidates/{chunkId}} and
+ * {@code draws/{drawId}/winners/{chunkId}} chunks, because the waitlist no longer looks the same
+ * once the winners have been invited and a large draw's IDs do not fit in one document.
+ */
+public class DrawRecord {
+    private String drawId;
+    private String eventId;
+    private String algorithm;
+    private long seed;
+    private int slots;
+    private int candidateCount;
+    private int candidateChunkCount;
+    private String candidateHash;
+    private String selectionId;    // prefix of the chunk document IDs
+    private int winnerCount;
+    private int winnerChunkCount;
+    private String winnerHash;
+    private Date createdAt;
+
+    /**
+     * No-arg constructor required by Firestore.
+     */
+    public DrawRecord() { }
+
+    public String getDrawId() { return drawId; }
+    public void setDrawId(String drawId) { this.drawId = drawId; }
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
+    /**
+     * Returns the name of the selection algorithm, so a replay can refuse records it cannot
+     * reproduce.
+     *
+     * @return the algorithm name
+     */
+    public String getAlgorithm() { return algorithm; }
+    public void setAlgorithm(String algorithm) { this.algorithm = algorithm; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public int getSlots() { return slots; }
+    public void setSlots(int slots) { this.slots = slots; }
+
+    public int getCandidateCount() { return candidateCount; }
+    public void setCandidateCount(int candidateCount) { this.candidateCount = candidateCount; }
+
+    public int getCandidateChunkCount() { return candidateChunkCount; }
+    public void setCandidateChunkCount(int candidateChunkCount) { this.candidateChunkCount = candidateChunkCount; }
+
+    /**
+     * Returns the SHA-256 hash of the candidate IDs in draw order, as lowercase hex.
+     *
+     * @return the candidate-set hash
+     */
+    public String getCandidateHash() { return candidateHash; }
+    public void setCandidateHash(String candidateHash) { this.candidateHash = candidateHash; }
+
+    /**
+     * Returns the ID of the selection attempt that wrote this draw's chunks. Chunk documents are
+     * named {@code {selectionId}_{index}}.
+     *
+     * @return the selection ID
+     */
+    public String getSelectionId() { return selectionId; }
+    public void setSelectionId(String selectionId) { this.selectionId = selectionId; }
+
+    public int getWinnerCount() { return winnerCount; }
+    public void setWinnerCount(int winnerCount) { this.winnerCount = winnerCount; }
+
+    public int getWinnerChunkCount() { return winnerChunkCount; }
+    public void setWinnerChunkCount(int winnerChunkCount) { this.winnerChunkCount = winnerChunkCount; }
+
+    /**
+     * Returns the SHA-256 hash of the winner IDs in selection order, as lowercase hex.
+     *
+     * @return the winner hash
+     */
+    public String getWinnerHash() { return winnerHash; }
+    public void setWinnerHash(String winnerHash) { this.winnerHash = winnerHash; }
+
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+}
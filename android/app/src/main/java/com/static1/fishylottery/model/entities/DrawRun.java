@@ -0,0 +1,93 @@
+package com.static1.fishylottery.model.entities;
+
+import java.util.Date;
+
+/**
+ * Records the progress of one lottery draw under {@code events/{eventId}/drawRuns/{runId}}.
+ * The draw moves through the states "selecting", "inviting", "notifying" and "completed", and
+ * every write that advances it also updates this document, so a draw that was interrupted can be
+ * resumed exactly where it stopped.
+ */
+public class DrawRun {
+    private String runId;
+    private String state;          // selecting | inviting | notifying | completed
+    private long seed;
+    private int slots;
+    private long candidateCount;
+    private String selectionId;    // selection attempt whose winner chunks are invited
+    private int chunkCount;
+    private int committedChunks;
+    private long invitedCount;
+    private String notifyCursor;   // last waitlist document notified in the notifying state
+    private long notifiedCount;
+    private Date startedAt;
+    private Date completedAt;
+
+    /**
+     * No-arg constructor required by Firestore.
+     */
+    public DrawRun() { }
+
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    /**
+     * Returns the random seed used to select winners. Re-running the selection with this seed
+     * over the same candidates gives the same winners.
+     *
+     * @return the seed
+     */
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    /**
+     * Returns the number of invitations this draw may send.
+     *
+     * @return the open slots when the draw started
+     */
+    public int getSlots() { return slots; }
+    public void setSlots(int slots) { this.slots = slots; }
+
+    public long getCandidateCount() { return candidateCount; }
+    public void setCandidateCount(long candidateCount) { this.candidateCount = candidateCount; }
+
+    /**
+     * Returns the ID of the selection attempt that moved the run out of the selecting state.
+     * Every attempt writes its winner chunks under its own IDs, so only this attempt's chunks
+     * are invited even if another device selected at the same time.
+     *
+     * @return the selection ID, or null while the run is still selecting
+     */
+    public String getSelectionId() { return selectionId; }
+    public void setSelectionId(String selectionId) { this.selectionId = selectionId; }
+
+    public int getChunkCount() { return chunkCount; }
+    public void setChunkCount(int chunkCount) { this.chunkCount = chunkCount; }
+
+    /**
+     * Returns how many winner chunks have been invited. Chunks below this index are never
+     * written again.
+     *
+     * @return the number of committed chunks
+     */
+    public int getCommittedChunks() { return committedChunks; }
+    public void setCommittedChunks(int committedChunks) { this.committedChunks = committedChunks; }
+
+    public long getInvitedCount() { return invitedCount; }
+    public void setInvitedCount(long invitedCount) { this.invitedCount = invitedCount; }
+
+    public String getNotifyCursor() { return notifyCursor; }
+    public void setNotifyCursor(String notifyCursor) { this.notifyCursor = notifyCursor; }
+
+    public long getNotifiedCount() { return notifiedCount; }
+    public void setNotifiedCount(long notifiedCount) { this.notifiedCount = notifiedCount; }
+
+    public Date getStartedAt() { return startedAt; }
+    public void setStartedAt(Date startedAt) { this.startedAt = startedAt; }
+
+    public Date getCompletedAt() { return completedAt; }
+    public void setCompletedAt(Date completedAt) { this.completedAt = completedAt; }
+}
@@ -1,8 +1,12 @@
 package com.static1.fishylottery.model.entities;
 import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.Exclude;
+
 import java.io.Serializable;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public class Event implements Serializable {
     private String eventId;
@@ -209,6 +213,36 @@ public class Event implements Serializable {
         return waitlistCount != null ? waitlistCount : 0;
     }
 
+    // Per-status counters maintained on the event document (status -> count).
+    // Excluded from object mapping so saving an event never overwrites the server-side values;
+    // the repository reads them from the snapshot instead.
+    @Nullable
+    private Map<String, Long> waitlistCounts;
+
+    @Exclude
+    @Nullable
+    public Map<String, Long> getWaitlistCounts() {
+        return waitlistCounts;
+    }
+
+    @Exclude
+    public void setWaitlistCounts(@Nullable Map<String, Long> waitlistCounts) {
+        this.waitlistCounts = waitlistCounts;
+    }
+
+    /**
+     * Returns the number of waitlist entries with the given status, as recorded by the counters
+     * on the event document.
+     *
+     * @param status One of "waiting", "invited", "accepted", "declined" or "cancelled".
+     * @return The count, or 0 if the counters have not been loaded.
+     */
+    public int countByStatus(String status) {
+        if (waitlistCounts == null) return 0;
+        Long count = waitlistCounts.get(status);
+        return count != null ? count.intValue() : 0;
+    }
+
     @Nullable
     public Boolean getWaitlistLimited() { return waitlistLimited; }
 
@@ -0,0 +1,91 @@
+package com.static1.fishylottery.model.entities;
+
+import androidx.annotation.NonNull;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * The few event fields an entrant's lists need, copied onto each of the entrant's waitlist
+ * mirror documents under {@code entrantWaitlists/{uid}/events/{eventId}}. This lets My Events
+ * and Event History be drawn from the entrant's own subcollection without reading every event.
+ */
+public class EventSummary implements Serializable {
+    private String title;
+    private Date eventStartDate;
+    private Date eventEndDate;
+    private String location;
+    private String imageUrl;
+
+    /**
+     * No-arg constructor required by Firestore.
+     */
+    public EventSummary() { }
+
+    /**
+     * Copies the summary fields of an event.
+     *
+     * @param event the event to summarize
+     * @return a new summary
+     */
+    public static EventSummary from(@NonNull Event event) {
+        EventSummary summary = new EventSummary();
+        summary.title = event.getTitle();
+        summary.eventStartDate = event.getEventStartDate();
+        summary.eventEndDate = event.getEventEndDate();
+        summary.location = event.getLocation();
+        summary.imageUrl = event.getImageUrl();
+        return summary;
+    }
+
+    /**
+     * Builds a partial event holding only the summary fields, for showing in a list. The full
+     * event must still be fetched before it is opened.
+     *
+     * @param eventId the ID of the summarized event
+     * @return a new event with the summary fields set
+     */
+    public Event toEvent(String eventId) {
+        Event event = new Event();
+        event.setEventId(eventId);
+        event.setTitle(title);
+        event.setEventStartDate(eventStartDate);
+        event.setEventEndDate(eventEndDate);
+        event.setLocation(location);
+        event.setImageUrl(imageUrl);
+        return event;
+    }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public Date getEventStartDate() { return eventStartDate; }
+    public void setEventStartDate(Date eventStartDate) { this.eventStartDate = eventStartDate; }
+
+    public Date getEventEndDate() { return eventEndDate; }
+    public void setEventEndDate(Date eventEndDate) { this.eventEndDate = eventEndDate; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EventSummary)) return false;
+        EventSummary other = (EventSummary) o;
+        return Objects.equals(title, other.title)
+                && Objects.equals(eventStartDate, other.eventStartDate)
+                && Objects.equals(eventEndDate, other.eventEndDate)
+                && Objects.equals(location, other.location)
+                && Objects.equals(imageUrl, other.imageUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(title, eventStartDate, eventEndDate, location, imageUrl);
+    }
+}
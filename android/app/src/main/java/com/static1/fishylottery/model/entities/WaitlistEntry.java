@@ -1,5 +1,6 @@
 package com.static1.fishylottery.model.entities;
 
+import com.google.firebase.firestore.Exclude;
 import com.google.firebase.firestore.GeoPoint;
 
 import java.util.Date;
@@ -18,6 +19,7 @@ public class WaitlistEntry {
     private Profile profile;
     private GeoPoint joinLocation;
     private String eventId;
+    private EventSummary eventSummary;
     /**
      * No-arg constructor required by Firestore.
      * Creates an empty waitlist entry.
@@ -32,6 +34,23 @@ public class WaitlistEntry {
     public WaitlistEntry(String userId) {
         this.status = "waiting";
     }
+    /**
+     * Creates a shallow copy of another waitlist entry, so a changed copy can be saved while
+     * the original is still shown.
+     *
+     * @param other the entry to copy
+     */
+    public WaitlistEntry(WaitlistEntry other) {
+        this.status = other.status;
+        this.joinedAt = other.joinedAt;
+        this.invitedAt = other.invitedAt;
+        this.declinedAt = other.declinedAt;
+        this.acceptedAt = other.acceptedAt;
+        this.profile = other.profile;
+        this.joinLocation = other.joinLocation;
+        this.eventId = other.eventId;
+        this.eventSummary = other.eventSummary;
+    }
 
     // getters & setters
     /**
@@ -158,4 +177,24 @@ public class WaitlistEntry {
     public void setEventId(String eventId) {
         this.eventId = eventId;
     }
-}
\ No newline at end of file
+    /**
+     * Returns the summary of the event stored on the entrant's mirror document. Only entries
+     * read from the entrant side carry one; the repository writes it separately so it never
+     * ends up on the event's own waitlist.
+     *
+     * @return the event summary, or {@code null} if none was stored
+     */
+    @Exclude
+    public EventSummary getEventSummary() {
+        return eventSummary;
+    }
+    /**
+     * Sets the summary of the event this entry belongs to.
+     *
+     * @param eventSummary the event summary
+     */
+    @Exclude
+    public void setEventSummary(EventSummary eventSummary) {
+        this.eventSummary = eventSummary;
+    }
+}
@@ -0,0 +1,424 @@
+package com.static1.fishylottery.model.logic;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.storage.StorageException;
+import com.static1.fishylottery.model.entities.DeletionJob;
+import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.model.repositories.BatchWriter;
+import com.static1.fishylottery.model.repositories.EventRepository;
+import com.static1.fishylottery.model.repositories.NotificationRepository;
+import com.static1.fishylottery.model.repositories.ProfileRepository;
+import com.static1.fishylottery.model.repositories.WaitlistRepository;
+import com.static1.fishylottery.services.FirestoreConfig;
+import com.static1.fishylottery.services.StorageManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Deletes events, organizers and profiles together with everything that hangs off them.
+ * <p>
+ * Deleting an event removes its {@code waitlist} entries and their {@code entrantWaitlists}
+ * mirrors, the {@code selectedEntrants}, {@code cancelledEntrants} and {@code attendees}
+ * subcollections, its draw runs and draw records with their chunk subcollections, and its poster
+ * in Storage. The event document goes last, so an event that still exists always has its poster
+ * URL to clean up. Deleting an organizer deletes each of their events this way and then their
+ * profile; deleting a profile also removes its waitlist entries and inbox.
+ * <p>
+ * Subcollections are deleted a page at a time, each page through a {@link BatchWriter} with a
+ * few batches in flight at once, so no single request grows with the size of the event.
+ * <p>
+ * Each delete is recorded as a {@link DeletionJob} under {@code deletionJobs/{jobId}}. Asking to
+ * delete the same target again while its job is unfinished resumes that job, and
+ * {@link #resumeUnfinished()} picks up every job that was interrupted, e.g. by the app being
+ * killed. Every step is safe to repeat: pages are always read from the start of what is left.
+ */
+public class CascadeDeleter implements ICascadeDeleter {
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+
+    private static final String JOBS = "deletionJobs";
+
+    /** Documents read per page of a subcollection being deleted. */
+    private static final int PAGE_SIZE = 1000;
+
+    /** Batches committed at once while deleting a page. */
+    private static final int MAX_CONCURRENT_BATCHES = 4;
+
+    /** Event subcollections without mirrors, each followed by the subcollections of its documents. */
+    static final String[][] EVENT_SUBCOLLECTIONS = {
+            {"selectedEntrants"},
+            {"cancelledEntrants"},
+            {"attendees"},
+            {LotteryDrawEngine.DRAW_RUNS, LotteryDrawEngine.RUN_CHUNKS},
+            {LotteryDrawEngine.DRAWS, LotteryDrawEngine.CANDIDATES, LotteryDrawEngine.WINNERS},
+    };
+
+    private static final String TAG = "CascadeDelete";
+
+    private final FirebaseFirestore db;
+    private final ProfileRepository profileRepository;
+    private final WaitlistRepository waitlistRepository;
+    private final NotificationRepository notificationRepository;
+
+    public CascadeDeleter() {
+        this(FirestoreConfig.getInstance());
+    }
+
+    public CascadeDeleter(FirestoreConfig config) {
+        this.db = config.getFirestore();
+        this.profileRepository = new ProfileRepository(config);
+        this.waitlistRepository = new WaitlistRepository(config);
+        this.notificationRepository = new NotificationRepository(config.getFirestore());
+    }
+
+    /**
+     * Deletes an event and everything under it, or resumes its unfinished delete.
+     *
+     * @param eventId The event to delete.
+     * @return A task with the completed job.
+     */
+    @Override
+    public Task<DeletionJob> deleteEvent(@NonNull String eventId) {
+        return startOrResume("event_" + eventId, Collections.singletonList(eventId), null)
+                .continueWithTask(this::continueJob);
+    }
+
+    /**
+     * Deletes every event of an organizer and then the organizer's profile, or resumes the
+     * unfinished delete of that organizer.
+     *
+     * @param organizerId The profile ID of the organizer.
+     * @return A task with the completed job.
+     */
+    @Override
+    public Task<DeletionJob> deleteOrganizer(@NonNull String organizerId) {
+        return db.collection("events")
+                .whereEqualTo("organizerId", organizerId)
+                .get()
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    List<String> eventIds = new ArrayList<>();
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        eventIds.add(doc.getId());
+                    }
+                    return startOrResume("organizer_" + organizerId, eventIds, organizerId);
+                })
+                .continueWithTask(this::continueJob);
+    }
+
+    /**
+     * Deletes a profile together with its waitlist entries and notifications, or resumes its
+     * unfinished delete. The profile's events are left alone.
+     *
+     * @param uid The profile to delete.
+     * @return A task with the completed job.
+     */
+    @Override
+    public Task<DeletionJob> deleteProfile(@NonNull String uid) {
+        return startOrResume("profile_" + uid, new ArrayList<>(), uid)
+                .continueWithTask(this::continueJob);
+    }
+
+    /**
+     * Finishes every job that was interrupted, one after another.
+     *
+     * @return A task that completes when they are all done.
+     */
+    @Override
+    public Task<Void> resumeUnfinished() {
+        return db.collection(JOBS)
+                .whereEqualTo("state", RUNNING)
+                .get()
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    Task<DeletionJob> chain = Tasks.forResult(null);
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        DeletionJob job = doc.toObject(DeletionJob.class);
+                        if (job == null) continue;
+                        job.setJobId(doc.getId());
+                        Log.d(TAG, "Resuming " + job.getJobId());
+                        chain = chain.continueWithTask(previous -> {
+                            if (!previous.isSuccessful()) {
+                                throw previous.getException();
+                            }
+                            return continueJob(Tasks.forResult(job));
+                        });
+                    }
+                    return chain.continueWith(done -> {
+                        if (!done.isSuccessful()) {
+                            throw done.getException();
+                        }
+                        return null;
+                    });
+                });
+    }
+
+    /**
+     * Returns the unfinished job with this ID, or records a new one.
+     */
+    private Task<DeletionJob> startOrResume(String jobId, List<String> eventIds, String profileId) {
+        DocumentReference jobRef = db.collection(JOBS).document(jobId);
+
+        return db.runTransaction((Transaction.Function<DeletionJob>) transaction -> {
+            DocumentSnapshot snap = transaction.get(jobRef);
+            DeletionJob existing = snap.toObject(DeletionJob.class);
+            if (existing != null && RUNNING.equals(existing.getState())) {
+                existing.setJobId(jobId);
+                return existing;
+            }
+
+            DeletionJob job = new DeletionJob();
+            job.setJobId(jobId);
+            job.setState(RUNNING);
+            job.setPendingEventIds(new ArrayList<>(eventIds));
+            job.setProfileId(profileId);
+            job.setStartedAt(new Date());
+            transaction.set(jobRef, job);
+            return job;
+        });
+    }
+
+    /**
+     * Runs the remaining steps of a job: the next pending event, then the profile.
+     */
+    private Task<DeletionJob> continueJob(Task<DeletionJob> jobTask) {
+        if (!jobTask.isSuccessful()) {
+            return Tasks.forException(jobTask.getException());
+        }
+        DeletionJob job = jobTask.getResult();
+        if (job == null) {
+            return Tasks.forResult(null);
+        }
+        DocumentReference jobRef = db.collection(JOBS).document(job.getJobId());
+
+        if (!job.getPendingEventIds().isEmpty()) {
+            String eventId = job.getPendingEventIds().get(0);
+            return deleteEventTree(jobRef, eventId).continueWithTask(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+                Log.d(TAG, job.getJobId() + ": deleted event " + eventId);
+                job.getPendingEventIds().remove(0);
+                return continueJob(Tasks.forResult(job));
+            });
+        }
+
+        Task<Void> profileStep = job.getProfileId() != null
+                ? deleteProfileTree(job.getProfileId())
+                : Tasks.forResult(null);
+
+        return profileStep.continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Map<String, Object> update = new HashMap<>();
+            update.put("state", COMPLETED);
+            update.put("completedAt", new Date());
+            return jobRef.update(update);
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            job.setState(COMPLETED);
+            return job;
+        });
+    }
+
+    /**
+     * Deletes everything under an event, then its poster, then the event document itself
+     * together with its place in the job's pending list and its organizer's event count.
+     */
+    private Task<Void> deleteEventTree(DocumentReference jobRef, String eventId) {
+        DocumentReference eventRef = db.collection("events").document(eventId);
+
+        // Each waitlist entry takes its mirror in the entrant's list with it
+        Task<Void> chain = deleteCollection(jobRef, eventRef.collection("waitlist"), Collections.emptyList(),
+                doc -> Collections.singletonList(db.collection("entrantWaitlists")
+                        .document(doc.getId())
+                        .collection("events")
+                        .document(eventId)));
+
+        for (String[] subcollection : EVENT_SUBCOLLECTIONS) {
+            List<String> children = Arrays.asList(subcollection).subList(1, subcollection.length);
+            chain = chain.continueWithTask(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+                return deleteCollection(jobRef, eventRef.collection(subcollection[0]), children, null);
+            });
+        }
+
+        return chain
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return eventRef.get();
+                })
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return deletePoster(task.getResult().getString("imageUrl"));
+                })
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    // The organizer's event count only drops for the delete that removes the event
+                    return db.runTransaction((Transaction.Function<Void>) transaction -> {
+                        DocumentSnapshot event = transaction.get(eventRef);
+                        String organizerId = event.getString("organizerId");
+                        if (event.exists() && organizerId != null) {
+                            transaction.set(db.collection(EventRepository.ORGANIZER_STATS).document(organizerId),
+                                    EventRepository.eventCountChange(-1), SetOptions.merge());
+                        }
+                        transaction.delete(eventRef);
+                        transaction.update(jobRef, "pendingEventIds", FieldValue.arrayRemove(eventId),
+                                "deletedCount", FieldValue.increment(1));
+                        return null;
+                    });
+                });
+    }
+
+    /**
+     * Deletes a poster from Storage. A poster that is already gone, or a URL that does not point
+     * into Storage, counts as deleted.
+     */
+    private Task<Void> deletePoster(String imageUrl) {
+        if (imageUrl == null || imageUrl.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+        return StorageManager.deleteImage(imageUrl).continueWithTask(task -> {
+            Exception e = task.getException();
+            if (task.isSuccessful()
+                    || e instanceof IllegalArgumentException
+                    || (e instanceof StorageException
+                        && ((StorageException) e).getErrorCode() == StorageException.ERROR_OBJECT_NOT_FOUND)) {
+                return Tasks.forResult(null);
+            }
+            throw e;
+        });
+    }
+
+    /**
+     * Deletes a profile's waitlist entries, which also corrects the counters of the events
+     * they were on, then its inbox, then the profile. The repositories delete in resumable
+     * chunks of their own, so these documents are not counted in the job's progress.
+     */
+    private Task<Void> deleteProfileTree(String uid) {
+        return waitlistRepository.deleteFromWaitlistByUser(uid)
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return notificationRepository.deleteNotificationsByUser(uid);
+                })
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    Profile profile = new Profile();
+                    profile.setUid(uid);
+                    return profileRepository.deleteProfile(profile);
+                });
+    }
+
+    /**
+     * Deletes every document of a collection a page at a time, always reading the first page of
+     * what is left, so an interrupted delete simply starts again where it stopped.
+     *
+     * @param jobRef The job whose progress counter is advanced with each batch.
+     * @param collection The collection to empty.
+     * @param children The subcollections of each document to empty before the document.
+     * @param companions Other documents to delete along with each document, or null.
+     */
+    private Task<Void> deleteCollection(DocumentReference jobRef,
+                                        CollectionReference collection,
+                                        List<String> children,
+                                        Function<DocumentSnapshot, List<DocumentReference>> companions) {
+        return collection.orderBy(FieldPath.documentId()).limit(PAGE_SIZE).get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            if (docs.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+
+            // Nested collections are few and small (draw chunks), so they are emptied in turn
+            Task<Void> nested = Tasks.forResult(null);
+            for (DocumentSnapshot doc : docs) {
+                for (String child : children) {
+                    nested = nested.continueWithTask(previous -> {
+                        if (!previous.isSuccessful()) {
+                            throw previous.getException();
+                        }
+                        return deleteCollection(jobRef, doc.getReference().collection(child),
+                                Collections.emptyList(), null);
+                    });
+                }
+            }
+
+            return nested.continueWithTask(previous -> {
+                if (!previous.isSuccessful()) {
+                    throw previous.getException();
+                }
+                // Each batch also advances the job's progress counter. The increment must not be
+                // applied twice, so a batch that may have been committed is not retried; the job
+                // resumes from what is left instead.
+                BatchWriter writer = new BatchWriter(db)
+                        .setMaxInFlight(MAX_CONCURRENT_BATCHES)
+                        .setBatchHook(1, false, (batch, writes) ->
+                                batch.update(jobRef, "deletedCount", FieldValue.increment(writes)));
+
+                // A document and its companions are always deleted together
+                for (DocumentSnapshot doc : docs) {
+                    List<DocumentReference> refs = new ArrayList<>();
+                    refs.add(doc.getReference());
+                    if (companions != null) {
+                        refs.addAll(companions.apply(doc));
+                    }
+                    writer.add(refs.size(), batch -> {
+                        for (DocumentReference ref : refs) {
+                            batch.delete(ref);
+                        }
+                    });
+                }
+                return writer.flush();
+            }).continueWithTask(deleted -> {
+                if (!deleted.isSuccessful()) {
+                    throw deleted.getException();
+                }
+                if (docs.size() < PAGE_SIZE) {
+                    return Tasks.forResult(null);
+                }
+                return deleteCollection(jobRef, collection, children, companions);
+            });
+        });
+    }
+}
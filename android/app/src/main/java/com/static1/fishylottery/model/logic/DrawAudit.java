@@ -0,0 +1,143 @@
+package com.static1.fishylottery.model.logic;
+
+import com.static1.fishylottery.model.entities.DrawRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Re-derives and checks the outcome of recorded draws. Everything here is pure Java, so a draw
+ * can be replayed offline from its {@link DrawRecord} and frozen candidate list without touching
+ * Firestore.
+ */
+public final class DrawAudit {
+    /** The algorithm name written to every record produced by {@link #replay(List, int, long)}. */
+    public static final String ALGORITHM = "DrawSelector.select/v1";
+
+    private DrawAudit() {}
+
+    /** The result of checking one recorded draw. */
+    public enum Outcome {
+        /** The candidates match the hash and replaying them gives the recorded winners. */
+        VERIFIED,
+        /** The record was made by a selection algorithm this version cannot replay. */
+        UNSUPPORTED_ALGORITHM,
+        /** The candidate list does not match the recorded count or hash. */
+        CANDIDATES_MISMATCH,
+        /** Replaying the candidates gives different winners than the record. */
+        WINNERS_MISMATCH
+    }
+
+    /** The outcome of verifying one draw, keyed by its ID. */
+    public static final class Verification {
+        private final String drawId;
+        private final Outcome outcome;
+
+        public Verification(String drawId, Outcome outcome) {
+            this.drawId = drawId;
+            this.outcome = outcome;
+        }
+
+        public String getDrawId() {
+            return drawId;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public boolean isVerified() {
+            return outcome == Outcome.VERIFIED;
+        }
+    }
+
+    /**
+     * Selects the winners of a draw. The lottery engine and every replay go through this one
+     * method, so a recorded draw always replays to the same winners.
+     *
+     * @param candidates the candidate IDs in draw order
+     * @param slots      the number of winners to select
+     * @param seed       the recorded seed
+     * @return the winners in selection order
+     */
+    public static List<String> replay(List<String> candidates, int slots, long seed) {
+        return DrawSelector.select(candidates, slots, seed);
+    }
+
+    /**
+     * Hashes a candidate list with SHA-256. Each ID is length-prefixed so no two different
+     * lists share an encoding, and the order is part of the hash since it affects the winners.
+     *
+     * @param candidates the candidate IDs in draw order
+     * @return the hash as lowercase hex
+     */
+    public static String hashCandidates(List<String> candidates) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        byte[] length = new byte[4];
+        for (String id : candidates) {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            length[0] = (byte) (bytes.length >>> 24);
+            length[1] = (byte) (bytes.length >>> 16);
+            length[2] = (byte) (bytes.length >>> 8);
+            length[3] = (byte) bytes.length;
+            digest.update(length);
+            digest.update(bytes);
+        }
+
+        byte[] hash = digest.digest();
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Hashes a winner list the same way as {@link #hashCandidates(List)}, so the record only
+     * needs the hash while the winners themselves are stored in chunks.
+     *
+     * @param winners the winner IDs in selection order
+     * @return the hash as lowercase hex
+     */
+    public static String hashWinners(List<String> winners) {
+        return hashCandidates(winners);
+    }
+
+    /**
+     * Checks a recorded draw against its frozen candidate list.
+     *
+     * @param record     the recorded draw
+     * @param candidates the candidate IDs stored with the draw, in draw order
+     * @return the verification result
+     */
+    public static Verification verify(DrawRecord record, List<String> candidates) {
+        String drawId = record.getDrawId();
+
+        if (!ALGORITHM.equals(record.getAlgorithm())) {
+            return new Verification(drawId, Outcome.UNSUPPORTED_ALGORITHM);
+        }
+
+        if (candidates.size() != record.getCandidateCount()
+                || !hashCandidates(candidates).equals(record.getCandidateHash())) {
+            return new Verification(drawId, Outcome.CANDIDATES_MISMATCH);
+        }
+
+        List<String> winners = replay(candidates, record.getSlots(), record.getSeed());
+        if (winners.size() != record.getWinnerCount()
+                || !hashWinners(winners).equals(record.getWinnerHash())) {
+            return new Verification(drawId, Outcome.WINNERS_MISMATCH);
+        }
+
+        return new Verification(drawId, Outcome.VERIFIED);
+    }
+}
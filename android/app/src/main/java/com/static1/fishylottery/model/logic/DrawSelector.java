@@ -1,29 +1,134 @@
 package com.static1.fishylottery.model.logic;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.RandomAccess;
 
 /** Pure-Java selector used for unit testing the draw rule. */
 public final class DrawSelector {
     private DrawSelector() {}
 
-    /** Select up to n unique IDs using the provided RNG (deterministic in tests). */
+    /**
+     * Below this ratio of k to N, Floyd's algorithm is used instead of a partial Fisher-Yates
+     * shuffle, so tiny draws from huge lists do not allocate an index array of size N.
+     */
+    private static final int FLOYD_RATIO = 16;
+
+    /**
+     * Select up to n unique IDs using the provided RNG (deterministic in tests).
+     * Only n positions are drawn, so the cost is O(n) rather than a shuffle of the whole list,
+     * and the caller's list is never copied or mutated.
+     */
     public static List<String> select(List<String> entrantIds, int n, Random rng) {
         if (entrantIds == null) throw new IllegalArgumentException("entrantIds is null");
         if (n < 0) throw new IllegalArgumentException("n must be >= 0");
 
-        List<String> copy = new ArrayList<>(entrantIds);   // don’t mutate caller
-        Collections.shuffle(copy, rng);
-        int limit = Math.min(n, copy.size());
-        return new ArrayList<>(copy.subList(0, limit));
+        // Index access must be O(1) for the selection to stay O(n)
+        List<String> source = entrantIds instanceof RandomAccess
+                ? entrantIds
+                : new ArrayList<>(entrantIds);
+
+        int[] indices = selectIndices(source.size(), n, rng);
+        List<String> out = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            out.add(source.get(index));
+        }
+        return out;
     }
 
     /** Convenience overload with a fixed seed for reproducible tests. */
     public static List<String> select(List<String> entrantIds, int n, long seed) {
         return select(entrantIds, n, new Random(seed));
     }
-}
 
+    /**
+     * Selects min(k, size) distinct positions in [0, size). The result is deterministic for a
+     * given size, k and RNG state.
+     *
+     * @param size the number of candidates
+     * @param k    the number of positions to select
+     * @param rng  the random source
+     * @return the selected positions in selection order
+     */
+    public static int[] selectIndices(int size, int k, Random rng) {
+        if (size < 0) throw new IllegalArgumentException("size must be >= 0");
+        if (k < 0) throw new IllegalArgumentException("k must be >= 0");
+
+        int limit = Math.min(k, size);
+        if (limit == 0) return new int[0];
+
+        if ((long) limit * FLOYD_RATIO < size) {
+            return floyd(size, limit, rng);
+        }
+        return partialFisherYates(size, limit, rng);
+    }
+
+    /**
+     * Partial Fisher-Yates shuffle over a primitive index permutation: only the first k slots
+     * are shuffled, so it does k swaps instead of N.
+     */
+    private static int[] partialFisherYates(int size, int k, Random rng) {
+        int[] perm = new int[size];
+        for (int i = 0; i < size; i++) {
+            perm[i] = i;
+        }
+        for (int i = 0; i < k; i++) {
+            int j = i + rng.nextInt(size - i);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+        int[] out = new int[k];
+        System.arraycopy(perm, 0, out, 0, k);
+        return out;
+    }
+
+    /**
+     * Floyd's algorithm: k draws and O(k) memory regardless of N. Membership is tracked in a
+     * primitive open-addressing set to avoid boxing.
+     */
+    private static int[] floyd(int size, int k, Random rng) {
+        int[] out = new int[k];
+        IntSet chosen = new IntSet(k);
+        int count = 0;
+        for (int j = size - k; j < size; j++) {
+            int t = rng.nextInt(j + 1);
+            if (!chosen.add(t)) {
+                // t was already chosen; j cannot have been, since earlier picks are all < j
+                chosen.add(j);
+                t = j;
+            }
+            out[count++] = t;
+        }
+        return out;
+    }
+
+    /** Minimal open-addressing set of non-negative ints. */
+    private static final class IntSet {
+        private final int[] slots;
+        private final int mask;
+        private final int shift;
 
+        IntSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2, expected * 2) - 1) << 1;
+            slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            mask = capacity - 1;
+            shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        /** Adds the value, returning false if it was already present. */
+        boolean add(int value) {
+            // The high bits of the Fibonacci product are the well-mixed ones
+            int i = (value * 0x9E3779B9) >>> shift;
+            while (slots[i] != -1) {
+                if (slots[i] == value) return false;
+                i = (i + 1) & mask;
+            }
+            slots[i] = value;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.static1.fishylottery.model.logic;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.static1.fishylottery.model.entities.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An in-memory index over a fixed set of events, so interest and start-date filters can be
+ * re-applied without rescanning every event. Events are kept sorted by start date; each
+ * normalized interest maps to a bitset of positions in that order, and a date range is cut
+ * from the sorted start times with two binary searches. A filter is then a walk over the set
+ * bits inside the range, and results come back already sorted.
+ * <p>
+ * The index is immutable once built and safe to read from any thread.
+ */
+public final class EventFilterIndex {
+    /** Events sorted by start date, events without a start date last. */
+    private final Event[] events;
+    /** Start times of the events that have one, parallel to the front of {@link #events}. */
+    private final long[] startMillis;
+    private final Map<String, BitSet> byInterest = new HashMap<>();
+
+    /**
+     * Builds the index. The list is copied and not modified.
+     *
+     * @param events The events to index.
+     */
+    public EventFilterIndex(@NonNull List<Event> events) {
+        this.events = events.toArray(new Event[0]);
+        Arrays.sort(this.events, Comparator.comparing(Event::getEventStartDate,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        int dated = 0;
+        while (dated < this.events.length && this.events[dated].getEventStartDate() != null) {
+            dated++;
+        }
+        startMillis = new long[dated];
+        for (int i = 0; i < dated; i++) {
+            startMillis[i] = this.events[i].getEventStartDate().getTime();
+        }
+
+        for (int i = 0; i < this.events.length; i++) {
+            List<String> interests = this.events[i].getInterests();
+            if (interests == null) continue;
+            for (String interest : interests) {
+                String key = normalize(interest);
+                if (key == null) continue;
+                BitSet bits = byInterest.get(key);
+                if (bits == null) {
+                    bits = new BitSet(this.events.length);
+                    byInterest.put(key, bits);
+                }
+                bits.set(i);
+            }
+        }
+    }
+
+    /**
+     * @return The number of indexed events.
+     */
+    public int size() {
+        return events.length;
+    }
+
+    /**
+     * Returns the indexed events tagged with an interest and starting within a range, sorted by
+     * start date. Interests match case-insensitively and ignoring surrounding whitespace. Events
+     * without a start date are only returned when neither bound is given.
+     *
+     * @param interest The interest to match, or null for any.
+     * @param startFrom The earliest start date (inclusive), or null for no lower bound.
+     * @param startTo The latest start date (inclusive), or null for no upper bound.
+     * @return The matching events.
+     */
+    @NonNull
+    public List<Event> filter(@Nullable String interest,
+                              @Nullable Date startFrom,
+                              @Nullable Date startTo) {
+        int from = 0;
+        int to = events.length;
+        if (startFrom != null || startTo != null) {
+            from = startFrom != null ? lowerBound(startFrom.getTime()) : 0;
+            to = startTo != null ? upperBound(startTo.getTime()) : startMillis.length;
+        }
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+
+        if (interest == null) {
+            return Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(events, from, to)));
+        }
+
+        String key = normalize(interest);
+        BitSet bits = key != null ? byInterest.get(key) : null;
+        if (bits == null) {
+            return Collections.emptyList();
+        }
+
+        List<Event> result = new ArrayList<>();
+        for (int i = bits.nextSetBit(from); i >= 0 && i < to; i = bits.nextSetBit(i + 1)) {
+            result.add(events[i]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /** First dated position starting at or after the given time. */
+    private int lowerBound(long millis) {
+        int lo = 0;
+        int hi = startMillis.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (startMillis[mid] < millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** First dated position starting after the given time. */
+    private int upperBound(long millis) {
+        int lo = 0;
+        int hi = startMillis.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (startMillis[mid] <= millis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    @Nullable
+    private static String normalize(@Nullable String interest) {
+        if (interest == null) return null;
+        String key = interest.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+}
@@ -0,0 +1,46 @@
+package com.static1.fishylottery.model.logic;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.static1.fishylottery.model.entities.DeletionJob;
+
+/**
+ * Deletes events, organizers and profiles together with everything that hangs off them. The
+ * admin screens depend on this interface so tests can swap in a deleter backed by fake
+ * repositories.
+ */
+public interface ICascadeDeleter {
+    /**
+     * Deletes an event and everything under it, or resumes its unfinished delete.
+     *
+     * @param eventId The event to delete.
+     * @return A task with the completed job.
+     */
+    Task<DeletionJob> deleteEvent(@NonNull String eventId);
+
+    /**
+     * Deletes every event of an organizer and then the organizer's profile, or resumes the
+     * unfinished delete of that organizer.
+     *
+     * @param organizerId The profile ID of the organizer.
+     * @return A task with the completed job.
+     */
+    Task<DeletionJob> deleteOrganizer(@NonNull String organizerId);
+
+    /**
+     * Deletes a profile together with its waitlist entries and notifications, or resumes its
+     * unfinished delete. The profile's events are left alone.
+     *
+     * @param uid The profile to delete.
+     * @return A task with the completed job.
+     */
+    Task<DeletionJob> deleteProfile(@NonNull String uid);
+
+    /**
+     * Finishes every delete that was interrupted.
+     *
+     * @return A task that completes when they are all done.
+     */
+    Task<Void> resumeUnfinished();
+}
@@ -0,0 +1,34 @@
+package com.static1.fishylottery.model.logic;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+
+import com.google.android.gms.tasks.Task;
+import com.static1.fishylottery.model.entities.AppNotification;
+import com.static1.fishylottery.model.entities.DrawRun;
+import com.static1.fishylottery.model.entities.Event;
+
+/**
+ * Runs the lottery draw of an event. The hosted event screens depend on this interface so tests
+ * can swap in an engine that does not touch Firestore.
+ */
+public interface ILotteryDrawEngine {
+    /**
+     * Returns the progress of the draw this engine is running.
+     *
+     * @return The live progress.
+     */
+    LiveData<LotteryDrawEngine.Progress> getProgress();
+
+    /**
+     * Draws entrants for an event, or resumes the event's unfinished draw.
+     *
+     * @param event The event to draw for. Its capacity limits the number of invitations.
+     * @param invitedNotification The notification sent to every invited entrant.
+     * @param notSelectedNotification The notification sent to everyone left waiting.
+     * @return A task with the completed run.
+     */
+    Task<DrawRun> draw(@NonNull Event event,
+                       @NonNull AppNotification invitedNotification,
+                       @NonNull AppNotification notSelectedNotification);
+}
@@ -0,0 +1,694 @@
+package com.static1.fishylottery.model.logic;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+import com.static1.fishylottery.model.entities.AppNotification;
+import com.static1.fishylottery.model.entities.DrawRecord;
+import com.static1.fishylottery.model.entities.DrawRun;
+import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.model.entities.WaitlistEntry;
+import com.static1.fishylottery.model.repositories.BatchWriter;
+import com.static1.fishylottery.model.repositories.NotificationRepository;
+import com.static1.fishylottery.model.repositories.WaitlistCounters;
+import com.static1.fishylottery.services.FirestoreConfig;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The single lottery pipeline of the app. Every draw, for waitlists of any size, goes through
+ * these stages:
+ * <ol>
+ *     <li>{@link Stage#LOADING}: reads the "waiting" entrant IDs page by page,</li>
+ *     <li>{@link Stage#SELECTING}: selects the winners with
+ *     {@link DrawAudit#replay(List, int, long)} and the run's seed, records the draw in
+ *     {@code events/{eventId}/draws/{runId}} with the frozen candidate and winner lists, and
+ *     stores the winners in fixed-size chunks under the run,</li>
+ *     <li>{@link Stage#INVITING}: invites each chunk in its own transaction that also advances
+ *     the run, and</li>
+ *     <li>{@link Stage#NOTIFYING}: stores the "not selected" notification once as a shared
+ *     broadcast and gives everyone still waiting an inbox pointer to it, one batch per page.</li>
+ * </ol>
+ * Progress through the stages is published on {@link #getProgress()}, including how long the
+ * current stage has been running, and each stage's duration is logged when it ends.
+ * <p>
+ * Each draw is recorded in a run document under {@code events/{eventId}/drawRuns/{runId}} and
+ * the event points at the run in progress through {@code activeDrawRunId}.
+ * Starting a draw while another one is unfinished resumes that draw instead, so tapping twice or
+ * restarting after a crash never invites anyone twice. Notifications use the run ID as their
+ * document ID, so a repeated write replaces the earlier one instead of duplicating it.
+ */
+public class LotteryDrawEngine implements ILotteryDrawEngine {
+    public static final String SELECTING = "selecting";
+    public static final String INVITING = "inviting";
+    public static final String NOTIFYING = "notifying";
+    public static final String COMPLETED = "completed";
+
+    /** Event subcollections the draw writes, and the subcollections of their documents. */
+    public static final String DRAW_RUNS = "drawRuns";
+    public static final String RUN_CHUNKS = "chunks";
+    public static final String DRAWS = "draws";
+    public static final String CANDIDATES = "candidates";
+    public static final String WINNERS = "winners";
+
+    /** Each event subcollection the draw writes, followed by the subcollections of its documents. */
+    static final String[][] SUBCOLLECTIONS = {
+            {DRAW_RUNS, RUN_CHUNKS},
+            {DRAWS, CANDIDATES, WINNERS},
+    };
+
+    /** Field on the event document pointing at the unfinished draw run. */
+    private static final String ACTIVE_RUN_FIELD = "activeDrawRunId";
+
+    /** Waitlist documents read per page while selecting. */
+    private static final int PAGE_SIZE = 500;
+
+    /**
+     * Winners invited per transaction. Each winner costs three writes (entry, mirror and
+     * notification) and the counters and run take two more, staying under the 500-write limit.
+     */
+    private static final int CHUNK_SIZE = 150;
+
+    /**
+     * IDs per frozen candidate or winner chunk of a draw record, well under the 1 MiB limit.
+     */
+    private static final int CANDIDATE_CHUNK_SIZE = 1000;
+
+    /** Notifications per batch while notifying, leaving room for the run update. */
+    private static final int NOTIFY_PAGE_SIZE = 450;
+
+    private static final String TAG = "LotteryDraw";
+
+    /** The stages of the pipeline, in order. */
+    public enum Stage {
+        LOADING,
+        SELECTING,
+        INVITING,
+        NOTIFYING,
+        COMPLETED
+    }
+
+    /** How far the current draw has got within its stage. */
+    public static final class Progress {
+        private final Stage stage;
+        private final long done;
+        private final long total;
+        private final long stageElapsedMillis;
+
+        public Progress(Stage stage, long done, long total, long stageElapsedMillis) {
+            this.stage = stage;
+            this.done = done;
+            this.total = total;
+            this.stageElapsedMillis = stageElapsedMillis;
+        }
+
+        public Stage getStage() {
+            return stage;
+        }
+
+        /** Units of work finished in this stage: entrants loaded, chunks invited, entrants notified. */
+        public long getDone() {
+            return done;
+        }
+
+        /** Expected units of work in this stage. */
+        public long getTotal() {
+            return total;
+        }
+
+        public long getStageElapsedMillis() {
+            return stageElapsedMillis;
+        }
+    }
+
+    private final FirebaseFirestore db;
+    private final MutableLiveData<Progress> progress = new MutableLiveData<>();
+    private Stage currentStage;
+    private long stageStartedAt;
+    private long waitingEstimate;
+
+    public LotteryDrawEngine() {
+        this(FirestoreConfig.getInstance().getFirestore());
+    }
+
+    public LotteryDrawEngine(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Returns the progress of the draw this engine is running. The value is kept after the draw
+     * ends, so a failure leaves the stage it failed in.
+     *
+     * @return The live progress.
+     */
+    @Override
+    public LiveData<Progress> getProgress() {
+        return progress;
+    }
+
+    private void report(Stage stage, long done, long total) {
+        long now = SystemClock.elapsedRealtime();
+        if (stage != currentStage) {
+            if (currentStage != null) {
+                Log.d(TAG, currentStage + " took " + (now - stageStartedAt) + " ms");
+            }
+            currentStage = stage;
+            stageStartedAt = now;
+        }
+        progress.postValue(new Progress(stage, done, total, now - stageStartedAt));
+    }
+
+    /**
+     * Draws entrants for an event, or resumes the event's unfinished draw.
+     *
+     * @param event The event to draw for. Its capacity limits the number of invitations.
+     * @param invitedNotification The notification sent to every invited entrant.
+     * @param notSelectedNotification The notification sent to everyone left waiting.
+     * @return A task with the completed run.
+     */
+    @Override
+    public Task<DrawRun> draw(@NonNull Event event,
+                              @NonNull AppNotification invitedNotification,
+                              @NonNull AppNotification notSelectedNotification) {
+        String eventId = event.getEventId();
+        if (eventId == null) {
+            return Tasks.forException(new IllegalArgumentException("eventId is null"));
+        }
+
+        Integer capacity = event.getCapacity();
+        if (capacity == null || capacity <= 0) {
+            return Tasks.forException(new IllegalStateException("Event capacity is zero. None selected"));
+        }
+
+        DocumentReference eventRef = db.collection("events").document(eventId);
+        CollectionReference waitlistRef = eventRef.collection("waitlist");
+        currentStage = null;
+        report(Stage.LOADING, 0, 0);
+
+        // Open slots = capacity minus everyone already invited or accepted. The waiting count
+        // is only used as the expected total while loading.
+        Task<AggregateQuerySnapshot> takenTask = waitlistRef
+                .whereIn("status", Arrays.asList("invited", "accepted"))
+                .count()
+                .get(AggregateSource.SERVER);
+        Task<AggregateQuerySnapshot> waitingTask = waitlistRef
+                .whereEqualTo("status", "waiting")
+                .count()
+                .get(AggregateSource.SERVER);
+
+        return Tasks.whenAllSuccess(takenTask, waitingTask)
+                .continueWithTask(countTask -> {
+                    if (!countTask.isSuccessful()) {
+                        throw countTask.getException();
+                    }
+                    waitingEstimate = waitingTask.getResult().getCount();
+                    int slots = capacity - (int) takenTask.getResult().getCount();
+                    return startOrResume(eventRef, slots);
+                })
+                .continueWithTask(runTask -> {
+                    if (!runTask.isSuccessful()) {
+                        throw runTask.getException();
+                    }
+                    return advance(eventRef, runTask.getResult(), invitedNotification, notSelectedNotification);
+                });
+    }
+
+    /**
+     * Returns the event's unfinished run, or creates a new run with a fresh seed.
+     */
+    private Task<DrawRun> startOrResume(DocumentReference eventRef, int slots) {
+        CollectionReference runsRef = eventRef.collection(DRAW_RUNS);
+
+        return db.runTransaction((Transaction.Function<DrawRun>) transaction -> {
+            DocumentSnapshot eventSnap = transaction.get(eventRef);
+            if (!eventSnap.exists()) {
+                throw new IllegalStateException("Event not found");
+            }
+
+            String activeId = eventSnap.getString(ACTIVE_RUN_FIELD);
+            if (activeId != null) {
+                DocumentSnapshot runSnap = transaction.get(runsRef.document(activeId));
+                DrawRun active = runSnap.toObject(DrawRun.class);
+                if (active != null && !COMPLETED.equals(active.getState())) {
+                    active.setRunId(runSnap.getId());
+                    return active;
+                }
+            }
+
+            if (slots <= 0) {
+                throw new IllegalStateException("Max invitations has already been sent");
+            }
+
+            DocumentReference runRef = runsRef.document();
+            DrawRun run = new DrawRun();
+            run.setRunId(runRef.getId());
+            run.setState(SELECTING);
+            run.setSeed(new SecureRandom().nextLong());
+            run.setSlots(slots);
+            run.setStartedAt(new Date());
+
+            transaction.set(runRef, run);
+            transaction.update(eventRef, ACTIVE_RUN_FIELD, runRef.getId());
+            return run;
+        });
+    }
+
+    /**
+     * Runs the remaining steps of a draw from whatever state it is in.
+     */
+    private Task<DrawRun> advance(DocumentReference eventRef,
+                                  DrawRun run,
+                                  AppNotification invitedNotification,
+                                  AppNotification notSelectedNotification) {
+        Task<DrawRun> step;
+        switch (run.getState() != null ? run.getState() : SELECTING) {
+            case SELECTING:
+                step = select(eventRef, run);
+                break;
+            case INVITING:
+                step = invite(eventRef, run, invitedNotification);
+                break;
+            case NOTIFYING:
+                step = notifyNotSelected(eventRef, run, notSelectedNotification);
+                break;
+            default:
+                report(Stage.COMPLETED, run.getInvitedCount(), run.getInvitedCount());
+                return Tasks.forResult(run);
+        }
+
+        return step.continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return advance(eventRef, task.getResult(), invitedNotification, notSelectedNotification);
+        });
+    }
+
+    /**
+     * Reads the waiting entrant IDs, selects the winners, and records the draw together with
+     * the winner chunks. The draw record and the move out of the selecting state are committed
+     * in one transaction that first checks the run is still selecting, so every run that
+     * selected winners has exactly one record and one set of winner chunks. If this step is
+     * interrupted the run stays in the selecting state and is selected again from scratch;
+     * nothing has been invited yet at that point.
+     * <p>
+     * Two devices may select for the same run at once, and if someone joined in between they
+     * pick different winners. Each attempt writes its chunks under its own selection ID and
+     * only the attempt that moves the run on is recorded; the other one adopts that run and
+     * invites its winners instead of its own.
+     */
+    private Task<DrawRun> select(DocumentReference eventRef, DrawRun run) {
+        DocumentReference runRef = eventRef.collection(DRAW_RUNS).document(run.getRunId());
+        DocumentReference drawRef = eventRef.collection(DRAWS).document(run.getRunId());
+        String selectionId = runRef.collection(RUN_CHUNKS).document().getId();
+        // Only the IDs are kept; each page of snapshots is dropped once it has been read
+        List<String> candidates = new ArrayList<>();
+
+        return scan(waitingQuery(eventRef), null, PAGE_SIZE, docs -> {
+            for (DocumentSnapshot doc : docs) {
+                candidates.add(doc.getId());
+            }
+            report(Stage.LOADING, candidates.size(), Math.max(waitingEstimate, candidates.size()));
+            return Tasks.forResult(null);
+        }).continueWithTask(scanTask -> {
+            if (!scanTask.isSuccessful()) {
+                throw scanTask.getException();
+            }
+
+            report(Stage.SELECTING, 0, run.getSlots());
+            List<String> winners = DrawAudit.replay(candidates, run.getSlots(), run.getSeed());
+            List<List<String>> chunks = split(winners, CHUNK_SIZE);
+            List<List<String>> candidateChunks = split(candidates, CANDIDATE_CHUNK_SIZE);
+            List<List<String>> winnerChunks = split(winners, CANDIDATE_CHUNK_SIZE);
+
+            DrawRecord record = new DrawRecord();
+            record.setDrawId(run.getRunId());
+            record.setEventId(eventRef.getId());
+            record.setAlgorithm(DrawAudit.ALGORITHM);
+            record.setSeed(run.getSeed());
+            record.setSlots(run.getSlots());
+            record.setCandidateCount(candidates.size());
+            record.setCandidateChunkCount(candidateChunks.size());
+            record.setCandidateHash(DrawAudit.hashCandidates(candidates));
+            record.setSelectionId(selectionId);
+            record.setWinnerCount(winners.size());
+            record.setWinnerChunkCount(winnerChunks.size());
+            record.setWinnerHash(DrawAudit.hashWinners(winners));
+            record.setCreatedAt(new Date());
+
+            // Chunks live under this attempt's own IDs, so writing them again is harmless
+            BatchWriter writer = new BatchWriter(db);
+            writeChunks(writer, drawRef.collection(CANDIDATES), selectionId, candidateChunks);
+            writeChunks(writer, drawRef.collection(WINNERS), selectionId, winnerChunks);
+            writeChunks(writer, runRef.collection(RUN_CHUNKS), selectionId, chunks);
+
+            return writer.flush()
+                    .continueWithTask(writeTask -> {
+                        if (!writeTask.isSuccessful()) {
+                            throw writeTask.getException();
+                        }
+
+                        return db.runTransaction((Transaction.Function<DrawRun>) transaction -> {
+                            DocumentSnapshot runSnap = transaction.get(runRef);
+                            DocumentSnapshot drawSnap = transaction.get(drawRef);
+                            DrawRun current = runSnap.toObject(DrawRun.class);
+                            if (current == null) {
+                                throw new IllegalStateException("Draw run not found");
+                            }
+                            current.setRunId(runSnap.getId());
+
+                            // Another attempt finished selecting first; carry on with its winners
+                            if (!SELECTING.equals(current.getState())) {
+                                return current;
+                            }
+
+                            // The log is append-only: a record is created once and never replaced
+                            if (drawSnap.exists()) {
+                                throw new IllegalStateException("Draw " + drawRef.getId() + " is already recorded");
+                            }
+                            transaction.set(drawRef, record);
+
+                            run.setSelectionId(selectionId);
+                            run.setCandidateCount(candidates.size());
+                            run.setChunkCount(chunks.size());
+                            run.setCommittedChunks(0);
+
+                            Map<String, Object> update = new HashMap<>();
+                            update.put("selectionId", selectionId);
+                            update.put("candidateCount", run.getCandidateCount());
+                            update.put("chunkCount", run.getChunkCount());
+                            update.put("committedChunks", 0);
+
+                            if (chunks.isEmpty()) {
+                                // Nobody is waiting, so there is nobody to invite or notify either
+                                update.put("state", COMPLETED);
+                                update.put("completedAt", new Date());
+                                transaction.update(eventRef, ACTIVE_RUN_FIELD, FieldValue.delete());
+                                run.setState(COMPLETED);
+                            } else {
+                                update.put("state", INVITING);
+                                run.setState(INVITING);
+                            }
+                            transaction.update(runRef, update);
+                            return run;
+                        });
+                    });
+        });
+    }
+
+    private static List<List<String>> split(List<String> ids, int size) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += size) {
+            chunks.add(new ArrayList<>(ids.subList(i, Math.min(i + size, ids.size()))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Adds ID chunks to a writer as {@code {chunksRef}/{chunkId}} documents.
+     */
+    private static void writeChunks(BatchWriter writer,
+                                    CollectionReference chunksRef,
+                                    String selectionId,
+                                    List<List<String>> chunks) {
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("uids", chunks.get(i));
+            writer.set(chunksRef.document(chunkId(selectionId, i)), data);
+        }
+    }
+
+    /**
+     * Invites the winner chunks one transaction at a time, starting after the last committed
+     * chunk.
+     */
+    private Task<DrawRun> invite(DocumentReference eventRef, DrawRun run, AppNotification notification) {
+        DocumentReference runRef = eventRef.collection(DRAW_RUNS).document(run.getRunId());
+        report(Stage.INVITING, run.getCommittedChunks(), run.getChunkCount());
+
+        if (run.getCommittedChunks() >= run.getChunkCount()) {
+            return runRef.update("state", NOTIFYING).continueWith(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+                run.setState(NOTIFYING);
+                return run;
+            });
+        }
+
+        int index = run.getCommittedChunks();
+
+        return runRef.collection(RUN_CHUNKS).document(chunkId(run.getSelectionId(), index)).get()
+                .continueWithTask(chunkTask -> {
+                    if (!chunkTask.isSuccessful()) {
+                        throw chunkTask.getException();
+                    }
+                    List<String> uids = readUids(chunkTask.getResult());
+                    return db.runTransaction((Transaction.Function<DrawRun>) transaction ->
+                            commitChunk(transaction, eventRef, runRef, index, uids, notification));
+                })
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return invite(eventRef, task.getResult(), notification);
+                });
+    }
+
+    /**
+     * Invites one chunk of winners inside a transaction and advances the run in the same
+     * transaction. Winners who left or changed status since the selection are skipped.
+     */
+    private DrawRun commitChunk(Transaction transaction,
+                                DocumentReference eventRef,
+                                DocumentReference runRef,
+                                int index,
+                                List<String> uids,
+                                AppNotification notification) throws FirebaseFirestoreException {
+        DocumentSnapshot runSnap = transaction.get(runRef);
+        DrawRun current = runSnap.toObject(DrawRun.class);
+        if (current == null) {
+            throw new IllegalStateException("Draw run not found");
+        }
+        current.setRunId(runSnap.getId());
+
+        // Another device already committed this chunk
+        if (current.getCommittedChunks() != index) {
+            return current;
+        }
+
+        // All reads must happen before the first write
+        List<DocumentSnapshot> entries = new ArrayList<>();
+        for (String uid : uids) {
+            entries.add(transaction.get(eventRef.collection("waitlist").document(uid)));
+        }
+
+        String eventId = eventRef.getId();
+        Date now = new Date();
+        Map<String, Long> delta = new HashMap<>();
+        int invited = 0;
+
+        for (DocumentSnapshot doc : entries) {
+            if (!doc.exists() || !"waiting".equals(doc.getString("status"))) {
+                continue;
+            }
+
+            WaitlistEntry entry = doc.toObject(WaitlistEntry.class);
+            if (entry == null) {
+                continue;
+            }
+
+            String uid = doc.getId();
+            entry.setEventId(eventId);
+            entry.setStatus("invited");
+            entry.setInvitedAt(now);
+
+            transaction.set(doc.getReference(), entry, SetOptions.merge());
+            transaction.set(db.collection("entrantWaitlists")
+                    .document(uid)
+                    .collection("events")
+                    .document(eventId), entry, SetOptions.merge());
+            transaction.set(notificationRef(uid, current.getRunId()), notification);
+
+            WaitlistCounters.addTransition(delta, "waiting", "invited");
+            invited++;
+        }
+
+        WaitlistCounters.applyDelta(transaction, eventRef, delta);
+        transaction.update(runRef,
+                "committedChunks", index + 1,
+                "invitedCount", FieldValue.increment(invited));
+
+        current.setCommittedChunks(index + 1);
+        current.setInvitedCount(current.getInvitedCount() + invited);
+        return current;
+    }
+
+    /**
+     * Notifies everyone still waiting that they were not selected, one page per batch. The run
+     * records the last notified entrant so a resumed draw continues after it.
+     */
+    private Task<DrawRun> notifyNotSelected(DocumentReference eventRef, DrawRun run, AppNotification notification) {
+        DocumentReference runRef = eventRef.collection(DRAW_RUNS).document(run.getRunId());
+        long expected = Math.max(0, run.getCandidateCount() - run.getInvitedCount());
+        report(Stage.NOTIFYING, run.getNotifiedCount(), expected);
+
+        // The body is stored once and every loser's inbox gets a pointer to it. Both use IDs
+        // derived from the run, so a resumed draw rewrites them instead of duplicating them.
+        String broadcastId = "draw_" + run.getRunId();
+        Map<String, Object> pointer = NotificationRepository.pointerFor(broadcastId, notification);
+
+        return db.collection(NotificationRepository.BROADCASTS).document(broadcastId).set(notification)
+                .continueWithTask(broadcastTask -> {
+                    if (!broadcastTask.isSuccessful()) {
+                        throw broadcastTask.getException();
+                    }
+                    return scan(waitingQuery(eventRef), run.getNotifyCursor(), NOTIFY_PAGE_SIZE,
+                            docs -> notifyPage(runRef, run, docs, pointer, expected));
+                })
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+
+                    WriteBatch batch = db.batch();
+                    batch.update(runRef, "state", COMPLETED, "completedAt", new Date());
+                    batch.update(eventRef, ACTIVE_RUN_FIELD, FieldValue.delete());
+                    return batch.commit();
+                })
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    run.setState(COMPLETED);
+                    return run;
+                });
+    }
+
+    /**
+     * Writes the inbox pointers for one page of losers and advances the notify cursor in the
+     * same batch.
+     */
+    private Task<Void> notifyPage(DocumentReference runRef,
+                                  DrawRun run,
+                                  List<DocumentSnapshot> docs,
+                                  Map<String, Object> pointer,
+                                  long expected) {
+        WriteBatch batch = db.batch();
+        for (DocumentSnapshot doc : docs) {
+            batch.set(notificationRef(doc.getId(), run.getRunId()), pointer);
+        }
+        batch.update(runRef,
+                "notifyCursor", docs.get(docs.size() - 1).getId(),
+                "notifiedCount", FieldValue.increment(docs.size()));
+
+        return batch.commit().continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            run.setNotifiedCount(run.getNotifiedCount() + docs.size());
+            report(Stage.NOTIFYING, run.getNotifiedCount(), Math.max(expected, run.getNotifiedCount()));
+            return null;
+        });
+    }
+
+    /**
+     * Handles one page of a paged scan.
+     */
+    private interface PageHandler {
+        Task<Void> onPage(List<DocumentSnapshot> docs);
+    }
+
+    /**
+     * Reads a query page by page in document ID order, handing each page to the handler before
+     * reading the next one. Only one page is held in memory at a time.
+     */
+    private Task<Void> scan(Query query, @Nullable String afterId, int pageSize, PageHandler handler) {
+        Query page = query.limit(pageSize);
+        if (afterId != null) {
+            page = page.startAfter(afterId);
+        }
+
+        return page.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            if (docs.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+
+            String lastId = docs.get(docs.size() - 1).getId();
+            return handler.onPage(docs).continueWithTask(handled -> {
+                if (!handled.isSuccessful()) {
+                    throw handled.getException();
+                }
+                if (docs.size() < pageSize) {
+                    return Tasks.forResult(null);
+                }
+                return scan(query, lastId, pageSize, handler);
+            });
+        });
+    }
+
+    private Query waitingQuery(DocumentReference eventRef) {
+        return eventRef.collection("waitlist")
+                .whereEqualTo("status", "waiting")
+                .orderBy(FieldPath.documentId());
+    }
+
+    private DocumentReference notificationRef(String uid, String runId) {
+        return db.collection("profiles")
+                .document(uid)
+                .collection("notifications")
+                .document("draw_" + runId);
+    }
+
+    /**
+     * Returns the document ID of a chunk. Chunks written by one selection attempt share its ID
+     * as a prefix.
+     *
+     * @param selectionId The selection attempt that wrote the chunk.
+     * @param index The chunk index.
+     * @return The chunk document ID.
+     */
+    public static String chunkId(@NonNull String selectionId, int index) {
+        return selectionId + "_" + index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> readUids(DocumentSnapshot chunk) {
+        Object uids = chunk.get("uids");
+        if (uids instanceof List) {
+            return (List<String>) uids;
+        }
+        return new ArrayList<>();
+    }
+}
@@ -0,0 +1,484 @@
+package com.static1.fishylottery.model.repositories;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes any number of set, update and delete operations through {@link WriteBatch}es of at
+ * most {@value #MAX_BATCH_WRITES} writes.
+ * <p>
+ * Operations are added one by one, or as groups that must commit together. A batch is sealed as
+ * soon as the next operation would not fit and is committed right away, with up to a fixed
+ * number of commits in flight; sealed batches beyond that wait their turn, and {@link #ready()}
+ * lets a producer wait for them before adding more. A commit that fails because of contention
+ * or a temporary outage is rebuilt and retried after a jittered, exponentially growing delay.
+ * A timed-out or interrupted commit may still have been applied, so a batch holding a group that
+ * is not idempotent, such as a counter increment, is only retried when Firestore reports that it
+ * was rejected.
+ * Any other failure, or running out of attempts, fails the writer: batches that have not
+ * started are dropped and {@link #flush()} reports the error. Batches already committed stay
+ * committed, so only groups are atomic, not the writer as a whole.
+ * <p>
+ * A writer is used from the main thread, where Firestore delivers its callbacks.
+ */
+public final class BatchWriter {
+    /** The most writes Firestore accepts in one batch. */
+    public static final int MAX_BATCH_WRITES = 500;
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /** Delay before the first retry, doubled for each later one. */
+    private static final long BASE_BACKOFF_MILLIS = 200;
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+
+    /** Adds writes to a batch. */
+    public interface Writes {
+        void addTo(@NonNull WriteBatch batch);
+    }
+
+    /** Adds the same writes to every batch before it is committed, e.g. a progress counter. */
+    public interface BatchHook {
+        /**
+         * @param batch The batch about to be committed.
+         * @param writes The writes in the batch, not counting the hook's own.
+         */
+        void beforeCommit(@NonNull WriteBatch batch, int writes);
+    }
+
+    /** Runs retries later. */
+    public interface Scheduler {
+        void schedule(@NonNull Runnable action, long delayMillis);
+    }
+
+    /** Told after every committed batch. */
+    public interface ProgressListener {
+        void onBatchCommitted(@NonNull Metrics metrics);
+    }
+
+    private final FirebaseFirestore db;
+    private final Scheduler scheduler;
+    private final LongSupplier clock;
+    private final Random random;
+
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private int hookWrites;
+    private boolean hookIdempotent = true;
+    @Nullable
+    private BatchHook hook;
+    @Nullable
+    private ProgressListener listener;
+
+    private List<Writes> open = new ArrayList<>();
+    private int openWrites;
+    private boolean openIdempotent = true;
+    private final ArrayDeque<Pending> waiting = new ArrayDeque<>();
+    private int inFlight;
+    @Nullable
+    private Exception failure;
+    private final List<TaskCompletionSource<Void>> readyWaiters = new ArrayList<>();
+    private final List<TaskCompletionSource<Void>> flushWaiters = new ArrayList<>();
+
+    private long batches;
+    private long writes;
+    private long retries;
+    private long startedAt = -1;
+    private long lastCommitAt;
+
+    /**
+     * Creates a writer that retries on the main thread.
+     *
+     * @param db The Firestore instance to write to.
+     */
+    public BatchWriter(@NonNull FirebaseFirestore db) {
+        this(db, new Handler(Looper.getMainLooper())::postDelayed,
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()), new Random());
+    }
+
+    /**
+     * Creates a writer with its own scheduler, clock and randomness, so tests can control
+     * retries and timing.
+     *
+     * @param db The Firestore instance to write to.
+     * @param scheduler Runs retries after their delay.
+     * @param clock Returns the current time in milliseconds.
+     * @param random Jitters the retry delays.
+     */
+    public BatchWriter(@NonNull FirebaseFirestore db,
+                       @NonNull Scheduler scheduler,
+                       @NonNull LongSupplier clock,
+                       @NonNull Random random) {
+        this.db = db;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.random = random;
+    }
+
+    /**
+     * @param maxInFlight The most commits in flight at once, including ones waiting to retry.
+     * @return This writer.
+     */
+    public BatchWriter setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        return this;
+    }
+
+    /**
+     * @param maxAttempts How many times a batch is committed before giving up, at least once.
+     * @return This writer.
+     */
+    public BatchWriter setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        return this;
+    }
+
+    /**
+     * Adds idempotent writes to every batch. Must be set before the first operation is added.
+     *
+     * @param writes How many writes the hook adds to each batch.
+     * @param hook Adds the writes.
+     * @return This writer.
+     */
+    public BatchWriter setBatchHook(int writes, @Nullable BatchHook hook) {
+        return setBatchHook(writes, true, hook);
+    }
+
+    /**
+     * Adds writes to every batch. Must be set before the first operation is added.
+     *
+     * @param writes How many writes the hook adds to each batch.
+     * @param idempotent Whether applying the hook's writes twice is harmless; if not, no batch
+     *                   is retried after a commit that may have been applied.
+     * @param hook Adds the writes.
+     * @return This writer.
+     */
+    public BatchWriter setBatchHook(int writes, boolean idempotent, @Nullable BatchHook hook) {
+        if (!open.isEmpty() || batches > 0 || inFlight > 0) {
+            throw new IllegalStateException("The batch hook must be set before writing");
+        }
+        if (writes < 0 || writes >= MAX_BATCH_WRITES) {
+            throw new IllegalArgumentException("writes must leave room in a batch: " + writes);
+        }
+        this.hookWrites = hook != null ? writes : 0;
+        this.hookIdempotent = hook == null || idempotent;
+        this.hook = hook;
+        return this;
+    }
+
+    public BatchWriter setProgressListener(@Nullable ProgressListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public BatchWriter set(@NonNull DocumentReference ref, @NonNull Object data) {
+        return add(1, batch -> batch.set(ref, data));
+    }
+
+    public BatchWriter set(@NonNull DocumentReference ref, @NonNull Object data, @NonNull SetOptions options) {
+        return add(1, batch -> batch.set(ref, data, options));
+    }
+
+    public BatchWriter update(@NonNull DocumentReference ref, @NonNull Map<String, Object> data) {
+        return add(1, batch -> batch.update(ref, data));
+    }
+
+    public BatchWriter update(@NonNull DocumentReference ref, @NonNull String field, @Nullable Object value) {
+        return add(1, batch -> batch.update(ref, field, value));
+    }
+
+    public BatchWriter delete(@NonNull DocumentReference ref) {
+        return add(1, batch -> batch.delete(ref));
+    }
+
+    /**
+     * Adds idempotent writes that must commit together; they always go into the same batch.
+     *
+     * @param size The number of writes {@code group} adds.
+     * @param group Adds the writes.
+     * @return This writer.
+     */
+    public BatchWriter add(int size, @NonNull Writes group) {
+        return add(size, true, group);
+    }
+
+    /**
+     * Adds writes that must commit together; they always go into the same batch.
+     *
+     * @param size The number of writes {@code group} adds.
+     * @param idempotent Whether applying the writes twice is harmless. Pass {@code false} for
+     *                   increments and other writes relative to the stored value, so the batch
+     *                   is not retried after a commit that may have been applied.
+     * @param group Adds the writes.
+     * @return This writer.
+     */
+    public BatchWriter add(int size, boolean idempotent, @NonNull Writes group) {
+        int capacity = MAX_BATCH_WRITES - hookWrites;
+        if (size < 0 || size > capacity) {
+            throw new IllegalArgumentException("A group must fit in one batch: " + size);
+        }
+        if (failure != null) {
+            return this;
+        }
+        if (openWrites + size > capacity) {
+            seal();
+        }
+        open.add(group);
+        openWrites += size;
+        openIdempotent &= idempotent;
+        return this;
+    }
+
+    /**
+     * Returns a task that completes once no sealed batch is waiting for a commit slot, so a
+     * producer can wait on it before adding the next page of operations.
+     *
+     * @return The task; it fails if the writer has failed.
+     */
+    public Task<Void> ready() {
+        TaskCompletionSource<Void> source = new TaskCompletionSource<>();
+        readyWaiters.add(source);
+        notifyWaiters();
+        return source.getTask();
+    }
+
+    /**
+     * Commits everything added so far.
+     *
+     * @return A task that completes when every batch has been committed, or fails with the
+     *         error that failed the writer.
+     */
+    public Task<Void> flush() {
+        seal();
+        TaskCompletionSource<Void> source = new TaskCompletionSource<>();
+        flushWaiters.add(source);
+        notifyWaiters();
+        return source.getTask();
+    }
+
+    /**
+     * @return The writer's progress and throughput so far.
+     */
+    @NonNull
+    public Metrics getMetrics() {
+        long elapsed = startedAt < 0 ? 0 : lastCommitAt - startedAt;
+        return new Metrics(batches, writes, retries, inFlight, waiting.size(), elapsed);
+    }
+
+    /**
+     * Returns the delay before a retry: half of the exponential backoff for the attempt plus a
+     * random share of the other half, so writers that failed together do not retry together.
+     *
+     * @param retry The retry number, starting at 1.
+     * @param jitter A random number from 0 (inclusive) to 1 (exclusive).
+     * @return The delay in milliseconds.
+     */
+    public static long backoffMillis(int retry, double jitter) {
+        int shift = Math.min(Math.max(retry - 1, 0), 20);
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << shift);
+        return ceiling / 2 + (long) (jitter * (ceiling / 2));
+    }
+
+    /**
+     * @param e The error a commit failed with.
+     * @return Whether committing the same idempotent batch again may succeed.
+     */
+    public static boolean isRetryable(@Nullable Exception e) {
+        return isRetryable(e, true);
+    }
+
+    /**
+     * A batch that was aborted or throttled was never applied, but one that timed out or lost
+     * its connection may have been, so only idempotent batches are retried after those.
+     *
+     * @param e The error a commit failed with.
+     * @param idempotent Whether applying the batch twice is harmless.
+     * @return Whether committing the same batch again may succeed without applying it twice.
+     */
+    public static boolean isRetryable(@Nullable Exception e, boolean idempotent) {
+        if (!(e instanceof FirebaseFirestoreException)) {
+            return false;
+        }
+        switch (((FirebaseFirestoreException) e).getCode()) {
+            case ABORTED:
+            case RESOURCE_EXHAUSTED:
+                return true;
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+                return idempotent;
+            default:
+                return false;
+        }
+    }
+
+    private void seal() {
+        if (open.isEmpty()) return;
+        waiting.add(new Pending(open, openWrites, openIdempotent && hookIdempotent));
+        open = new ArrayList<>();
+        openWrites = 0;
+        openIdempotent = true;
+        pump();
+    }
+
+    private void pump() {
+        while (failure == null && inFlight < maxInFlight && !waiting.isEmpty()) {
+            inFlight++;
+            commit(waiting.poll());
+        }
+        notifyWaiters();
+    }
+
+    private void commit(Pending pending) {
+        if (failure != null) {
+            // A retry that was scheduled before another batch failed the writer
+            inFlight--;
+            notifyWaiters();
+            return;
+        }
+        if (startedAt < 0) {
+            startedAt = clock.getAsLong();
+        }
+        pending.attempts++;
+
+        // A batch can only be committed once, so every attempt builds a new one
+        WriteBatch batch = db.batch();
+        for (Writes group : pending.groups) {
+            group.addTo(batch);
+        }
+        if (hook != null) {
+            hook.beforeCommit(batch, pending.writes);
+        }
+
+        batch.commit().addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                inFlight--;
+                batches++;
+                writes += pending.writes;
+                lastCommitAt = clock.getAsLong();
+                if (listener != null) {
+                    listener.onBatchCommitted(getMetrics());
+                }
+                pump();
+                return;
+            }
+
+            Exception e = task.getException();
+            if (failure == null && isRetryable(e, pending.idempotent) && pending.attempts < maxAttempts) {
+                // The slot stays taken while waiting, which holds back the batches behind it
+                retries++;
+                scheduler.schedule(() -> commit(pending), backoffMillis(pending.attempts, random.nextDouble()));
+                return;
+            }
+
+            inFlight--;
+            if (failure == null) {
+                failure = e != null ? e : new IllegalStateException("Batch commit failed");
+                waiting.clear();
+                open = new ArrayList<>();
+                openWrites = 0;
+                openIdempotent = true;
+            }
+            notifyWaiters();
+        });
+    }
+
+    private void notifyWaiters() {
+        if (failure != null || waiting.isEmpty()) {
+            complete(readyWaiters);
+        }
+        if (failure != null || (waiting.isEmpty() && inFlight == 0)) {
+            complete(flushWaiters);
+        }
+    }
+
+    private void complete(List<TaskCompletionSource<Void>> waiters) {
+        List<TaskCompletionSource<Void>> done = new ArrayList<>(waiters);
+        waiters.clear();
+        for (TaskCompletionSource<Void> source : done) {
+            if (failure != null) {
+                source.trySetException(failure);
+            } else {
+                source.trySetResult(null);
+            }
+        }
+    }
+
+    /** A sealed batch and how many times it has been tried. */
+    private static final class Pending {
+        private final List<Writes> groups;
+        private final int writes;
+        private final boolean idempotent;
+        private int attempts;
+
+        Pending(List<Writes> groups, int writes, boolean idempotent) {
+            this.groups = groups;
+            this.writes = writes;
+            this.idempotent = idempotent;
+        }
+    }
+
+    /**
+     * A snapshot of a writer's progress and throughput.
+     */
+    public static final class Metrics {
+        private final long batches;
+        private final long writes;
+        private final long retries;
+        private final int inFlight;
+        private final int waiting;
+        private final long elapsedMillis;
+
+        Metrics(long batches, long writes, long retries, int inFlight, int waiting, long elapsedMillis) {
+            this.batches = batches;
+            this.writes = writes;
+            this.retries = retries;
+            this.inFlight = inFlight;
+            this.waiting = waiting;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getBatches() { return batches; }
+        public long getWrites() { return writes; }
+        public long getRetries() { return retries; }
+        public int getInFlight() { return inFlight; }
+        public int getWaiting() { return waiting; }
+
+        /** Time from the first commit starting to the last one finishing. */
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        /**
+         * @return Committed writes per second, or 0 before any time has passed.
+         */
+        public double getWritesPerSecond() {
+            return elapsedMillis <= 0 ? 0 : writes * 1000.0 / elapsedMillis;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d writes in %d batches, %d retries, %.0f writes/s, %d in flight, %d waiting",
+                    writes, batches, retries, getWritesPerSecond(), inFlight, waiting);
+        }
+    }
+}
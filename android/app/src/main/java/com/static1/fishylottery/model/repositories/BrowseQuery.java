@@ -0,0 +1,122 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.static1.fishylottery.model.entities.Event;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The filters of the entrant's browse screen. Every filter is pushed into the Firestore query by
+ * {@link EventRepository#browseEvents}, so only events the entrant can join right now, with the
+ * chosen interest and starting in the chosen range, are read. Matching events are returned in
+ * pages ordered by their start date.
+ */
+public final class BrowseQuery {
+    /** Events per page when no page size is given. */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * How long after a query its results may still answer narrower queries. Events whose
+     * registration opened, or that were created, since then are missing from them.
+     */
+    public static final long MAX_COVERED_AGE_MILLIS = 60_000;
+
+    private final String interest;
+    private final Date startFrom;
+    private final Date startTo;
+    private final Date now;
+    private final int pageSize;
+
+    /**
+     * Creates a browse query.
+     *
+     * @param interest The interest events must be tagged with, or null for any.
+     * @param startFrom The earliest start date (inclusive), or null for no lower bound.
+     * @param startTo The latest start date (inclusive), or null for no upper bound.
+     * @param now The time at which registration must be open.
+     * @param pageSize The number of events per page.
+     */
+    public BrowseQuery(@Nullable String interest,
+                       @Nullable Date startFrom,
+                       @Nullable Date startTo,
+                       @NonNull Date now,
+                       int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        this.interest = interest;
+        this.startFrom = startFrom;
+        this.startTo = startTo;
+        this.now = now;
+        this.pageSize = pageSize;
+    }
+
+    @Nullable
+    public String getInterest() { return interest; }
+
+    @Nullable
+    public Date getStartFrom() { return startFrom; }
+
+    @Nullable
+    public Date getStartTo() { return startTo; }
+
+    @NonNull
+    public Date getNow() { return now; }
+
+    public int getPageSize() { return pageSize; }
+
+    /**
+     * Checks whether this query's results can answer another query: the other query only
+     * narrows the interest or start-date range, and was made at most
+     * {@value #MAX_COVERED_AGE_MILLIS} ms after this one. Events that left the other query's
+     * registration window still have to be removed with {@link #matches(Event)}, but events
+     * that entered it since this query cannot be added, so older results never cover.
+     *
+     * @param other The other query.
+     * @return True if this query's results contain the other query's results.
+     */
+    public boolean covers(@NonNull BrowseQuery other) {
+        long age = other.now.getTime() - now.getTime();
+        if (age < 0 || age > MAX_COVERED_AGE_MILLIS) {
+            return false;
+        }
+        if (interest != null && !interest.equals(other.interest)) {
+            return false;
+        }
+        if (startFrom != null && (other.startFrom == null || other.startFrom.before(startFrom))) {
+            return false;
+        }
+        return startTo == null || (other.startTo != null && !other.startTo.after(startTo));
+    }
+
+    /**
+     * Checks an event against the same filters the Firestore query applies. Used by in-memory
+     * repositories so they return what the real query would.
+     *
+     * @param event The event to check.
+     * @return True if the event belongs in the results.
+     */
+    public boolean matches(@NonNull Event event) {
+        Date opens = event.getRegistrationOpens();
+        Date closes = event.getRegistrationCloses();
+        if (opens == null || opens.after(now) || closes == null || closes.before(now)) {
+            return false;
+        }
+
+        Date start = event.getEventStartDate();
+        if (start == null
+                || (startFrom != null && start.before(startFrom))
+                || (startTo != null && start.after(startTo))) {
+            return false;
+        }
+
+        if (interest != null) {
+            List<String> interests = event.getInterests();
+            return interests != null && interests.contains(interest);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,192 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.List;
+
+/**
+ * Applies writes to every document a query matches, however many there are. The query is read
+ * a page at a time in document ID order; a {@link PagePlanner} turns each page into groups of
+ * writes, which are handed to a {@link BatchWriter} that packs them into batches under the write
+ * limit, commits a few at a time and retries contended commits. The next page is read once the
+ * writer has started every batch of the previous one, so reads never run far ahead of writes.
+ * <p>
+ * The writes for one document always go into the same batch, so a document is either fully
+ * handled or not at all. When the writes delete the documents the query matches, running the
+ * executor again after an interruption simply carries on with the documents that are left.
+ * <p>
+ * An executor keeps the counts of one run, so use a new one for each run.
+ */
+public final class ChunkedBatchExecutor {
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int DEFAULT_CONCURRENCY = BatchWriter.DEFAULT_MAX_IN_FLIGHT;
+
+    /** The writes for one document, which are committed together. */
+    public static final class Group {
+        private final int size;
+        private final boolean idempotent;
+        private final BatchWriter.Writes writes;
+
+        /**
+         * @param size The number of writes {@code writes} adds, at most
+         *             {@value BatchWriter#MAX_BATCH_WRITES}.
+         * @param writes Adds idempotent writes to a batch.
+         */
+        public Group(int size, @NonNull BatchWriter.Writes writes) {
+            this(size, true, writes);
+        }
+
+        /**
+         * @param size The number of writes {@code writes} adds, at most
+         *             {@value BatchWriter#MAX_BATCH_WRITES}.
+         * @param idempotent Whether applying the writes twice is harmless, see
+         *                   {@link BatchWriter#add(int, boolean, BatchWriter.Writes)}.
+         * @param writes Adds the writes to a batch.
+         */
+        public Group(int size, boolean idempotent, @NonNull BatchWriter.Writes writes) {
+            if (size < 0 || size > BatchWriter.MAX_BATCH_WRITES) {
+                throw new IllegalArgumentException("A group must fit in one batch: " + size);
+            }
+            this.size = size;
+            this.idempotent = idempotent;
+            this.writes = writes;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+    }
+
+    /**
+     * Turns a page of documents into write groups, at most one per document, reading whatever
+     * else it needs first.
+     */
+    public interface PagePlanner {
+        Task<List<Group>> plan(@NonNull List<DocumentSnapshot> page);
+    }
+
+    /** Told after every committed batch. Called on the main thread. */
+    public interface ProgressListener {
+        /**
+         * @param documents Documents read and planned so far.
+         * @param writes Writes committed so far.
+         */
+        void onProgress(long documents, long writes);
+    }
+
+    private final FirebaseFirestore db;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    @Nullable
+    private ProgressListener listener;
+
+    private long documents;
+
+    public ChunkedBatchExecutor(@NonNull FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    public ChunkedBatchExecutor setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * @param concurrency The most batches committed at once.
+     * @return This executor.
+     */
+    public ChunkedBatchExecutor setConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    public ChunkedBatchExecutor setProgressListener(@Nullable ProgressListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Plans and commits the writes for every document the query matches. Stops at the first
+     * failed read or commit; batches already committed stay committed.
+     *
+     * @param query The documents to handle. It is ordered by document ID here.
+     * @param planner Turns each page into write groups.
+     * @return A task with the number of documents handled.
+     */
+    public Task<Long> run(@NonNull Query query, @NonNull PagePlanner planner) {
+        BatchWriter writer = new BatchWriter(db)
+                .setMaxInFlight(concurrency)
+                .setProgressListener(metrics -> {
+                    if (listener != null) {
+                        listener.onProgress(documents, metrics.getWrites());
+                    }
+                });
+
+        return runFrom(writer, query.orderBy(FieldPath.documentId()), null, planner)
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return writer.flush();
+                })
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return documents;
+                });
+    }
+
+    private Task<Void> runFrom(BatchWriter writer, Query query, @Nullable DocumentSnapshot after,
+                               PagePlanner planner) {
+        Query page = query.limit(pageSize);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+
+        return page.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            if (docs.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+
+            return planner.plan(docs)
+                    .continueWithTask(planTask -> {
+                        if (!planTask.isSuccessful()) {
+                            throw planTask.getException();
+                        }
+                        for (Group group : planTask.getResult()) {
+                            writer.add(group.size, group.idempotent, group.writes);
+                        }
+                        documents += docs.size();
+                        // Wait for free commit slots before reading more
+                        return writer.ready();
+                    })
+                    .continueWithTask(queued -> {
+                        if (!queued.isSuccessful()) {
+                            throw queued.getException();
+                        }
+                        if (docs.size() < pageSize) {
+                            return Tasks.forResult(null);
+                        }
+                        return runFrom(writer, query, docs.get(docs.size() - 1), planner);
+                    });
+        });
+    }
+}
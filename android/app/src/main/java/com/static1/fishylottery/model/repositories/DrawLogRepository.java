@@ -0,0 +1,233 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.static1.fishylottery.model.entities.DrawRecord;
+import com.static1.fishylottery.model.logic.DrawAudit;
+import com.static1.fishylottery.model.logic.LotteryDrawEngine;
+import com.static1.fishylottery.services.FirestoreConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the append-only draw log kept under {@code events/{eventId}/draws} and verifies recorded
+ * draws by replaying them with {@link DrawAudit}. Records are written by the lottery engine
+ * and never modified here.
+ */
+public class DrawLogRepository {
+    /** Draws whose candidates are fetched at the same time during bulk verification. */
+    private static final int VERIFY_PARALLELISM = 10;
+
+    private final FirebaseFirestore db;
+
+    public DrawLogRepository() {
+        this(FirestoreConfig.getInstance().getFirestore());
+    }
+
+    public DrawLogRepository(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    private DocumentReference drawRef(String eventId, String drawId) {
+        return db.collection("events")
+                .document(eventId)
+                .collection(LotteryDrawEngine.DRAWS)
+                .document(drawId);
+    }
+
+    /**
+     * Gets every recorded draw of an event, newest first.
+     *
+     * @param eventId The event ID.
+     * @return A task with the draw records.
+     */
+    public Task<List<DrawRecord>> getDraws(@NonNull String eventId) {
+        return db.collection("events")
+                .document(eventId)
+                .collection(LotteryDrawEngine.DRAWS)
+                .orderBy("createdAt", Query.Direction.DESCENDING)
+                .get()
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    List<DrawRecord> records = new ArrayList<>();
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        DrawRecord record = toRecord(doc);
+                        if (record != null) {
+                            records.add(record);
+                        }
+                    }
+                    return records;
+                });
+    }
+
+    /**
+     * Gets the candidate IDs frozen with a draw, in the order they were drawn from.
+     *
+     * @param eventId The event ID.
+     * @param record The recorded draw.
+     * @return A task with the candidate IDs.
+     */
+    public Task<List<String>> getCandidates(@NonNull String eventId, @NonNull DrawRecord record) {
+        return getCandidates(drawRef(eventId, record.getDrawId()), record);
+    }
+
+    /**
+     * Gets the winners of a draw in the order they were selected.
+     *
+     * @param eventId The event ID.
+     * @param record The recorded draw.
+     * @return A task with the winner IDs.
+     */
+    public Task<List<String>> getWinners(@NonNull String eventId, @NonNull DrawRecord record) {
+        return readChunks(drawRef(eventId, record.getDrawId()).collection(LotteryDrawEngine.WINNERS),
+                record.getSelectionId(), record.getWinnerChunkCount(), record.getWinnerCount());
+    }
+
+    /**
+     * Verifies one recorded draw by replaying it from its seed and frozen candidates.
+     *
+     * @param eventId The event ID.
+     * @param drawId The draw ID (the ID of the draw run that produced it).
+     * @return A task with the verification result.
+     */
+    public Task<DrawAudit.Verification> verifyDraw(@NonNull String eventId, @NonNull String drawId) {
+        return drawRef(eventId, drawId).get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            DrawRecord record = toRecord(task.getResult());
+            if (record == null) {
+                throw new IllegalStateException("Draw not found");
+            }
+            return verify(task.getResult().getReference(), record);
+        });
+    }
+
+    /**
+     * Verifies every recorded draw of an event.
+     *
+     * @param eventId The event ID.
+     * @return A task with one verification result per draw, newest first.
+     */
+    public Task<List<DrawAudit.Verification>> verifyDraws(@NonNull String eventId) {
+        return db.collection("events")
+                .document(eventId)
+                .collection(LotteryDrawEngine.DRAWS)
+                .orderBy("createdAt", Query.Direction.DESCENDING)
+                .get()
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return verifyAll(task.getResult().getDocuments(), 0, new ArrayList<>());
+                });
+    }
+
+    /**
+     * Verifies every recorded draw of every event, for support tooling. Draws are checked a few
+     * at a time so thousands of records do not open thousands of reads at once.
+     *
+     * @return A task with one verification result per draw.
+     */
+    public Task<List<DrawAudit.Verification>> verifyAllDraws() {
+        return db.collectionGroup(LotteryDrawEngine.DRAWS)
+                .get()
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return verifyAll(task.getResult().getDocuments(), 0, new ArrayList<>());
+                });
+    }
+
+    private Task<List<DrawAudit.Verification>> verifyAll(List<DocumentSnapshot> docs,
+                                                         int from,
+                                                         List<DrawAudit.Verification> results) {
+        if (from >= docs.size()) {
+            return Tasks.forResult(results);
+        }
+
+        int to = Math.min(from + VERIFY_PARALLELISM, docs.size());
+        List<Task<DrawAudit.Verification>> tasks = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            DocumentSnapshot doc = docs.get(i);
+            DrawRecord record = toRecord(doc);
+            if (record != null) {
+                tasks.add(verify(doc.getReference(), record));
+            }
+        }
+
+        return Tasks.whenAllSuccess(tasks).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            for (Object result : task.getResult()) {
+                results.add((DrawAudit.Verification) result);
+            }
+            return verifyAll(docs, to, results);
+        });
+    }
+
+    private Task<DrawAudit.Verification> verify(DocumentReference ref, DrawRecord record) {
+        return getCandidates(ref, record).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return DrawAudit.verify(record, task.getResult());
+        });
+    }
+
+    private Task<List<String>> getCandidates(DocumentReference ref, DrawRecord record) {
+        return readChunks(ref.collection(LotteryDrawEngine.CANDIDATES), record.getSelectionId(),
+                record.getCandidateChunkCount(), record.getCandidateCount());
+    }
+
+    private Task<List<String>> readChunks(CollectionReference chunksRef,
+                                          String selectionId,
+                                          int chunkCount,
+                                          int expected) {
+        // Only the recorded attempt's chunks are read; a retried or competing selection may
+        // have left chunks of its own
+        List<Task<DocumentSnapshot>> tasks = new ArrayList<>();
+        for (int i = 0; i < chunkCount; i++) {
+            tasks.add(chunksRef.document(LotteryDrawEngine.chunkId(selectionId, i)).get());
+        }
+
+        return Tasks.whenAllSuccess(tasks).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<String> ids = new ArrayList<>(expected);
+            for (Object result : task.getResult()) {
+                Object uids = ((DocumentSnapshot) result).get("uids");
+                if (uids instanceof List) {
+                    for (Object uid : (List<?>) uids) {
+                        ids.add(String.valueOf(uid));
+                    }
+                }
+            }
+            return ids;
+        });
+    }
+
+    private static DrawRecord toRecord(DocumentSnapshot doc) {
+        if (!doc.exists()) {
+            return null;
+        }
+        DrawRecord record = doc.toObject(DrawRecord.class);
+        if (record != null) {
+            record.setDrawId(doc.getId());
+        }
+        return record;
+    }
+}
@@ -0,0 +1,252 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded least-recently-used cache of documents read by ID, shared by every repository
+ * instance in the process. Entries expire after a fixed time to live, and each entry may hold a
+ * snapshot listener on its document which invalidates it as soon as the document changes. The
+ * listener is removed whenever the entry leaves the cache, so at most {@code capacity} listeners
+ * are ever open.
+ * <p>
+ * Cached objects are shared between callers and must be treated as read-only.
+ *
+ * @param <T> The cached entity type.
+ */
+public final class EntityCache<T> {
+    private final String name;
+    private final int capacity;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    private static final class Entry<T> {
+        final T value;
+        final long expiresAt;
+        @Nullable final ListenerRegistration registration;
+
+        Entry(T value, long expiresAt, @Nullable ListenerRegistration registration) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.registration = registration;
+        }
+
+        void release() {
+            if (registration != null) {
+                registration.remove();
+            }
+        }
+    }
+
+    /**
+     * Creates a cache using the monotonic system clock.
+     *
+     * @param name A name for the cache, used in its statistics.
+     * @param capacity The most entries kept at once.
+     * @param ttlMillis How long an entry stays valid after it was stored.
+     */
+    public EntityCache(@NonNull String name, int capacity, long ttlMillis) {
+        this(name, capacity, ttlMillis, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    /**
+     * Creates a cache with its own clock, so tests can control expiry.
+     *
+     * @param name A name for the cache, used in its statistics.
+     * @param capacity The most entries kept at once.
+     * @param ttlMillis How long an entry stays valid after it was stored.
+     * @param clock Returns the current time in milliseconds.
+     */
+    public EntityCache(@NonNull String name, int capacity, long ttlMillis, @NonNull LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("ttlMillis must be positive");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value for a key, counting a hit or a miss. An expired entry is dropped
+     * and counts as a miss.
+     *
+     * @param key The document ID.
+     * @return The cached value, or null if there is no valid entry.
+     */
+    @Nullable
+    public synchronized T get(@Nullable String key) {
+        if (key == null) {
+            misses++;
+            return null;
+        }
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (clock.getAsLong() >= entry.expiresAt) {
+            entries.remove(key);
+            entry.release();
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Stores a value, replacing any previous entry for the key. The least recently used entry is
+     * evicted once the cache is over capacity.
+     *
+     * @param key The document ID.
+     * @param value The value to cache.
+     * @param registration A listener that invalidates the entry when its document changes, or
+     *                     null. It is removed when the entry leaves the cache.
+     */
+    public synchronized void put(@NonNull String key,
+                                 @NonNull T value,
+                                 @Nullable ListenerRegistration registration) {
+        Entry<T> previous = entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis, registration));
+        if (previous != null) {
+            previous.release();
+        }
+
+        Iterator<Entry<T>> eldest = entries.values().iterator();
+        while (entries.size() > capacity && eldest.hasNext()) {
+            Entry<T> evicted = eldest.next();
+            eldest.remove();
+            evicted.release();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops the entry for a key, for example after the document was written or deleted.
+     *
+     * @param key The document ID.
+     */
+    public synchronized void invalidate(@Nullable String key) {
+        if (key == null) return;
+        Entry<T> entry = entries.remove(key);
+        if (entry != null) {
+            entry.release();
+            invalidations++;
+        }
+    }
+
+    /**
+     * Listens to a document and invalidates its entry whenever the document changes or is
+     * deleted. The first snapshot only reports the state that was just read, so it is skipped.
+     *
+     * @param ref The cached document.
+     * @return The registration to pass to {@link #put}.
+     */
+    @NonNull
+    public ListenerRegistration invalidateOnChange(@NonNull DocumentReference ref) {
+        String key = ref.getId();
+        boolean[] first = {true};
+        return ref.addSnapshotListener((snapshot, error) -> {
+            if (first[0] && error == null) {
+                first[0] = false;
+                return;
+            }
+            invalidate(key);
+        });
+    }
+
+    /**
+     * Drops every entry, for example when the user signs out.
+     */
+    public synchronized void clear() {
+        for (Entry<T> entry : entries.values()) {
+            entry.release();
+        }
+        entries.clear();
+    }
+
+    /**
+     * @return The number of entries currently held, including any that have expired but were
+     *         not read since.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return A snapshot of the hit and miss counters.
+     */
+    @NonNull
+    public synchronized Stats getStats() {
+        return new Stats(name, hits, misses, evictions, expirations, invalidations, entries.size());
+    }
+
+    /**
+     * Counters describing how well a cache is doing.
+     */
+    public static final class Stats {
+        private final String name;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+        private final int size;
+
+        Stats(String name, long hits, long misses, long evictions, long expirations,
+              long invalidations, int size) {
+            this.name = name;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public String getName() { return name; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+        public int getSize() { return size; }
+
+        /**
+         * @return The share of reads answered from the cache, or 0 before any read.
+         */
+        public double getHitRate() {
+            long reads = hits + misses;
+            return reads == 0 ? 0 : (double) hits / reads;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%s: %d hits, %d misses (%.0f%%), %d evicted, %d expired, %d invalidated, %d cached",
+                    name, hits, misses, getHitRate() * 100, evictions, expirations, invalidations, size);
+        }
+    }
+}
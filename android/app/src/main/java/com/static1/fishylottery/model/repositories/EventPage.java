@@ -0,0 +1,40 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.static1.fishylottery.model.entities.Event;
+
+import java.util.List;
+
+/**
+ * One page of events returned by {@link IEventRepository#browseEvents}.
+ */
+public final class EventPage {
+    private final List<Event> events;
+    private final DocumentSnapshot cursor;
+    private final boolean hasMore;
+
+    public EventPage(List<Event> events, @Nullable DocumentSnapshot cursor, boolean hasMore) {
+        this.events = events;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<Event> getEvents() { return events; }
+
+    /**
+     * Returns the document to pass to {@link IEventRepository#browseEvents} for the next page.
+     *
+     * @return The last document of this page, or null if the page is empty.
+     */
+    @Nullable
+    public DocumentSnapshot getCursor() { return cursor; }
+
+    /**
+     * Returns whether more matching events may exist after this page.
+     *
+     * @return False once a page came back shorter than requested.
+     */
+    public boolean hasMore() { return hasMore; }
+}
@@ -1,38 +1,76 @@
 package com.static1.fishylottery.model.repositories;
 
+import androidx.annotation.Nullable;
+
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
 import com.google.firebase.firestore.WriteBatch;
 import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.model.entities.EventSummary;
+import com.static1.fishylottery.model.logic.CascadeDeleter;
+import com.static1.fishylottery.services.FirestoreConfig;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class abstracts the Firestore handling of events.
  */
 public class EventRepository implements IEventRepository {
+    /** The most values Firestore accepts in one whereIn filter. */
+    private static final int WHERE_IN_LIMIT = 30;
+
+    /**
+     * One document per organizer, keyed by profile ID, holding the number of events they host
+     * in {@value #EVENT_COUNT}. It is kept apart from the profile so saving a profile never
+     * overwrites the count.
+     */
+    public static final String ORGANIZER_STATS = "organizerStats";
+    public static final String EVENT_COUNT = "eventCount";
+
+    /**
+     * Events read by ID, shared by every repository instance so moving between screens does not
+     * read the same event again. Entries are dropped when the event document changes.
+     */
+    private static final EntityCache<Event> eventCache =
+            new EntityCache<>("events", 100, TimeUnit.MINUTES.toMillis(5));
 
+    /** Reads of events missing from the cache that are in flight, shared between callers. */
+    private static final SingleFlight reads = new SingleFlight("event reads");
+
+    private final FirestoreConfig config;
     private final FirebaseFirestore db;
     private final CollectionReference eventsRef;
 
     public EventRepository() {
-        this(FirebaseFirestore.getInstance());
+        this(FirestoreConfig.getInstance());
     }
 
     public EventRepository(FirebaseFirestore db) {
-        this.db = db;
+        this(new FirestoreConfig(db));
+    }
+
+    public EventRepository(FirestoreConfig config) {
+        this.config = config;
+        this.db = config.getFirestore();
         this.eventsRef = db.collection("events");
     }
     /**
@@ -46,18 +84,34 @@ public class EventRepository implements IEventRepository {
 
     @Override
     public Task<Event> addEvent(Event event) {
-        return eventsRef.add(event)
+        DocumentReference doc = eventsRef.document();
+
+        // Start the waitlist counters at zero in the same write as the event
+        Map<String, Object> counters = new HashMap<>();
+        counters.put(WaitlistCounters.FIELD, WaitlistCounters.zeroCounts());
+
+        WriteBatch batch = db.batch();
+        batch.set(doc, event);
+        batch.set(doc, counters, SetOptions.merge());
+        if (event.getOrganizerId() != null) {
+            batch.set(db.collection(ORGANIZER_STATS).document(event.getOrganizerId()),
+                    eventCountChange(1), SetOptions.merge());
+        }
+
+        return batch.commit()
                 .continueWith(task -> {
                     if (!task.isSuccessful()) {
                         throw task.getException();
                     }
-                    DocumentReference doc = task.getResult();
                     event.setEventId(doc.getId());
+                    event.setWaitlistCounts(WaitlistCounters.zeroCounts());
                     return event;
                 });
     }
     /**
-     * Updates an event in Firebase by overriding the document.
+     * Updates an event in Firebase by overriding the event's fields. Fields that are not part of
+     * the event object, such as the waitlist counters, are left untouched. If the title, dates,
+     * location or image changed, the summary on every entrant's waitlist mirror is rewritten too.
      *
      * @param event The new event object to update with.
      * @return A task indicating success or failure.
@@ -69,10 +123,32 @@ public class EventRepository implements IEventRepository {
         if (eventId == null) {
             throw new IllegalArgumentException("Event missing eventId");
         }
-        return eventsRef.document(eventId).set(event);
+        DocumentReference doc = eventsRef.document(eventId);
+        EventSummary summary = EventSummary.from(event);
+
+        return doc.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Event stored = task.getResult().toObject(Event.class);
+            boolean summaryChanged = stored == null || !summary.equals(EventSummary.from(stored));
+
+            return doc.set(event, SetOptions.merge()).continueWithTask(write -> {
+                if (!write.isSuccessful()) {
+                    throw write.getException();
+                }
+                eventCache.invalidate(eventId);
+                reads.forgetAll();
+                if (!summaryChanged) {
+                    return Tasks.forResult(null);
+                }
+                return EventSummaries.fanOut(db, eventId, summary);
+            });
+        });
     }
     /**
-     * Deletes an event from the Firestore.
+     * Deletes an event from the Firestore together with its waitlist, the entrants' mirrors of
+     * it, its other subcollections and its poster. See {@link CascadeDeleter}.
      *
      * @param event The event object, only the ID is needed.
      * @return A task indicating success or failure.
@@ -83,7 +159,17 @@ public class EventRepository implements IEventRepository {
         if (event == null) {
             throw new IllegalArgumentException("Event missing eventId");
         }
-        return eventsRef.document(event.getEventId()).delete();
+        String eventId = event.getEventId();
+        eventCache.invalidate(eventId);
+        reads.forgetAll();
+        return new CascadeDeleter(config).deleteEvent(eventId).continueWith(task -> {
+            eventCache.invalidate(eventId);
+            reads.forgetAll();
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return null;
+        });
     }
     /**
      * Get a single event by the ID.
@@ -94,16 +180,22 @@ public class EventRepository implements IEventRepository {
 
     @Override
     public Task<Event> getEventById(String eventId) {
-        return eventsRef.document(eventId).get().continueWithTask(task -> {
+        Event cached = eventCache.get(eventId);
+        if (cached != null) {
+            return Tasks.forResult(cached);
+        }
+
+        // Screens opened together share one read of a cold event
+        DocumentReference ref = eventsRef.document(eventId);
+        return reads.run(eventId, () -> config.read(FirestoreConfig.EVENT_BY_ID, ref).continueWithTask(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
             }
             DocumentSnapshot doc = task.getResult();
             if (doc.exists()) {
-                Event event = doc.toObject(Event.class);
+                Event event = toEvent(doc);
                 if (event != null) {
-                    event.setEventId(doc.getId());
-                    // Fetch waitlist count for this event
+                    // Fill in the waitlist count for this event
                     return fetchWaitlistCountForEvent(event);
                 } else {
                     return Tasks.forResult(null);
@@ -111,7 +203,34 @@ public class EventRepository implements IEventRepository {
             } else {
                 return Tasks.forResult(null);
             }
-        });
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Event event = task.getResult();
+            if (event != null) {
+                eventCache.put(eventId, event, eventCache.invalidateOnChange(ref));
+            }
+            return event;
+        }));
+    }
+
+    /**
+     * Returns the hit and miss counters of the cache behind {@link #getEventById}.
+     *
+     * @return A snapshot of the counters.
+     */
+    public static EntityCache.Stats getCacheStats() {
+        return eventCache.getStats();
+    }
+
+    /**
+     * Returns the counters of the shared {@link #getEventById} reads.
+     *
+     * @return how many reads were started and how many joined one in flight
+     */
+    public static SingleFlight getCoalescingStats() {
+        return reads;
     }
     /**
      * Fetch all of the events from the database as is (so search criteria)
@@ -128,9 +247,8 @@ public class EventRepository implements IEventRepository {
             List<Event> events = new ArrayList<>();
             QuerySnapshot snapshot = task.getResult();
             for (DocumentSnapshot doc : snapshot.getDocuments()) {
-                Event event = doc.toObject(Event.class);
+                Event event = toEvent(doc);
                 if (event != null) {
-                    event.setEventId(doc.getId());
                     events.add(event);
                 }
             }
@@ -138,6 +256,142 @@ public class EventRepository implements IEventRepository {
             return fetchWaitlistCountsForEvents(events);
         });
     }
+    /**
+     * Fetch the events with the given IDs, e.g. the events a user has joined. The IDs are
+     * looked up in parallel whereIn queries of up to {@value #WHERE_IN_LIMIT} IDs each, so the
+     * cost is proportional to the number of IDs rather than to the number of events.
+     *
+     * @param eventIds The event IDs; duplicates and nulls are ignored.
+     * @return A task containing the events in the order of their IDs. Events that do not exist
+     *         are left out.
+     */
+
+    @Override
+    public Task<List<Event>> fetchEventsByIds(Collection<String> eventIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(eventIds));
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return Tasks.forResult(new ArrayList<>());
+        }
+
+        List<Task<QuerySnapshot>> chunkTasks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += WHERE_IN_LIMIT) {
+            List<String> chunk = ids.subList(i, Math.min(i + WHERE_IN_LIMIT, ids.size()));
+            chunkTasks.add(config.read(FirestoreConfig.EVENTS_BY_IDS, eventsRef.whereIn(FieldPath.documentId(), chunk)));
+        }
+
+        return Tasks.whenAllSuccess(chunkTasks).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Map<String, Event> byId = new HashMap<>();
+            for (Object result : task.getResult()) {
+                for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                    Event event = toEvent(doc);
+                    if (event != null) {
+                        byId.put(doc.getId(), event);
+                    }
+                }
+            }
+
+            List<Event> events = new ArrayList<>(byId.size());
+            for (String id : ids) {
+                Event event = byId.get(id);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            return fetchWaitlistCountsForEvents(events);
+        });
+    }
+
+    /**
+     * Fetch one page of the events an entrant can browse. Registration must be open at the
+     * query's time, and the interest and start-date filters are applied by Firestore, so a page
+     * costs the same number of reads no matter how many events have ever been created. Events
+     * come back ordered by start date.
+     * <p>
+     * The query needs a composite index on {@code interests} (array-contains),
+     * {@code eventStartDate}, {@code registrationCloses} and {@code registrationOpens}.
+     *
+     * @param query The browse filters and page size.
+     * @param cursor The cursor of the previous page, or null for the first page.
+     * @return A task containing the page of events.
+     */
+
+    @Override
+    public Task<EventPage> browseEvents(BrowseQuery query, @Nullable DocumentSnapshot cursor) {
+        Query q = browseQuery(query);
+        if (cursor != null) {
+            q = q.startAfter(cursor);
+        }
+
+        return q.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            List<Event> events = new ArrayList<>();
+            for (DocumentSnapshot doc : docs) {
+                Event event = toEvent(doc);
+                if (event != null) {
+                    events.add(event);
+                }
+            }
+            DocumentSnapshot last = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+            boolean hasMore = docs.size() == query.getPageSize();
+            return fetchWaitlistCountsForEvents(events)
+                    .continueWith(counted -> new EventPage(counted.getResult(), last, hasMore));
+        });
+    }
+
+    /**
+     * Reads the first browse page from the device's Firestore cache only, so the browse screen
+     * can show the events it saw last time while {@link #browseEvents} asks the server. Waitlist
+     * counts come from the cached counters; events without counters show none until the server
+     * page arrives.
+     *
+     * @param query The browse filters and page size.
+     * @return A task containing the cached page, which never has more pages. It fails if nothing
+     *         matching is cached.
+     */
+
+    @Override
+    public Task<EventPage> browseCachedEvents(BrowseQuery query) {
+        return browseQuery(query).get(Source.CACHE).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<Event> events = new ArrayList<>();
+            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                Event event = toEvent(doc);
+                if (event != null) {
+                    if (event.getWaitlistCounts() != null) {
+                        event.setWaitlistCount(WaitlistCounters.total(event.getWaitlistCounts()));
+                    }
+                    events.add(event);
+                }
+            }
+            return new EventPage(events, null, false);
+        });
+    }
+
+    /** The first page of events an entrant can browse with the given filters. */
+    private Query browseQuery(BrowseQuery query) {
+        Query q = eventsRef
+                .whereLessThanOrEqualTo("registrationOpens", query.getNow())
+                .whereGreaterThanOrEqualTo("registrationCloses", query.getNow());
+        if (query.getInterest() != null) {
+            q = q.whereArrayContains("interests", query.getInterest());
+        }
+        if (query.getStartFrom() != null) {
+            q = q.whereGreaterThanOrEqualTo("eventStartDate", query.getStartFrom());
+        }
+        if (query.getStartTo() != null) {
+            q = q.whereLessThanOrEqualTo("eventStartDate", query.getStartTo());
+        }
+        return q.orderBy("eventStartDate").limit(query.getPageSize());
+    }
     /**
      * Fetch all of the events that are hosted by a particular user given their uid.
      *
@@ -156,9 +410,8 @@ public class EventRepository implements IEventRepository {
                     }
                     List<Event> events = new ArrayList<>();
                     for (DocumentSnapshot doc : task.getResult().getDocuments()) {
-                        Event event = doc.toObject(Event.class);
+                        Event event = toEvent(doc);
                         if (event != null) {
-                            event.setEventId(doc.getId());
                             events.add(event);
                         }
                     }
@@ -166,11 +419,106 @@ public class EventRepository implements IEventRepository {
                     return fetchWaitlistCountsForEvents(events);
                 });
     }
+    /**
+     * Count the events of every organizer. The counts are kept in {@value #ORGANIZER_STATS} as
+     * events are added and deleted, so this reads one small document per organizer instead of
+     * every event.
+     *
+     * @return A task with the number of events per organizer ID, for organizers with at least one.
+     */
+    @Override
+    public Task<Map<String, Integer>> countEventsByOrganizer() {
+        Query organizers = db.collection(ORGANIZER_STATS).whereGreaterThan(EVENT_COUNT, 0);
+        return config.read(FirestoreConfig.EVENT_ORGANIZERS, organizers).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                Long count = doc.getLong(EVENT_COUNT);
+                if (count != null) {
+                    counts.put(doc.getId(), count.intValue());
+                }
+            }
+            return counts;
+        });
+    }
+
+    /**
+     * @param delta The change in an organizer's event count.
+     * @return The fields to merge into their {@value #ORGANIZER_STATS} document.
+     */
+    public static Map<String, Object> eventCountChange(long delta) {
+        Map<String, Object> change = new HashMap<>();
+        change.put(EVENT_COUNT, FieldValue.increment(delta));
+        return change;
+    }
+
+    /**
+     * Rebuilds every organizer's event count from the events collection. This is used to
+     * initialize the counts for events created before they existed and to repair counts that
+     * have drifted. Organizers whose last event is gone are set to zero.
+     * <p>
+     * Events added or deleted between the scan and the write are not reflected, so this should
+     * be run when no organizer is editing.
+     *
+     * @return A task containing the number of organizers whose count was written.
+     */
+    public Task<Integer> reconcileOrganizerEventCounts() {
+        CollectionReference statsRef = db.collection(ORGANIZER_STATS);
+
+        return Tasks.<QuerySnapshot>whenAllSuccess(eventsRef.get(), statsRef.get()).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (DocumentSnapshot doc : task.getResult().get(0).getDocuments()) {
+                String organizerId = doc.getString("organizerId");
+                if (organizerId != null) {
+                    counts.put(organizerId, counts.getOrDefault(organizerId, 0L) + 1);
+                }
+            }
+            for (DocumentSnapshot doc : task.getResult().get(1).getDocuments()) {
+                counts.putIfAbsent(doc.getId(), 0L);
+            }
+
+            BatchWriter writer = new BatchWriter(db);
+            for (Map.Entry<String, Long> count : counts.entrySet()) {
+                Map<String, Object> data = new HashMap<>();
+                data.put(EVENT_COUNT, count.getValue());
+                writer.set(statsRef.document(count.getKey()), data, SetOptions.merge());
+            }
+            return writer.flush().continueWith(flushed -> {
+                if (!flushed.isSuccessful()) {
+                    throw flushed.getException();
+                }
+                return counts.size();
+            });
+        });
+    }
 
     // ---------- Waitlist Count Methods ----------
 
     /**
-     * Fetches waitlist counts for multiple events in parallel.
+     * Maps an event document to an event object, including its id and waitlist counters.
+     *
+     * @param doc The event document.
+     * @return The event, or null if it could not be parsed.
+     */
+    private Event toEvent(DocumentSnapshot doc) {
+        Event event = doc.toObject(Event.class);
+        if (event != null) {
+            event.setEventId(doc.getId());
+            event.setWaitlistCounts(WaitlistCounters.read(doc));
+        }
+        return event;
+    }
+
+    /**
+     * Populates the waitlist counts for multiple events. Events whose counters were read with the
+     * event document cost nothing extra; events that predate the counters are rebuilt once in
+     * parallel.
      *
      * @param events list of events to populate
      * @return Task containing the same list with counts populated
@@ -180,25 +528,10 @@ public class EventRepository implements IEventRepository {
             return Tasks.forResult(events);
         }
 
-        // Create a list of tasks, one for each event's waitlist count
-        List<Task<Void>> countTasks = new ArrayList<>();
+        List<Task<Event>> countTasks = new ArrayList<>();
 
         for (Event event : events) {
-            Task<Void> countTask = eventsRef
-                    .document(event.getEventId())
-                    .collection("waitlist")
-                    .get()
-                    .continueWith(t -> {
-                        if (t.isSuccessful()) {
-                            int count = t.getResult().size();
-                            event.setWaitlistCount(count);
-                        } else {
-                            // On error, set count to 0
-                            event.setWaitlistCount(0);
-                        }
-                        return null;
-                    });
-            countTasks.add(countTask);
+            countTasks.add(fetchWaitlistCountForEvent(event));
         }
 
         // Wait for all count tasks to complete
@@ -207,20 +540,23 @@ public class EventRepository implements IEventRepository {
     }
 
     /**
-     * Fetches waitlist count for a single event.
+     * Populates the waitlist count for a single event from its counters, rebuilding the counters
+     * first if the event does not have them yet.
      *
      * @param event the event to populate
      * @return Task containing the same event with count populated
      */
     private Task<Event> fetchWaitlistCountForEvent(Event event) {
-        return eventsRef
-                .document(event.getEventId())
-                .collection("waitlist")
-                .get()
+        if (event.getWaitlistCounts() != null) {
+            event.setWaitlistCount(WaitlistCounters.total(event.getWaitlistCounts()));
+            return Tasks.forResult(event);
+        }
+
+        return reconcileWaitlistCounts(event.getEventId())
                 .continueWith(task -> {
                     if (task.isSuccessful()) {
-                        int count = task.getResult().size();
-                        event.setWaitlistCount(count);
+                        event.setWaitlistCounts(task.getResult());
+                        event.setWaitlistCount(WaitlistCounters.total(task.getResult()));
                     } else {
                         event.setWaitlistCount(0);
                     }
@@ -228,9 +564,79 @@ public class EventRepository implements IEventRepository {
                 });
     }
 
+    /**
+     * Rebuilds the waitlist counters of an event from its waitlist sub-collection. This is used
+     * to initialize events created before the counters existed and to repair counters that have
+     * drifted (for example after a write that bypassed the repositories).
+     * <p>
+     * Entries that change between the scan and the write are not reflected, so this should be
+     * run when the waitlist is quiet.
+     *
+     * @param eventId The ID of the event to rebuild.
+     * @return A task containing the rebuilt counters.
+     */
+    public Task<Map<String, Long>> reconcileWaitlistCounts(String eventId) {
+        if (eventId == null) {
+            return Tasks.forException(new IllegalArgumentException("eventId is null"));
+        }
+
+        DocumentReference eventRef = eventsRef.document(eventId);
+
+        return eventRef.collection("waitlist").get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            Map<String, Long> counts = WaitlistCounters.zeroCounts();
+            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                String status = doc.getString("status");
+                if (status != null && counts.containsKey(status)) {
+                    counts.put(status, counts.get(status) + 1);
+                }
+            }
+
+            // Replace the whole map so stale or unknown keys are dropped
+            return eventRef.update(WaitlistCounters.FIELD, counts)
+                    .continueWith(updateTask -> {
+                        if (!updateTask.isSuccessful()) {
+                            throw updateTask.getException();
+                        }
+                        return counts;
+                    });
+        });
+    }
+
+    /**
+     * Rebuilds the waitlist counters of every event. Events are reconciled in parallel and a
+     * failure on one event does not stop the others.
+     *
+     * @return A task containing the number of events that were reconciled successfully.
+     */
+    public Task<Integer> reconcileAllWaitlistCounts() {
+        return eventsRef.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<Task<Map<String, Long>>> tasks = new ArrayList<>();
+            for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                tasks.add(reconcileWaitlistCounts(doc.getId()));
+            }
+
+            return Tasks.whenAllComplete(tasks).continueWith(all -> {
+                int reconciled = 0;
+                for (Task<Map<String, Long>> t : tasks) {
+                    if (t.isSuccessful()) reconciled++;
+                }
+                return reconciled;
+            });
+        });
+    }
+
     /**
      * Gets the count of waitlist entries by status.
      * Useful for counting only "waiting", "invited", "accepted", etc.
+     * Uses a server-side count aggregation so no entries are downloaded.
      *
      * @param eventId the event ID
      * @param status the status to filter by
@@ -241,26 +647,16 @@ public class EventRepository implements IEventRepository {
                 .document(eventId)
                 .collection("waitlist")
                 .whereEqualTo("status", status)
-                .get()
+                .count()
+                .get(AggregateSource.SERVER)
                 .continueWith(task -> {
-                    if (task.isSuccessful()) {
-                        return task.getResult().size();
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
                     }
-                    return 0;
+                    return (int) task.getResult().getCount();
                 });
     }
-    /**
-     * System chooses a specified number of entrants for the event.
-     * Logic:
-     * - Read event.capacity from the event document.
-     * - If selectCount <= 0 -> error (cannot draw).
-     * - Read events/{eventId}/waitlist/*
-     * - Shuffle and select min(capacity, waitlistSize).
-     * - For each selected:
-     *      - Write events/{eventId}/selectedEntrants/{profileId}
-     *      - Mark their waitlist doc with selected = true
-     * - Save selectedEntrants: [profileId, ...] on the event document.
-     */
+
     // ---------- Lottery draw ----------
     // Package-private helper for unit tests
     public static int computeRemainingSlots(Integer capacity, int acceptedCount) {
@@ -268,120 +664,6 @@ public class EventRepository implements IEventRepository {
         int remaining = n - acceptedCount;
         return Math.max(0, remaining);
     }
-    @Override
-    public Task<Void> drawEntrants(String eventId) {
-        if (eventId == null) {
-            return Tasks.forException(new IllegalArgumentException("eventId is null"));
-        }
-
-        DocumentReference eventRef = eventsRef.document(eventId);
-
-        // 1. Load the event to read capacity
-        return eventRef.get().continueWithTask(eventTask -> {
-            if (!eventTask.isSuccessful()) {
-                throw eventTask.getException();
-            }
-            DocumentSnapshot eventSnap = eventTask.getResult();
-            if (!eventSnap.exists()) {
-                throw new IllegalStateException("Event not found");
-            }
-            Event event = eventSnap.toObject(Event.class);
-            if (event == null) {
-                throw new IllegalStateException("Could not parse the event");
-            }
-
-            Integer capacity = event.getCapacity();
-            int n = (capacity == null) ? 0 : capacity;
-            if (n <= 0) {
-                return Tasks.forException(
-                        new IllegalStateException("capacity must be > 0 to run draw")
-                );
-            }
-
-            // 2. How many people have already ACCEPTED?
-            return getWaitlistCountByStatus(eventId, "accepted")
-                    .continueWithTask(countTask -> {
-                        if (!countTask.isSuccessful()) {
-                            throw countTask.getException();
-                        }
-                        int acceptedCount = countTask.getResult();
-                        int remainingSlots = n - acceptedCount;
-
-                        if (remainingSlots <= 0) {
-                            // Event is already full – nothing to draw.
-                            return Tasks.forException(
-                                    new IllegalStateException("Event is already full")
-                            );
-                        }
-
-                        // 3. Load waitlist and build candidates list (status == "waiting")
-                        CollectionReference waitlistRef = eventRef.collection("waitlist");
-                        return waitlistRef.get().continueWithTask(waitTask -> {
-                            if (!waitTask.isSuccessful()) {
-                                throw waitTask.getException();
-                            }
-
-                            QuerySnapshot qs = waitTask.getResult();
-                            List<DocumentSnapshot> docs = qs.getDocuments();
-                            if (docs.isEmpty()) {
-                                return Tasks.forException(
-                                        new IllegalStateException("No entrants on waitlist")
-                                );
-                            }
-
-                            List<DocumentSnapshot> candidates = new ArrayList<>();
-                            for (DocumentSnapshot d : docs) {
-                                String status = d.getString("status");
-                                if ("waiting".equals(status)) {
-                                    candidates.add(d);
-                                }
-                            }
-
-                            if (candidates.isEmpty()) {
-                                return Tasks.forException(
-                                        new IllegalStateException("No waiting entrants remaining")
-                                );
-                            }
-
-                            // Shuffle and respect remainingSlots so we never exceed capacity
-                            Collections.shuffle(candidates);
-                            int limit = Math.min(remainingSlots, candidates.size());
-
-                            WriteBatch batch = db.batch();
-                            CollectionReference selectedRef = eventRef.collection("selectedEntrants");
-                            List<String> selectedIds = new ArrayList<>();
-
-                            for (int i = 0; i < limit; i++) {
-                                DocumentSnapshot d = candidates.get(i);
-                                String profileId = d.getId();
-                                selectedIds.add(profileId);
-
-                                // record selected entrant
-                                DocumentReference selDoc = selectedRef.document(profileId);
-                                Map<String, Object> data = new HashMap<>();
-                                data.put("profileId", profileId);
-                                data.put("selectedAt", FieldValue.serverTimestamp());
-                                batch.set(selDoc, data, SetOptions.merge());
-
-                                // update waitlist entry
-                                Map<String, Object> mark = new HashMap<>();
-                                mark.put("selected", true);
-                                mark.put("status", "invited");
-                                mark.put("invitedAt", new Date());
-                                batch.set(d.getReference(), mark, SetOptions.merge());
-                            }
-
-                            Map<String, Object> update = new HashMap<>();
-                            update.put("selectedEntrants", selectedIds);
-                            batch.set(eventRef, update, SetOptions.merge());
-
-                            return batch.commit();
-                        });
-                    });
-        });
-    }
-
-
 
     /**
      * Return the list of profile IDs that have cancelled their participation for this event.
@@ -412,6 +694,10 @@ public class EventRepository implements IEventRepository {
     /**
      * Mark a selected entrant as cancelled and (optionally) backfill from waitlist.
      * Also appends the cancelled record under events/{eventId}/cancelledEntrants/{profileId}.
+     * The writes all touch the event document, so they go through a {@link BatchWriter} to be
+     * retried when the commit is aborted by a competing write. The backfill moves the waitlist
+     * counters, so the group is marked as not idempotent and is never retried after a commit
+     * that may have been applied.
      */
     @Override
     public Task<Void> cancelSelectedEntrant(String eventId, String profileId) {
@@ -429,48 +715,53 @@ public class EventRepository implements IEventRepository {
                 throw waitTask.getException();
             }
 
-            DocumentSnapshot replacement = null;
+            DocumentSnapshot next = null;
             for (DocumentSnapshot d : waitTask.getResult().getDocuments()) {
                 Boolean sel = d.getBoolean("selected");
                 if (sel == null || !sel) {
-                    replacement = d;
+                    next = d;
                     break;
                 }
             }
 
-            WriteBatch batch = db.batch();
-
-            // record the cancellation
-            DocumentReference cancelledDoc = cancelledRef.document(profileId);
-            Map<String, Object> cancelData = new HashMap<>();
-            cancelData.put("profileId", profileId);
-            cancelData.put("cancelledAt", FieldValue.serverTimestamp());
-            batch.set(cancelledDoc, cancelData, SetOptions.merge());
-
-            // remove from selected
-            batch.delete(selectedRef.document(profileId));
-            batch.update(eventRef, "selectedEntrants", FieldValue.arrayRemove(profileId));
-
-            // backfill next from waitlist if available
-            if (replacement != null) {
-                String replId = replacement.getId();
-
-                DocumentReference selDoc = selectedRef.document(replId);
-                Map<String, Object> selData = new HashMap<>();
-                selData.put("profileId", replId);
-                selData.put("selectedAt", FieldValue.serverTimestamp());
-                batch.set(selDoc, selData, SetOptions.merge());
-
-                Map<String, Object> mark = new HashMap<>();
-                mark.put("selected", true);
-                mark.put("status", "invited");
-                mark.put("invitedAt", new Date());
-                batch.set(replacement.getReference(), mark, SetOptions.merge());
-
-                batch.update(eventRef, "selectedEntrants", FieldValue.arrayUnion(replId));
-            }
+            DocumentSnapshot replacement = next;
+            BatchWriter writer = new BatchWriter(db);
+
+            // At most seven writes, all committed together
+            writer.add(7, replacement == null, batch -> {
+                // record the cancellation
+                DocumentReference cancelledDoc = cancelledRef.document(profileId);
+                Map<String, Object> cancelData = new HashMap<>();
+                cancelData.put("profileId", profileId);
+                cancelData.put("cancelledAt", FieldValue.serverTimestamp());
+                batch.set(cancelledDoc, cancelData, SetOptions.merge());
+
+                // remove from selected
+                batch.delete(selectedRef.document(profileId));
+                batch.update(eventRef, "selectedEntrants", FieldValue.arrayRemove(profileId));
+
+                // backfill next from waitlist if available
+                if (replacement != null) {
+                    String replId = replacement.getId();
+
+                    DocumentReference selDoc = selectedRef.document(replId);
+                    Map<String, Object> selData = new HashMap<>();
+                    selData.put("profileId", replId);
+                    selData.put("selectedAt", FieldValue.serverTimestamp());
+                    batch.set(selDoc, selData, SetOptions.merge());
+
+                    Map<String, Object> mark = new HashMap<>();
+                    mark.put("selected", true);
+                    mark.put("status", "invited");
+                    mark.put("invitedAt", new Date());
+                    batch.set(replacement.getReference(), mark, SetOptions.merge());
+                    WaitlistCounters.applyTransition(batch, eventRef, replacement.getString("status"), "invited");
+
+                    batch.update(eventRef, "selectedEntrants", FieldValue.arrayUnion(replId));
+                }
+            });
 
-            return batch.commit();
+            return writer.flush();
         });
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.static1.fishylottery.model.entities.EventSummary;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for the event summary stored on each entrant's waitlist mirror document under
+ * {@code entrantWaitlists/{uid}/events/{eventId}.eventSummary}. The summary is written together
+ * with the entry when an entrant joins, and {@link #fanOut} rewrites it on every mirror when an
+ * event's title, dates, location or image change.
+ */
+public final class EventSummaries {
+    /** The map field on the mirror document holding the summary. */
+    public static final String FIELD = "eventSummary";
+
+    /** Mirror documents rewritten per batch, the most a Firestore batch allows. */
+    static final int PAGE_SIZE = 500;
+
+    private static final String EVENTS = "events";
+    private static final String WAITLIST = "waitlist";
+    private static final String ENTRANT_WAITLISTS = "entrantWaitlists";
+
+    private EventSummaries() {}
+
+    /**
+     * Returns the merge data that stores a summary on a mirror document.
+     *
+     * @param summary The summary to store.
+     * @return A map holding only the summary field.
+     */
+    public static Map<String, Object> toData(@NonNull EventSummary summary) {
+        return Collections.singletonMap(FIELD, summary);
+    }
+
+    /**
+     * Reads the summary from a mirror document.
+     *
+     * @param doc The mirror document.
+     * @return The summary, or null if the entry was written before summaries existed.
+     */
+    @Nullable
+    public static EventSummary read(@NonNull DocumentSnapshot doc) {
+        return doc.get(FIELD, EventSummary.class);
+    }
+
+    /**
+     * Writes a new summary onto the mirror document of every entrant on an event's waitlist.
+     * The waitlist is walked in pages of {@link #PAGE_SIZE} and each page is written in one
+     * batch, so a large waitlist never exceeds the batch limit.
+     *
+     * @param db The Firestore instance.
+     * @param eventId The event whose entrants are updated.
+     * @param summary The new summary.
+     * @return A task that completes once every page has been written.
+     */
+    public static Task<Void> fanOut(@NonNull FirebaseFirestore db,
+                                    @NonNull String eventId,
+                                    @NonNull EventSummary summary) {
+        return fanOutPage(db, eventId, toData(summary), null);
+    }
+
+    private static Task<Void> fanOutPage(FirebaseFirestore db,
+                                         String eventId,
+                                         Map<String, Object> data,
+                                         @Nullable DocumentSnapshot cursor) {
+        Query page = db.collection(EVENTS)
+                .document(eventId)
+                .collection(WAITLIST)
+                .orderBy(FieldPath.documentId())
+                .limit(PAGE_SIZE);
+        if (cursor != null) {
+            page = page.startAfter(cursor);
+        }
+
+        return page.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            if (docs.isEmpty()) {
+                return Tasks.forResult(null);
+            }
+
+            WriteBatch batch = db.batch();
+            for (DocumentSnapshot doc : docs) {
+                // Waitlist documents are keyed by the entrant's uid
+                batch.set(db.collection(ENTRANT_WAITLISTS)
+                        .document(doc.getId())
+                        .collection(EVENTS)
+                        .document(eventId), data, SetOptions.merge());
+            }
+
+            return batch.commit().continueWithTask(commit -> {
+                if (!commit.isSuccessful()) {
+                    throw commit.getException();
+                }
+                if (docs.size() < PAGE_SIZE) {
+                    return Tasks.forResult(null);
+                }
+                return fanOutPage(db, eventId, data, docs.get(docs.size() - 1));
+            });
+        });
+    }
+}
@@ -1,8 +1,13 @@
 package com.static1.fishylottery.model.repositories;
 
+import androidx.annotation.Nullable;
+
 import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.static1.fishylottery.model.entities.Event;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class abstracts the Firestore handling of events.
@@ -13,8 +18,17 @@ public interface IEventRepository {
     Task<Void> deleteEvent(Event event);
     Task<Event> getEventById(String eventId);
     Task<List<Event>> fetchAllEvents();
+    Task<List<Event>> fetchEventsByIds(Collection<String> eventIds);
+    Task<EventPage> browseEvents(BrowseQuery query, @Nullable DocumentSnapshot cursor);
+    Task<EventPage> browseCachedEvents(BrowseQuery query);
     Task<List<Event>> fetchEventsByOrganizerId(String uid);
-    public Task<Void> drawEntrants(String eventId);
+
+    /**
+     * Count the events of every organizer, without loading waitlist counts.
+     *
+     * @return A task with the number of events per organizer ID, for organizers with at least one.
+     */
+    Task<Map<String, Integer>> countEventsByOrganizer();
     Task<List<String>> fetchCancelledEntrantIds(String eventId);
     Task<Void> cancelSelectedEntrant(String eventId, String profileId);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.static1.fishylottery.model.repositories;
 import com.google.android.gms.tasks.Task;
 import com.static1.fishylottery.model.entities.Profile;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -49,7 +50,17 @@ public interface IProfileRepository {
     Task<Profile> getProfileById(String uid);
 
     /**
-     * Fetch many profiles by their UIDs. Uses chunked whereIn queries (max 10 IDs per query).
+     * Fetch many profiles by their UIDs, in the order asked for. Profiles that do not exist are
+     * left out; use {@link #resolveProfiles} to find out which.
      */
     Task<List<Profile>> fetchProfilesByIds(List<String> uids);
+
+    /**
+     * Resolve many UIDs to profiles. Duplicate and null UIDs are ignored, cached profiles are
+     * used where possible, and UIDs without a profile are reported as missing.
+     *
+     * @param uids The UIDs to resolve.
+     * @return A task with the profiles in the order asked for.
+     */
+    Task<ProfileLookup> resolveProfiles(Collection<String> uids);
 }
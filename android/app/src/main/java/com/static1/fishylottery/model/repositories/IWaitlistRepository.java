@@ -6,7 +6,9 @@ import com.google.android.gms.tasks.Task;
 import com.static1.fishylottery.model.entities.Event;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Defines the waitlist repository interface which is used by Firestore and by fake models
@@ -41,7 +43,8 @@ public interface IWaitlistRepository {
     Task<WaitlistEntry> getWaitlistEntry(@NonNull Event event, String uid);
 
     /**
-     * Get the entries across all events that a user is on the waitlist for.
+     * Get the entries across all events that a user is on the waitlist for. Each entry carries
+     * a summary of its event when one has been stored, so the event need not be read to list it.
      *
      * @param uid The UID of the entrant user.
      * @return A list of all waitlist entries that belong to that user.
@@ -84,4 +87,25 @@ public interface IWaitlistRepository {
      * @return A task indicating success or failure.
      */
     Task<Void> updateMultipleEntries(List<WaitlistEntry> entries);
+
+    /**
+     * Counts the waitlist entries of an event on the server without downloading them.
+     *
+     * @param event The event whose waitlist is counted.
+     * @param statuses The statuses to include. An empty collection counts every entry.
+     * @return A task with the number of matching entries.
+     */
+    Task<Long> countWaitlist(@NonNull Event event, @NonNull Collection<String> statuses);
+
+    /**
+     * Counts waitlist entries for several events and statuses at once, from the counters on the
+     * event documents where they exist and from server-side counts otherwise.
+     *
+     * @param eventIds The IDs of the events to count.
+     * @param statuses The statuses to count for each event.
+     * @return A task with a map of eventId to a map of status to count. It fails if any count
+     *         could not be read, so a failure is never reported as zero entrants.
+     */
+    Task<Map<String, Map<String, Long>>> countWaitlists(@NonNull Collection<String> eventIds,
+                                                        @NonNull Collection<String> statuses);
 }
@@ -1,19 +1,35 @@
 package com.static1.fishylottery.model.repositories;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
 import com.google.firebase.firestore.WriteBatch;
 import com.static1.fishylottery.model.entities.AppNotification;
+import com.static1.fishylottery.services.FirestoreConfig;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The notification wrapper repository responsible for uploading, fetching, and removing notification
@@ -21,7 +37,79 @@ import com.static1.fishylottery.model.entities.AppNotification;
  * in other contexts and data structures.
  */
 public class NotificationRepository {
-    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    /** The most writes Firestore accepts in one batch. */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    /** Bulk-send batches committed at the same time. */
+    private static final int MAX_CONCURRENT_BATCHES = 4;
+
+    /** Collection holding notification bodies shared by every recipient of a broadcast. */
+    public static final String BROADCASTS = "eventBroadcasts";
+
+    /** Broadcast bodies kept in memory. */
+    private static final int BROADCAST_CACHE_SIZE = 200;
+
+    /** Document IDs per whereIn query when resolving broadcasts. */
+    private static final int WHERE_IN_LIMIT = 30;
+
+    /**
+     * Broadcast bodies never change once written, so one least-recently-used cache is shared by
+     * every repository instance in the process.
+     */
+    private static final Map<String, AppNotification> broadcastCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, AppNotification>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AppNotification> eldest) {
+                    return size() > BROADCAST_CACHE_SIZE;
+                }
+            });
+
+    private final FirebaseFirestore db;
+
+    public NotificationRepository() {
+        this(FirestoreConfig.getInstance().getFirestore());
+    }
+
+    public NotificationRepository(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Receives progress of a bulk send, once per committed or failed chunk.
+     */
+    public interface BulkProgressListener {
+        /**
+         * Called when a chunk has been committed or has failed.
+         *
+         * @param chunkIndex The index of the chunk that finished.
+         * @param chunkCount The total number of chunks.
+         * @param recipients The UIDs in the chunk.
+         * @param error The reason the chunk failed, or null if it was committed.
+         */
+        void onChunkComplete(int chunkIndex, int chunkCount, @NonNull List<String> recipients, @Nullable Exception error);
+    }
+
+    /**
+     * The outcome of a bulk send. A failed chunk does not stop the others, so the result lists
+     * exactly which recipients did not get the notification.
+     */
+    public static final class BulkResult {
+        private final int chunkCount;
+        private int sentCount;
+        private final List<String> failedUids = new ArrayList<>();
+        private Exception firstError;
+
+        BulkResult(int chunkCount) {
+            this.chunkCount = chunkCount;
+        }
+
+        public int getChunkCount() { return chunkCount; }
+        public int getSentCount() { return sentCount; }
+        public List<String> getFailedUids() { return failedUids; }
+        @Nullable
+        public Exception getFirstError() { return firstError; }
+        public boolean isComplete() { return failedUids.isEmpty(); }
+    }
 
     /** Shortcut to user notifications collection */
     private CollectionReference col(String uid) {
@@ -31,19 +119,294 @@ public class NotificationRepository {
     }
 
     /**
-     * Listens for real-time input from a user's inbox given their uid.
+     * One page of a user's inbox, newest first.
+     */
+    public static final class InboxPage {
+        private final List<AppNotification> items;
+        private final DocumentSnapshot cursor;
+        private final boolean hasMore;
+
+        InboxPage(List<AppNotification> items, @Nullable DocumentSnapshot cursor, boolean hasMore) {
+            this.items = items;
+            this.cursor = cursor;
+            this.hasMore = hasMore;
+        }
+
+        public List<AppNotification> getItems() { return items; }
+
+        /**
+         * Returns the document to pass to {@link #fetchInboxPage} for the next, older page.
+         *
+         * @return The oldest document of this page, or null if the page is empty.
+         */
+        @Nullable
+        public DocumentSnapshot getCursor() { return cursor; }
+
+        /**
+         * Returns whether older notifications may exist after this page.
+         *
+         * @return False once a page came back shorter than requested.
+         */
+        public boolean hasMore() { return hasMore; }
+    }
+
+    /**
+     * Listens for real-time changes to the newest page of a user's inbox. The first page is read
+     * once to find its oldest notification, and the live listener then covers everything from
+     * that notification up to the newest one. New notifications join the live page, while older
+     * history is only read on demand with {@link #fetchInboxPage}, so the listener's cost does
+     * not grow with the size of the inbox.
+     * <p>
+     * Notifications that point at a shared broadcast are delivered with the broadcast's title,
+     * message and sender filled in. The cursor and hasMore flag of every delivered page describe
+     * the first read, so older pages always continue directly below the live page.
      *
      * @param uid The UID/profileId of the user.
+     * @param pageSize The number of notifications in the first page.
      * @param listener A listener callback to trigger when there is an update.
-     * @return The snapshot listener.
+     * @return The registration; removing it also cancels a listener that has not started yet.
      */
     public ListenerRegistration listenToInbox(
             @NonNull String uid,
-            @NonNull EventListener<QuerySnapshot> listener
+            int pageSize,
+            @NonNull EventListener<InboxPage> listener
     ) {
-        return col(uid)
+        InboxSubscription subscription = new InboxSubscription();
+        Query newestFirst = col(uid).orderBy("createdAt", Query.Direction.DESCENDING);
+
+        showCachedInbox(newestFirst.limit(pageSize), subscription, listener);
+
+        newestFirst.limit(pageSize).get().addOnCompleteListener(first -> {
+            if (subscription.removed) return;
+
+            if (!first.isSuccessful()) {
+                listener.onEvent(null, new FirebaseFirestoreException(
+                        "Could not load inbox",
+                        FirebaseFirestoreException.Code.UNAVAILABLE,
+                        first.getException()));
+                return;
+            }
+
+            List<DocumentSnapshot> docs = first.getResult().getDocuments();
+            boolean hasMore = docs.size() == pageSize;
+            DocumentSnapshot anchor = docs.isEmpty() ? null : docs.get(docs.size() - 1);
+
+            // With no older history the whole (short) inbox is the live page
+            Query live = hasMore ? newestFirst.endAt(anchor) : newestFirst;
+
+            // Resolving is asynchronous, so only the result of the newest snapshot is delivered
+            int[] latest = {0};
+
+            subscription.inner = live.addSnapshotListener((QuerySnapshot snap, FirebaseFirestoreException err) -> {
+                if (snap == null) {
+                    listener.onEvent(null, err);
+                    return;
+                }
+
+                int version = ++latest[0];
+                resolveBroadcasts(toNotifications(snap.getDocuments()))
+                        .addOnCompleteListener(task -> {
+                            if (version != latest[0] || subscription.removed) return;
+                            if (task.isSuccessful()) {
+                                listener.onEvent(new InboxPage(task.getResult(), anchor, hasMore), null);
+                            } else {
+                                listener.onEvent(null, new FirebaseFirestoreException(
+                                        "Could not load notification bodies",
+                                        FirebaseFirestoreException.Code.UNAVAILABLE,
+                                        task.getException()));
+                            }
+                        });
+            });
+        });
+
+        return subscription;
+    }
+
+    /**
+     * Delivers the newest page as cached on the device, so the inbox shows what it showed last
+     * time instead of waiting for the server. Nothing is delivered once the live listener has
+     * started. The page has no cursor, so older pages wait for the server's page.
+     */
+    private void showCachedInbox(Query firstPage,
+                                 InboxSubscription subscription,
+                                 EventListener<InboxPage> listener) {
+        firstPage.get(Source.CACHE).addOnSuccessListener(cached -> {
+            if (subscription.removed || subscription.inner != null || cached.isEmpty()) return;
+
+            resolveBroadcasts(toNotifications(cached.getDocuments()), Source.CACHE)
+                    .addOnSuccessListener(resolved -> {
+                        if (subscription.removed || subscription.inner != null) return;
+
+                        // Pointers whose broadcast body is not cached would show up blank
+                        List<AppNotification> items = new ArrayList<>();
+                        for (AppNotification n : resolved) {
+                            if (n.getBroadcastId() == null || n.getTitle() != null) {
+                                items.add(n);
+                            }
+                        }
+                        if (!items.isEmpty()) {
+                            listener.onEvent(new InboxPage(items, null, false), null);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * A registration for a listener that is only attached after the first page has been read.
+     * Callbacks run on the main thread, so the fields need no locking.
+     */
+    private static final class InboxSubscription implements ListenerRegistration {
+        private ListenerRegistration inner;
+        private boolean removed;
+
+        @Override
+        public void remove() {
+            removed = true;
+            if (inner != null) {
+                inner.remove();
+                inner = null;
+            }
+        }
+    }
+
+    /**
+     * Reads one page of older notifications, newest first.
+     *
+     * @param uid The UID/profileId of the user.
+     * @param after The cursor of the previous page, or null for the newest page.
+     * @param pageSize The maximum number of notifications to read.
+     * @return A task with the page, with shared broadcast bodies filled in.
+     */
+    public Task<InboxPage> fetchInboxPage(@NonNull String uid,
+                                          @Nullable DocumentSnapshot after,
+                                          int pageSize) {
+        Query query = col(uid)
                 .orderBy("createdAt", Query.Direction.DESCENDING)
-                .addSnapshotListener(listener);
+                .limit(pageSize);
+        if (after != null) {
+            query = query.startAfter(after);
+        }
+
+        return query.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            DocumentSnapshot cursor = docs.isEmpty() ? after : docs.get(docs.size() - 1);
+            boolean hasMore = docs.size() == pageSize;
+
+            return resolveBroadcasts(toNotifications(docs))
+                    .continueWith(resolved -> {
+                        if (!resolved.isSuccessful()) {
+                            throw resolved.getException();
+                        }
+                        return new InboxPage(resolved.getResult(), cursor, hasMore);
+                    });
+        });
+    }
+
+    private static List<AppNotification> toNotifications(List<DocumentSnapshot> docs) {
+        List<AppNotification> out = new ArrayList<>();
+        for (DocumentSnapshot doc : docs) {
+            AppNotification n = doc.toObject(AppNotification.class);
+            if (n != null) {
+                n.setId(doc.getId());
+                out.add(n);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Fills in the title, message and sender of notifications that point at a shared broadcast.
+     * Bodies come from the in-memory cache where possible and the rest are read with batched
+     * whereIn queries. Notifications whose broadcast no longer exists are returned unchanged.
+     *
+     * @param notifications The notifications, modified in place.
+     * @return A task with the same list.
+     */
+    public Task<List<AppNotification>> resolveBroadcasts(@NonNull List<AppNotification> notifications) {
+        return resolveBroadcasts(notifications, Source.DEFAULT);
+    }
+
+    /**
+     * Same as {@link #resolveBroadcasts(List)}, reading bodies that are not in memory from the
+     * given source.
+     *
+     * @param notifications The notifications, modified in place.
+     * @param source Where to read missing bodies from.
+     * @return A task with the same list.
+     */
+    public Task<List<AppNotification>> resolveBroadcasts(@NonNull List<AppNotification> notifications,
+                                                         @NonNull Source source) {
+        List<String> missing = new ArrayList<>();
+        for (AppNotification n : notifications) {
+            String broadcastId = n.getBroadcastId();
+            if (broadcastId != null && !broadcastCache.containsKey(broadcastId) && !missing.contains(broadcastId)) {
+                missing.add(broadcastId);
+            }
+        }
+
+        List<Task<QuerySnapshot>> reads = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i += WHERE_IN_LIMIT) {
+            reads.add(db.collection(BROADCASTS)
+                    .whereIn(FieldPath.documentId(), missing.subList(i, Math.min(i + WHERE_IN_LIMIT, missing.size())))
+                    .get(source));
+        }
+
+        return Tasks.whenAllSuccess(reads).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            Map<String, AppNotification> bodies = new HashMap<>();
+            for (Object result : task.getResult()) {
+                for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                    AppNotification body = doc.toObject(AppNotification.class);
+                    if (body != null) {
+                        bodies.put(doc.getId(), body);
+                        broadcastCache.put(doc.getId(), body);
+                    }
+                }
+            }
+
+            for (AppNotification n : notifications) {
+                String broadcastId = n.getBroadcastId();
+                if (broadcastId == null) continue;
+
+                AppNotification body = bodies.get(broadcastId);
+                if (body == null) {
+                    body = broadcastCache.get(broadcastId);
+                }
+                if (body != null) {
+                    n.setTitle(body.getTitle());
+                    n.setMessage(body.getMessage());
+                    n.setSenderId(body.getSenderId());
+                }
+            }
+            return notifications;
+        });
+    }
+
+    /**
+     * Builds the small inbox document that points at a shared broadcast. Only the fields that
+     * differ per recipient or that the inbox sorts and acts on are copied.
+     *
+     * @param broadcastId The ID of the broadcast in {@link #BROADCASTS}.
+     * @param notif The notification the broadcast was made from.
+     * @return The pointer document data.
+     */
+    public static Map<String, Object> pointerFor(@NonNull String broadcastId, @NonNull AppNotification notif) {
+        Map<String, Object> pointer = new HashMap<>();
+        pointer.put("broadcastId", broadcastId);
+        pointer.put("eventId", notif.getEventId());
+        pointer.put("type", notif.getType());
+        pointer.put("status", notif.getStatus());
+        pointer.put("read", false);
+        pointer.put("createdAt", notif.getCreatedAt() != null
+                ? notif.getCreatedAt()
+                : FieldValue.serverTimestamp());
+        return pointer;
     }
 
     /**
@@ -57,6 +420,136 @@ public class NotificationRepository {
         return col(uid).add(notif);
     }
 
+    /**
+     * Sends the same notification to many users. Recipients are split into chunks of
+     * {@link #MAX_BATCH_SIZE} and each chunk is written with one batch, with at most
+     * {@link #MAX_CONCURRENT_BATCHES} batches in flight, so 20k recipients take 40 commits.
+     * Duplicate UIDs receive one notification.
+     *
+     * @param uids The profile IDs of the recipients.
+     * @param notif The notification to send to each of them.
+     * @param listener Optional listener called as each chunk finishes.
+     * @return A task that completes once every chunk has finished. It only fails if it could not
+     *         start; failed chunks are reported in the result.
+     */
+    public Task<BulkResult> addNotificationsBulk(@NonNull Collection<String> uids,
+                                                 @NonNull AppNotification notif,
+                                                 @Nullable BulkProgressListener listener) {
+        List<String> recipients = new ArrayList<>(new LinkedHashSet<>(uids));
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < recipients.size(); i += MAX_BATCH_SIZE) {
+            chunks.add(recipients.subList(i, Math.min(i + MAX_BATCH_SIZE, recipients.size())));
+        }
+
+        if (chunks.isEmpty()) {
+            return Tasks.forResult(new BulkResult(0));
+        }
+
+        return sendInChunks(chunks, notif, listener);
+    }
+
+    /**
+     * Sends the same notification to many users while storing its body only once. The body is
+     * written to {@link #BROADCASTS} and each recipient's inbox gets a pointer document a few
+     * dozen bytes in size, written in chunks exactly like
+     * {@link #addNotificationsBulk(Collection, AppNotification, BulkProgressListener)}.
+     * {@link #listenToInbox} resolves the pointers back into full notifications.
+     *
+     * @param uids The profile IDs of the recipients.
+     * @param notif The notification to send to each of them.
+     * @param listener Optional listener called as each chunk finishes.
+     * @return A task that completes once every chunk has finished. It fails if the broadcast body
+     *         could not be written; failed chunks are reported in the result.
+     */
+    public Task<BulkResult> broadcastNotificationsBulk(@NonNull Collection<String> uids,
+                                                       @NonNull AppNotification notif,
+                                                       @Nullable BulkProgressListener listener) {
+        List<String> recipients = new ArrayList<>(new LinkedHashSet<>(uids));
+        if (recipients.isEmpty()) {
+            return Tasks.forResult(new BulkResult(0));
+        }
+
+        DocumentReference broadcastRef = db.collection(BROADCASTS).document();
+        return broadcastRef.set(notif).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            broadcastCache.put(broadcastRef.getId(), notif);
+
+            List<List<String>> chunks = new ArrayList<>();
+            for (int i = 0; i < recipients.size(); i += MAX_BATCH_SIZE) {
+                chunks.add(recipients.subList(i, Math.min(i + MAX_BATCH_SIZE, recipients.size())));
+            }
+            return sendInChunks(chunks, pointerFor(broadcastRef.getId(), notif), listener);
+        });
+    }
+
+    private Task<BulkResult> sendInChunks(List<List<String>> chunks,
+                                          Object payload,
+                                          @Nullable BulkProgressListener listener) {
+        BulkSend send = new BulkSend(chunks, payload, listener);
+        for (int i = 0; i < Math.min(MAX_CONCURRENT_BATCHES, chunks.size()); i++) {
+            send.launchNext();
+        }
+        return send.source.getTask();
+    }
+
+    /**
+     * Keeps a fixed number of chunk commits in flight, starting the next chunk whenever one
+     * finishes. Completion callbacks run on the main thread, so the counters need no locking.
+     */
+    private final class BulkSend {
+        private final List<List<String>> chunks;
+        private final Object payload;
+        private final BulkProgressListener listener;
+        private final BulkResult result;
+        private final TaskCompletionSource<BulkResult> source = new TaskCompletionSource<>();
+        private int next;
+        private int finished;
+
+        BulkSend(List<List<String>> chunks, Object payload, @Nullable BulkProgressListener listener) {
+            this.chunks = chunks;
+            this.payload = payload;
+            this.listener = listener;
+            this.result = new BulkResult(chunks.size());
+        }
+
+        void launchNext() {
+            if (next >= chunks.size()) return;
+
+            int index = next++;
+            List<String> chunk = chunks.get(index);
+
+            WriteBatch batch = db.batch();
+            for (String uid : chunk) {
+                batch.set(col(uid).document(), payload);
+            }
+
+            batch.commit().addOnCompleteListener(task -> {
+                Exception error = task.isSuccessful() ? null : task.getException();
+                if (error == null) {
+                    result.sentCount += chunk.size();
+                } else {
+                    result.failedUids.addAll(chunk);
+                    if (result.firstError == null) {
+                        result.firstError = error;
+                    }
+                }
+
+                if (listener != null) {
+                    listener.onChunkComplete(index, chunks.size(), chunk, error);
+                }
+
+                finished++;
+                if (finished == chunks.size()) {
+                    source.setResult(result);
+                } else {
+                    launchNext();
+                }
+            });
+        }
+    }
+
     /**
      * Marks the notification as read in the Firebase.
      * @param uid The uid of the profile
@@ -90,9 +583,27 @@ public class NotificationRepository {
                 .update("status", status);
     }
 
+    /**
+     * Deletes every notification of every profile, then the shared broadcast bodies they
+     * pointed at. Both are deleted a page at a time in batches under the write limit.
+     *
+     * @return A task indicating success or failure.
+     */
     public Task<Void> deleteAllNotifications() {
-        // TODO: Deletes all of the notifications
-        return Tasks.forResult(null);
+        return deleteAll(db.collectionGroup("notifications"), null)
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return deleteAll(db.collection(BROADCASTS), null);
+                })
+                .continueWith(task -> {
+                    broadcastCache.clear();
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return null;
+                });
     }
 
     /**
@@ -102,22 +613,37 @@ public class NotificationRepository {
      * @return A task indicating success or failure.
      */
     public Task<Void> deleteNotificationsByUser(@NonNull String uid) {
-        return db.collection("profiles")
-                .document(uid)
-                .collection("notifications")
-                .get()
-                .continueWithTask(task -> {
-                    if (!task.isSuccessful()) {
-                        throw task.getException();
-                    }
+        return deleteNotificationsByUser(uid, null);
+    }
 
-                    WriteBatch batch = db.batch();
+    /**
+     * Deletes all of the notifications for a user by the UID, a page at a time, so users with
+     * any number of notifications can be deleted. Calling this again after a failure deletes the
+     * notifications that are left.
+     *
+     * @param uid The UID of the profile.
+     * @param listener Told after every committed batch, may be null.
+     * @return A task indicating success or failure.
+     */
+    public Task<Void> deleteNotificationsByUser(@NonNull String uid,
+                                                @Nullable ChunkedBatchExecutor.ProgressListener listener) {
+        return deleteAll(col(uid), listener).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return null;
+        });
+    }
 
-                    for (DocumentSnapshot snap : task.getResult().getDocuments()) {
-                        batch.delete(snap.getReference());
+    private Task<Long> deleteAll(Query query, @Nullable ChunkedBatchExecutor.ProgressListener listener) {
+        return new ChunkedBatchExecutor(db)
+                .setProgressListener(listener)
+                .run(query, page -> {
+                    List<ChunkedBatchExecutor.Group> groups = new ArrayList<>();
+                    for (DocumentSnapshot snap : page) {
+                        groups.add(new ChunkedBatchExecutor.Group(1, batch -> batch.delete(snap.getReference())));
                     }
-
-                    return batch.commit();
+                    return Tasks.forResult(groups);
                 });
     }
 }
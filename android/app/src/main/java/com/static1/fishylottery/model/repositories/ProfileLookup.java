@@ -0,0 +1,94 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.static1.fishylottery.model.entities.Profile;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of resolving a list of profile IDs. IDs keep the order they were asked for, with
+ * duplicates and nulls removed, and an ID whose profile does not exist is reported as missing
+ * rather than dropped.
+ */
+public final class ProfileLookup {
+    private final List<String> uids;
+    private final Map<String, Profile> found;
+
+    /**
+     * @param uids The requested IDs, deduplicated, in request order.
+     * @param found The profiles that exist, by ID.
+     */
+    public ProfileLookup(@NonNull List<String> uids, @NonNull Map<String, Profile> found) {
+        this.uids = Collections.unmodifiableList(new ArrayList<>(uids));
+        this.found = found;
+    }
+
+    /**
+     * Removes nulls and duplicates from requested IDs, keeping the first occurrence of each.
+     *
+     * @param uids The IDs as requested, may be null.
+     * @return The distinct IDs in request order.
+     */
+    @NonNull
+    public static List<String> distinct(@Nullable Collection<String> uids) {
+        if (uids == null) {
+            return new ArrayList<>();
+        }
+        LinkedHashSet<String> unique = new LinkedHashSet<>(uids);
+        unique.remove(null);
+        return new ArrayList<>(unique);
+    }
+
+    /**
+     * @return The distinct requested IDs, in request order.
+     */
+    @NonNull
+    public List<String> getUids() {
+        return uids;
+    }
+
+    /**
+     * @param uid A requested ID.
+     * @return The profile, or null if it does not exist or was not requested.
+     */
+    @Nullable
+    public Profile get(String uid) {
+        return found.get(uid);
+    }
+
+    /**
+     * @return The profiles that exist, in request order.
+     */
+    @NonNull
+    public List<Profile> getProfiles() {
+        List<Profile> out = new ArrayList<>();
+        for (String uid : uids) {
+            Profile profile = found.get(uid);
+            if (profile != null) {
+                out.add(profile);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return The requested IDs that have no profile, in request order.
+     */
+    @NonNull
+    public List<String> getMissing() {
+        List<String> out = new ArrayList<>();
+        for (String uid : uids) {
+            if (!found.containsKey(uid)) {
+                out.add(uid);
+            }
+        }
+        return out;
+    }
+}
@@ -1,16 +1,22 @@
 package com.static1.fishylottery.model.repositories;
 
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
 import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldPath;
-import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.services.FirestoreConfig;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The profile wrapper for Firestore which interacts between Firebase documents and Java objects
@@ -18,8 +24,33 @@ import java.util.List;
  * to and from the "profiles" collection in Firestore.
  */
 public class ProfileRepository implements IProfileRepository {
-    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
-    private final CollectionReference profilesRef = db.collection("profiles");
+    /**
+     * Profiles read by ID, shared by every repository instance so the same profile is not read
+     * again on every screen. Entries are dropped when the profile document changes.
+     */
+    private static final EntityCache<Profile> profileCache =
+            new EntityCache<>("profiles", 200, TimeUnit.MINUTES.toMillis(5));
+
+    /** Reads of profiles missing from the cache that are in flight, shared between callers. */
+    private static final SingleFlight reads = new SingleFlight("profile reads");
+
+    /** The most values Firestore accepts in one whereIn filter. */
+    private static final int WHERE_IN_LIMIT = 30;
+
+    /** Profile queries in flight at once while resolving many IDs. */
+    private static final int MAX_CONCURRENT_READS = 4;
+
+    private final FirestoreConfig config;
+    private final CollectionReference profilesRef;
+
+    public ProfileRepository() {
+        this(FirestoreConfig.getInstance());
+    }
+
+    public ProfileRepository(FirestoreConfig config) {
+        this.config = config;
+        this.profilesRef = config.getFirestore().collection("profiles");
+    }
     /**
      * Creates or overwrites a profile document in Firestore.
      *
@@ -29,6 +60,8 @@ public class ProfileRepository implements IProfileRepository {
      */
     @Override
     public Task<Void> addProfile(Profile profile) {
+        profileCache.invalidate(profile.getUid());
+        reads.forgetAll();
         return profilesRef.document(profile.getUid()).set(profile);
     }
     /**
@@ -42,6 +75,8 @@ public class ProfileRepository implements IProfileRepository {
      */
     @Override
     public Task<Void> updateProfile(Profile profile) {
+        profileCache.invalidate(profile.getUid());
+        reads.forgetAll();
         return profilesRef.document(profile.getUid()).set(profile);
     }
     /**
@@ -53,6 +88,8 @@ public class ProfileRepository implements IProfileRepository {
      */
     @Override
     public Task<Void> deleteProfile(Profile profile) {
+        profileCache.invalidate(profile.getUid());
+        reads.forgetAll();
         return profilesRef.document(profile.getUid()).delete();
     }
     /**
@@ -94,65 +131,153 @@ public class ProfileRepository implements IProfileRepository {
      */
     @Override
     public Task<Profile> getProfileById(String uid) {
-        return profilesRef
-                .document(uid)
-                .get()
+        Profile cached = profileCache.get(uid);
+        if (cached != null) {
+            return Tasks.forResult(cached);
+        }
+
+        // Screens opened together share one read of a cold profile
+        DocumentReference ref = profilesRef.document(uid);
+        return reads.run(uid, () -> config.read(FirestoreConfig.PROFILE_BY_ID, ref)
                 .continueWith(task -> {
                     DocumentSnapshot doc = task.getResult();
                     if (doc != null && doc.exists()) {
-                        return doc.toObject(Profile.class);
+                        Profile profile = doc.toObject(Profile.class);
+                        if (profile != null) {
+                            profileCache.put(uid, profile, profileCache.invalidateOnChange(ref));
+                        }
+                        return profile;
                     } else {
                         return null;
                     }
-                });
+                }));
     }
+
     /**
-     * Fetches multiple profiles for a list of user IDs.
-     * <p>
-     * Firestore {@code whereIn} queries are limited to 10 values per call,
-     * so this method automatically splits the ID list into chunks of at most
-     * 10 IDs and runs multiple queries when necessary.
+     * Returns the hit and miss counters of the cache behind {@link #getProfileById}.
+     *
+     * @return A snapshot of the counters.
+     */
+    public static EntityCache.Stats getCacheStats() {
+        return profileCache.getStats();
+    }
+
+    /**
+     * Returns the counters of the shared {@link #getProfileById} reads.
+     *
+     * @return how many reads were started and how many joined one in flight
+     */
+    public static SingleFlight getCoalescingStats() {
+        return reads;
+    }
+    /**
+     * Fetches multiple profiles for a list of user IDs, in the order of {@code uids}.
      *
      * @param uids list of user IDs / document IDs to look up; if {@code null}
      *             or empty an empty list is returned
      * @return a {@link Task} that resolves to a list of {@link Profile}
      *         objects for all IDs that could be found; the list may be
      *         smaller than {@code uids} if some documents do not exist
+     * @see #resolveProfiles(Collection)
      */
     @Override
     public Task<List<Profile>> fetchProfilesByIds(List<String> uids) {
-        if (uids == null || uids.isEmpty()) {
-            return Tasks.forResult(new ArrayList<>());
+        return resolveProfiles(uids).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return task.getResult().getProfiles();
+        });
+    }
+    /**
+     * Resolves many user IDs to profiles.
+     * <p>
+     * IDs are deduplicated and profiles in the shared cache are used as they are. The rest are
+     * read with {@code whereIn} queries of up to {@value #WHERE_IN_LIMIT} IDs, with at most
+     * {@value #MAX_CONCURRENT_READS} queries in flight, and are cached with the same change
+     * listener as {@link #getProfileById}, so an edit on another device invalidates them.
+     *
+     * @param uids the user IDs to resolve; {@code null} entries are ignored
+     * @return a {@link Task} that resolves to the lookup; it fails if any query fails
+     */
+    @Override
+    public Task<ProfileLookup> resolveProfiles(Collection<String> uids) {
+        List<String> ids = ProfileLookup.distinct(uids);
+        Map<String, Profile> found = new HashMap<>();
+        List<String> toFetch = new ArrayList<>();
+
+        for (String uid : ids) {
+            Profile cached = profileCache.get(uid);
+            if (cached != null) {
+                found.put(uid, cached);
+            } else {
+                toFetch.add(uid);
+            }
+        }
+        if (toFetch.isEmpty()) {
+            return Tasks.forResult(new ProfileLookup(ids, found));
         }
 
-        List<Task<QuerySnapshot>> chunkTasks = new ArrayList<>();
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < toFetch.size(); i += WHERE_IN_LIMIT) {
+            chunks.add(toFetch.subList(i, Math.min(i + WHERE_IN_LIMIT, toFetch.size())));
+        }
 
-        // Firestore whereIn supports up to 10 values per query.
-        for (int i = 0; i < uids.size(); i += 10) {
-            List<String> chunk = uids.subList(i, Math.min(i + 10, uids.size()));
-            chunkTasks.add(
-                    profilesRef.whereIn(FieldPath.documentId(), chunk).get()
-            );
+        ChunkedRead read = new ChunkedRead(chunks, found);
+        for (int i = 0; i < Math.min(MAX_CONCURRENT_READS, chunks.size()); i++) {
+            read.launchNext();
         }
+        return read.source.getTask().continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return new ProfileLookup(ids, found);
+        });
+    }
+
+    /**
+     * Keeps a fixed number of chunk queries in flight, starting the next chunk whenever one
+     * finishes. Completion callbacks run on the main thread, so the fields need no locking.
+     */
+    private final class ChunkedRead {
+        private final List<List<String>> chunks;
+        private final Map<String, Profile> found;
+        private final TaskCompletionSource<Void> source = new TaskCompletionSource<>();
+        private int next;
+        private int finished;
 
-        // Use the non-typed overload and cast each element to QuerySnapshot.
-        return Tasks.whenAllSuccess(chunkTasks)
-                .continueWith(t -> {
-                    List<Profile> out = new ArrayList<>();
-                    List<Object> results = t.getResult(); // may be null
-
-                    if (results != null) {
-                        for (Object obj : results) {
-                            QuerySnapshot qs = (QuerySnapshot) obj;
-                            for (DocumentSnapshot doc : qs.getDocuments()) {
-                                Profile p = doc.toObject(Profile.class);
-                                if (p != null) {
-                                    out.add(p);
-                                }
+        ChunkedRead(List<List<String>> chunks, Map<String, Profile> found) {
+            this.chunks = chunks;
+            this.found = found;
+        }
+
+        void launchNext() {
+            if (next >= chunks.size() || source.getTask().isComplete()) return;
+
+            List<String> chunk = chunks.get(next++);
+            config.read(FirestoreConfig.PROFILES_BY_IDS, profilesRef.whereIn(FieldPath.documentId(), chunk))
+                    .addOnCompleteListener(task -> {
+                        if (!task.isSuccessful()) {
+                            source.trySetException(task.getException());
+                            return;
+                        }
+
+                        for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                            Profile profile = doc.toObject(Profile.class);
+                            if (profile != null) {
+                                found.put(doc.getId(), profile);
+                                profileCache.put(doc.getId(), profile,
+                                        profileCache.invalidateOnChange(doc.getReference()));
                             }
                         }
-                    }
-                    return out;
-                });
+
+                        finished++;
+                        if (finished == chunks.size()) {
+                            source.trySetResult(null);
+                        } else {
+                            launchNext();
+                        }
+                    });
+        }
     }
 }
@@ -0,0 +1,93 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shares identical reads that are in flight at the same time. The first caller for a key starts
+ * the read and every caller that asks for the same key before it completes gets the same
+ * {@link Task}, so a burst of screens asking for the same document costs one read. Completed
+ * reads are forgotten straight away; this is not a cache.
+ * <p>
+ * Results are shared between callers, so anything mutable must be copied by the caller of
+ * {@link #run} before it is handed out.
+ */
+public final class SingleFlight {
+    private final String name;
+    private final Map<String, Task<?>> inFlight = new HashMap<>();
+
+    private long started;
+    private long coalesced;
+
+    /**
+     * @param name A name for the reads, used in the statistics.
+     */
+    public SingleFlight(@NonNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the in-flight read for a key, or starts one with the loader.
+     *
+     * @param key Identifies the read; equal keys must mean identical reads.
+     * @param loader Starts the read when none is in flight.
+     * @param <T> The result type.
+     * @return The shared task.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Task<T> run(@NonNull String key, @NonNull Supplier<Task<T>> loader) {
+        Task<?> existing = inFlight.get(key);
+        if (existing != null) {
+            coalesced++;
+            return (Task<T>) existing;
+        }
+
+        Task<T> task = loader.get();
+        started++;
+        if (!task.isComplete()) {
+            inFlight.put(key, task);
+            task.addOnCompleteListener(done -> finish(key, task));
+        }
+        return task;
+    }
+
+    private synchronized void finish(String key, Task<?> task) {
+        // A newer read may have replaced this one after forgetAll()
+        if (inFlight.get(key) == task) {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Stops sharing every read that is in flight, so reads started from now on see writes
+     * that were just made. The earlier reads still complete for the callers already holding them.
+     */
+    public synchronized void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * @return The number of reads actually started.
+     */
+    public synchronized long getStarted() {
+        return started;
+    }
+
+    /**
+     * @return The number of reads answered by joining one already in flight.
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return name + ": " + started + " started, " + coalesced + " coalesced";
+    }
+}
@@ -0,0 +1,188 @@
+package com.static1.fishylottery.model.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for the per-status waitlist counters stored on each event document under
+ * {@code waitlistCounts.{status}}. The counters are updated in the same batch as the waitlist
+ * entry they describe, so reading an event listing costs one read per event instead of one read
+ * per entrant. If the counters ever drift they can be rebuilt with
+ * {@link EventRepository#reconcileWaitlistCounts(String)}.
+ */
+public final class WaitlistCounters {
+    /** The map field on the event document holding the counters. */
+    public static final String FIELD = "waitlistCounts";
+
+    /** Every status that has a counter. */
+    public static final List<String> STATUSES =
+            Arrays.asList("waiting", "invited", "accepted", "declined", "cancelled");
+
+    private WaitlistCounters() {}
+
+    /**
+     * Returns a counter map with every status set to zero.
+     *
+     * @return A new mutable map.
+     */
+    public static Map<String, Long> zeroCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (String status : STATUSES) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+
+    /**
+     * Records one entry moving from one status to another in a delta map. Either status may be
+     * null, meaning the entry is being created or removed.
+     *
+     * @param delta The delta map to accumulate into.
+     * @param from The previous status, or null if the entry did not exist.
+     * @param to The new status, or null if the entry is being removed.
+     */
+    public static void addTransition(@NonNull Map<String, Long> delta,
+                                     @Nullable String from,
+                                     @Nullable String to) {
+        if (from != null && from.equals(to)) return;
+        if (from != null && STATUSES.contains(from)) {
+            delta.put(from, delta.getOrDefault(from, 0L) - 1);
+        }
+        if (to != null && STATUSES.contains(to)) {
+            delta.put(to, delta.getOrDefault(to, 0L) + 1);
+        }
+    }
+
+    /**
+     * Adds the counter updates for a single status transition to a batch.
+     *
+     * @param batch The batch that also writes the waitlist entry.
+     * @param eventRef The event document holding the counters.
+     * @param from The previous status, or null if the entry did not exist.
+     * @param to The new status, or null if the entry is being removed.
+     */
+    public static void applyTransition(@NonNull WriteBatch batch,
+                                       @NonNull DocumentReference eventRef,
+                                       @Nullable String from,
+                                       @Nullable String to) {
+        Map<String, Long> delta = new HashMap<>();
+        addTransition(delta, from, to);
+        applyDelta(batch, eventRef, delta);
+    }
+
+    /**
+     * Same as {@link #applyTransition(WriteBatch, DocumentReference, String, String)} for writes
+     * made inside a transaction that read the previous status.
+     *
+     * @param transaction The transaction that also writes the waitlist entry.
+     * @param eventRef The event document holding the counters.
+     * @param from The previous status, or null if the entry did not exist.
+     * @param to The new status, or null if the entry is being removed.
+     */
+    public static void applyTransition(@NonNull Transaction transaction,
+                                       @NonNull DocumentReference eventRef,
+                                       @Nullable String from,
+                                       @Nullable String to) {
+        Map<String, Long> delta = new HashMap<>();
+        addTransition(delta, from, to);
+        applyDelta(transaction, eventRef, delta);
+    }
+
+    /**
+     * Adds an atomic increment for every non-zero entry of the delta map to a batch. An update
+     * is used rather than a merge so a missing event document fails the batch instead of being
+     * recreated with only the counters on it.
+     *
+     * @param batch The batch to add the update to.
+     * @param eventRef The event document holding the counters.
+     * @param delta Status -> change in count.
+     */
+    public static void applyDelta(@NonNull WriteBatch batch,
+                                  @NonNull DocumentReference eventRef,
+                                  @NonNull Map<String, Long> delta) {
+        Map<String, Object> updates = toUpdates(delta);
+        if (updates.isEmpty()) return;
+
+        batch.update(eventRef, updates);
+    }
+
+    /**
+     * Same as {@link #applyDelta(WriteBatch, DocumentReference, Map)} for writes made inside a
+     * transaction.
+     *
+     * @param transaction The transaction that also writes the waitlist entries.
+     * @param eventRef The event document holding the counters.
+     * @param delta Status -> change in count.
+     */
+    public static void applyDelta(@NonNull Transaction transaction,
+                                  @NonNull DocumentReference eventRef,
+                                  @NonNull Map<String, Long> delta) {
+        Map<String, Object> updates = toUpdates(delta);
+        if (updates.isEmpty()) return;
+
+        transaction.update(eventRef, updates);
+    }
+
+    private static Map<String, Object> toUpdates(Map<String, Long> delta) {
+        // Keys of an update map are field paths, so "waitlistCounts.waiting" targets the nested value
+        Map<String, Object> updates = new HashMap<>();
+        for (Map.Entry<String, Long> entry : delta.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() == 0) continue;
+            updates.put(FIELD + "." + entry.getKey(), FieldValue.increment(entry.getValue()));
+        }
+        return updates;
+    }
+
+    /**
+     * Reads the counters from an event snapshot.
+     *
+     * @param doc The event document.
+     * @return The counters with every status present, or null if the document has never had
+     *         a full set of counters written (events created before the counters existed only
+     *         pick up the statuses that were incremented since, so they must be rebuilt).
+     */
+    @Nullable
+    public static Map<String, Long> read(@NonNull DocumentSnapshot doc) {
+        Object raw = doc.get(FIELD);
+        if (!(raw instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> stored = (Map<?, ?>) raw;
+        Map<String, Long> counts = zeroCounts();
+        for (String status : STATUSES) {
+            Object value = stored.get(status);
+            if (!(value instanceof Number)) {
+                return null;
+            }
+            // Clamp in case drift has pushed a counter below zero
+            counts.put(status, Math.max(0L, ((Number) value).longValue()));
+        }
+        return counts;
+    }
+
+    /**
+     * Sums every status counter.
+     *
+     * @param counts The counters, may be null.
+     * @return The total number of waitlist entries.
+     */
+    public static int total(@Nullable Map<String, Long> counts) {
+        if (counts == null) return 0;
+        long sum = 0;
+        for (Long value : counts.values()) {
+            if (value != null) sum += value;
+        }
+        return (int) sum;
+    }
+}
@@ -3,40 +3,72 @@ package com.static1.fishylottery.model.repositories;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.SetOptions;
-import com.google.firebase.firestore.WriteBatch;
+import com.google.firebase.firestore.Transaction;
 import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.model.entities.EventSummary;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
+import com.static1.fishylottery.services.FirestoreConfig;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * Stores a user's intent to join the waitlist under: events/{eventId}/waitlist/{profileId}
  */
 public class WaitlistRepository implements IWaitlistRepository {
-    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final FirestoreConfig config;
+    private final FirebaseFirestore db;
 
     private static final String EVENTS = "events";
     private static final String WAITLIST = "waitlist";
     private static final String ENTRANT_WAITLISTS = "entrantWaitlists";
+
+    /** The most values Firestore accepts in one {@code whereIn} filter. */
+    private static final int WHERE_IN_LIMIT = 30;
+
+    /**
+     * Identical waitlist reads in flight at the same time, shared by every repository instance
+     * so screens opened together read each waitlist once.
+     */
+    private static final SingleFlight reads = new SingleFlight("waitlist reads");
+
+    public WaitlistRepository() {
+        this(FirestoreConfig.getInstance());
+    }
+
+    public WaitlistRepository(FirestoreConfig config) {
+        this.config = config;
+        this.db = config.getFirestore();
+    }
     /**
      * Adds an entrant to the waitlist for the given event and mirrors the entry
      * under {@code entrantWaitlists/{uid}/events/{eventId}}.
      * <p>
-     * Both documents are written in a single Firestore batch.
+     * Both documents and the event's waitlist counters are written in a single Firestore
+     * transaction that reads the current entry first, so the counters move from its previous
+     * status exactly once even when two writes race.
      *
      * @param event the event whose waitlist is being joined; its {@code eventId} is used
      * @param entry the {@link WaitlistEntry} containing profile and status information
-     * @return a {@link Task} that completes when the batch write is committed
+     * @return a {@link Task} that completes when the transaction is committed
      */
     @Override
     public Task<Void> addToWaitlist(@NonNull Event event, @NonNull WaitlistEntry entry) {
@@ -51,12 +83,28 @@ public class WaitlistRepository implements IWaitlistRepository {
             return Tasks.forException(new Exception("UID cannot be null"));
         }
 
+        return writeEntry(event, profileId, entry);
+    }
+
+    /**
+     * Writes a waitlist entry to both the event side and the entrant side and moves the event's
+     * waitlist counters from the stored status to the entry's status, all in one transaction.
+     * The entrant side also gets a summary of the event so the entrant's lists need no event
+     * reads.
+     *
+     * @param event the event whose waitlist is written
+     * @param profileId the entrant's profile ID
+     * @param entry the entry to write
+     * @return a {@link Task} that completes when the transaction is committed
+     */
+    private Task<Void> writeEntry(@NonNull Event event,
+                                  @NonNull String profileId,
+                                  @NonNull WaitlistEntry entry) {
+        String eventId = event.getEventId();
+
         // Set the eventId for the waitlist entry
         entry.setEventId(eventId);
 
-        // Create a batch to set/update both waitlist reference documents
-        WriteBatch batch = db.batch();
-
         // We need to store the waitlist entry in the events waitlist sub-collection
         DocumentReference eventSideRef =
                 db.collection(EVENTS)
@@ -71,12 +119,55 @@ public class WaitlistRepository implements IWaitlistRepository {
                     .collection(EVENTS)
                     .document(eventId);
 
-        // Batch set
-        batch.set(eventSideRef, entry, SetOptions.merge());
-        batch.set(entrantSideRef, entry, SetOptions.merge());
+        Map<String, Object> summary = EventSummaries.toData(EventSummary.from(event));
+
+        // The stored status is read in the transaction, so a racing write makes this one retry
+        // instead of moving the counters from a status that is no longer there
+        return afterWrite(db.runTransaction((Transaction.Function<Void>) transaction -> {
+            String previousStatus = previousStatus(transaction.get(eventSideRef));
+
+            transaction.set(eventSideRef, entry, SetOptions.merge());
+            transaction.set(entrantSideRef, entry, SetOptions.merge());
+            transaction.set(entrantSideRef, summary, SetOptions.merge());
+            WaitlistCounters.applyTransition(transaction, db.collection(EVENTS).document(eventId),
+                    previousStatus, entry.getStatus());
+            return null;
+        }));
+    }
+
+    /**
+     * Returns the stored status of a waitlist document.
+     *
+     * @param doc the waitlist document, may be missing
+     * @return the status, or {@code null} if the document does not exist
+     */
+    @Nullable
+    private static String previousStatus(@Nullable DocumentSnapshot doc) {
+        if (doc == null || !doc.exists()) {
+            return null;
+        }
+        return doc.getString("status");
+    }
+
+    /**
+     * Stops sharing reads that started before a write, once the write completes, so callers
+     * reacting to the write read its result.
+     *
+     * @param write the write task
+     * @return the same task
+     */
+    private static <T> Task<T> afterWrite(Task<T> write) {
+        write.addOnCompleteListener(task -> reads.forgetAll());
+        return write;
+    }
 
-        // Batch commit
-        return batch.commit();
+    /**
+     * Returns the counters of the shared waitlist reads.
+     *
+     * @return how many reads were started and how many joined one in flight
+     */
+    public static SingleFlight getCoalescingStats() {
+        return reads;
     }
     /**
      * Loads all waitlist entries for a specific event.
@@ -95,10 +186,11 @@ public class WaitlistRepository implements IWaitlistRepository {
             throw new IllegalArgumentException("eventId is null");
         }
 
-        return db.collection(EVENTS)
+        Query waitlist = db.collection(EVENTS)
                 .document(eventId)
-                .collection(WAITLIST)
-                .get()
+                .collection(WAITLIST);
+
+        Task<List<WaitlistEntry>> shared = reads.run("waitlist/" + eventId, () -> config.read(FirestoreConfig.WAITLIST, waitlist)
                 .continueWith(task -> {
                     if (!task.isSuccessful()) {
                         throw task.getException();
@@ -117,7 +209,15 @@ public class WaitlistRepository implements IWaitlistRepository {
                     }
 
                     return list;
-                });
+                }));
+
+        // Each caller gets its own list so one screen cannot change another's
+        return shared.continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return new ArrayList<>(task.getResult());
+        });
     }
     /**
      * Retrieves a single waitlist entry for the given event and user ID.
@@ -129,11 +229,14 @@ public class WaitlistRepository implements IWaitlistRepository {
      */
     @Override
     public Task<WaitlistEntry> getWaitlistEntry(@NonNull Event event, String uid) {
-        return db.collection(EVENTS)
-                .document(event.getEventId())
+        String eventId = event.getEventId();
+        DocumentReference ref = db.collection(EVENTS)
+                .document(eventId)
                 .collection(WAITLIST)
-                .document(uid)
-                .get().continueWith(task -> {
+                .document(uid);
+
+        // Each caller converts its own entry from the shared snapshot
+        return reads.run("entry/" + eventId + "/" + uid, () -> config.read(FirestoreConfig.WAITLIST_ENTRY, ref)).continueWith(task -> {
                     if (!task.isSuccessful()) {
                         throw task.getException();
                     }
@@ -151,17 +254,20 @@ public class WaitlistRepository implements IWaitlistRepository {
      * Retrieves all waitlist entries for a user across all events.
      * <p>
      * Reads documents from {@code entrantWaitlists/{uid}/events} and sets the
-     * {@code eventId} field on each entry using the document ID.
+     * {@code eventId} field on each entry using the document ID. Entries written since event
+     * summaries were added also carry the stored {@link EventSummary}.
      *
      * @param uid the profile ID of the user
      * @return a {@link Task} that resolves to a list of {@link WaitlistEntry} objects
      */
     @Override
     public Task<List<WaitlistEntry>> getEventWaitlistEntriesByUser(@NonNull String uid) {
-        return db.collection(ENTRANT_WAITLISTS)
+        Query query = db.collection(ENTRANT_WAITLISTS)
                 .document(uid)
-                .collection(EVENTS)
-                .get()
+                .collection(EVENTS);
+
+        // Each caller converts its own entries from the shared snapshot
+        return reads.run("entrant/" + uid, () -> config.read(FirestoreConfig.ENTRANT_WAITLISTS, query))
                 .continueWith(task -> {
                     if (!task.isSuccessful()) {
                         throw task.getException();
@@ -174,6 +280,7 @@ public class WaitlistRepository implements IWaitlistRepository {
 
                         if (entry != null) {
                             entry.setEventId(documentSnapshot.getId());
+                            entry.setEventSummary(EventSummaries.read(documentSnapshot));
                             list.add(entry);
                         }
                     }
@@ -185,16 +292,15 @@ public class WaitlistRepository implements IWaitlistRepository {
      * Removes a single entrant from the waitlist for an event and deletes the
      * mirrored document under {@code entrantWaitlists}.
      * <p>
-     * Both deletions are performed in a single Firestore batch.
+     * Both deletions and the counter decrement are performed in a single Firestore transaction
+     * that reads the entry first, so only the delete that removes it decrements the counters.
      *
      * @param event the event from which the entrant is removed
      * @param uid   the profile ID / document ID of the entrant
-     * @return a {@link Task} that completes when the batch delete is committed
+     * @return a {@link Task} that completes when the transaction is committed
      */
     @Override
     public Task<Void> deleteFromWaitlist(@NonNull Event event, @NonNull String uid) {
-        WriteBatch batch = db.batch();
-
         String eventId = event.getEventId();
 
         if (eventId == null) {
@@ -215,67 +321,96 @@ public class WaitlistRepository implements IWaitlistRepository {
                         .collection(EVENTS)
                         .document(eventId);
 
-        // Batch delete
-        batch.delete(eventWaitlistRef);
-        batch.delete(entrantWaitlistRef);
+        return afterWrite(db.runTransaction((Transaction.Function<Void>) transaction -> {
+            // Only an existing entry was counted
+            String status = previousStatus(transaction.get(eventWaitlistRef));
 
-        // Batch commit
-        return batch.commit();
+            transaction.delete(eventWaitlistRef);
+            transaction.delete(entrantWaitlistRef);
+            WaitlistCounters.applyTransition(transaction, db.collection(EVENTS).document(eventId), status, null);
+            return null;
+        }));
     }
     /**
      * Deletes all waitlist references for a given user across all events.
      * <p>
      * For each event listed under {@code entrantWaitlists/{uid}/events}, the corresponding
-     * {@code events/{eventId}/waitlist/{uid}} document is also removed. Finally, the
-     * {@code entrantWaitlists/{uid}} document itself is deleted.
+     * {@code events/{eventId}/waitlist/{uid}} document is also removed and the event's waitlist
+     * counters are decremented. Finally, the {@code entrantWaitlists/{uid}} document itself is
+     * deleted.
      *
      * @param uid the profile ID of the user whose waitlist entries should be removed
      * @return a {@link Task} that completes when all delete operations have been committed
      */
+    @Override
     public Task<Void> deleteFromWaitlistByUser(@NonNull String uid) {
-        return db.collection(ENTRANT_WAITLISTS)
-            .document(uid)
-            .collection(EVENTS)
-            .get()
-            .continueWithTask(task -> {
-                if (!task.isSuccessful()) {
-                    throw task.getException();
-                }
-
-                QuerySnapshot snapshot = task.getResult();
-
-                List<WaitlistEntry> waitlists = snapshot.toObjects(WaitlistEntry.class);
-
-                WriteBatch batch = db.batch();
-
-                // For each of the waitlist entries for each user, also remove the waitlist entries for that event
-                for (WaitlistEntry entry : waitlists) {
-                    Log.d("Waitlist", "Deleting waitlist entry for event ID: " + entry.getEventId());
-
-                    String eventId = entry.getEventId();
-                    if (eventId == null) continue;
+        return deleteFromWaitlistByUser(uid, null);
+    }
 
-                    DocumentReference eventWaitlistDocRef = db.collection(EVENTS)
-                        .document(eventId)
-                        .collection(WAITLIST)
-                        .document(uid);
+    /**
+     * Deletes all waitlist references for a given user across all events, reporting progress.
+     * <p>
+     * The user's list is read in pages and each entry is deleted on both sides, together with
+     * its counter update, in batches that stay under the write limit, so this works however many
+     * waitlists the user is on. An entry and its mirror always go in the same batch, so calling
+     * this again after a failure finishes the entries that are left without counting any twice.
+     *
+     * @param uid the profile ID of the user whose waitlist entries should be removed
+     * @param listener told after every committed batch, may be {@code null}
+     * @return a {@link Task} that completes when all delete operations have been committed
+     */
+    public Task<Void> deleteFromWaitlistByUser(@NonNull String uid,
+                                               @Nullable ChunkedBatchExecutor.ProgressListener listener) {
+        Query entrantEvents = db.collection(ENTRANT_WAITLISTS)
+                .document(uid)
+                .collection(EVENTS);
+
+        Task<Long> deleted = new ChunkedBatchExecutor(db)
+                .setProgressListener(listener)
+                .run(entrantEvents, page -> {
+                    // Read the event-side entries so we know which counters to decrement. Events
+                    // that have already been deleted have no entry and no counters to touch.
+                    List<Task<DocumentSnapshot>> entryTasks = new ArrayList<>();
+                    for (DocumentSnapshot doc : page) {
+                        entryTasks.add(db.collection(EVENTS)
+                                .document(doc.getId())
+                                .collection(WAITLIST)
+                                .document(uid)
+                                .get());
+                    }
 
-                    DocumentReference entrantWaitlistDocRef = db.collection(ENTRANT_WAITLISTS)
-                        .document(uid)
-                        .collection(EVENTS)
-                        .document(eventId);
+                    return Tasks.whenAllSuccess(entryTasks).continueWith(entriesTask -> {
+                        if (!entriesTask.isSuccessful()) {
+                            throw entriesTask.getException();
+                        }
 
-                    batch.delete(eventWaitlistDocRef);
-                    batch.delete(entrantWaitlistDocRef);
-                }
+                        List<ChunkedBatchExecutor.Group> groups = new ArrayList<>();
+                        for (int i = 0; i < page.size(); i++) {
+                            String eventId = page.get(i).getId();
+                            DocumentReference entrantWaitlistDocRef = page.get(i).getReference();
+                            DocumentReference eventRef = db.collection(EVENTS).document(eventId);
+                            String status = previousStatus(entryTasks.get(i).getResult());
+
+                            // A counter decrement must not be applied twice by a retried commit
+                            groups.add(new ChunkedBatchExecutor.Group(status != null ? 3 : 2, status == null, batch -> {
+                                batch.delete(eventRef.collection(WAITLIST).document(uid));
+                                batch.delete(entrantWaitlistDocRef);
+                                WaitlistCounters.applyTransition(batch, eventRef, status, null);
+                            }));
+                        }
+                        return groups;
+                    });
+                });
 
-                // Finally, remove the user's waitlist entries
-                DocumentReference entrantWaitlistDocRef = db.collection(ENTRANT_WAITLISTS).document(uid);
-                batch.delete(entrantWaitlistDocRef);
+        return afterWrite(deleted.continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            Log.d("Waitlist", "Deleted " + task.getResult() + " waitlist entries for " + uid);
 
-                // Commit the batch
-                return batch.commit();
-        });
+            // Finally, remove the user's waitlist entries
+            return db.collection(ENTRANT_WAITLISTS).document(uid).delete();
+        }));
     }
 
     // ---------------------------------------------------------------------
@@ -315,7 +450,7 @@ public class WaitlistRepository implements IWaitlistRepository {
             DocumentSnapshot doc = getTask.getResult();
             if (doc != null && doc.exists()) {
                 // Already on the waitlist → merge/update as usual.
-                return addToWaitlist(event, entry);
+                return writeEntry(event, profileId, entry);
             }
 
             // Not on the list yet → enforce limit.
@@ -328,30 +463,20 @@ public class WaitlistRepository implements IWaitlistRepository {
                 if (current >= limit) {
                     return Tasks.forException(new IllegalStateException("Waitlist is full"));
                 }
-                return addToWaitlist(event, entry);
+                return writeEntry(event, profileId, entry);
             });
         });
     }
 
     /**
      * Returns the current number of entries in the event’s waitlist.
-     * (Simple query-size count; acceptable for small/medium lists.)
+     * (Server-side count aggregation; no entries are downloaded.)
      */
     public Task<Long> getWaitlistCount(@NonNull Event event) {
-        String eventId = event.getEventId();
-        if (eventId == null) {
+        if (event.getEventId() == null) {
             return Tasks.forException(new Exception("Event ID cannot be null"));
         }
-
-        return db.collection(EVENTS)
-                .document(eventId)
-                .collection(WAITLIST)
-                .get()
-                .continueWith(t -> {
-                    if (!t.isSuccessful()) throw t.getException();
-                    QuerySnapshot qs = t.getResult();
-                    return qs != null ? (long) qs.size() : 0L;
-                });
+        return countWaitlist(event, new ArrayList<>());
     }
 
     /**
@@ -369,6 +494,130 @@ public class WaitlistRepository implements IWaitlistRepository {
         });
     }
 
+    /**
+     * Counts the waitlist entries of an event with a {@code count()} aggregate query, so only
+     * the number is sent over the network.
+     *
+     * @param event    the event whose waitlist is counted
+     * @param statuses the statuses to include; an empty collection counts every entry
+     * @return a {@link Task} that resolves to the number of matching entries
+     */
+    @Override
+    public Task<Long> countWaitlist(@NonNull Event event, @NonNull Collection<String> statuses) {
+        String eventId = event.getEventId();
+        if (eventId == null) {
+            return Tasks.forException(new Exception("Event ID cannot be null"));
+        }
+
+        Query query = db.collection(EVENTS)
+                .document(eventId)
+                .collection(WAITLIST);
+
+        if (statuses.size() == 1) {
+            query = query.whereEqualTo("status", statuses.iterator().next());
+        } else if (!statuses.isEmpty()) {
+            query = query.whereIn("status", new ArrayList<>(statuses));
+        }
+
+        // The same statuses in any order are the same count
+        Query counted = query;
+        return reads.run("count/" + eventId + "/" + new TreeSet<>(statuses), () -> count(counted));
+    }
+
+    /**
+     * Counts waitlist entries for every combination of event and status. The per-status counters
+     * are read from the event documents, up to {@value #WHERE_IN_LIMIT} events per query. Events
+     * without a full set of counters, and statuses that have no counter, fall back to one
+     * aggregate query per event and status, all run in parallel.
+     *
+     * @param eventIds the IDs of the events to count
+     * @param statuses the statuses to count for each event
+     * @return a {@link Task} that resolves to eventId → (status → count), or fails if any of
+     *         the reads failed
+     */
+    @Override
+    public Task<Map<String, Map<String, Long>>> countWaitlists(@NonNull Collection<String> eventIds,
+                                                               @NonNull Collection<String> statuses) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(eventIds));
+        List<Task<QuerySnapshot>> counterReads = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i += WHERE_IN_LIMIT) {
+            List<String> chunk = new ArrayList<>(ids.subList(i, Math.min(i + WHERE_IN_LIMIT, ids.size())));
+            counterReads.add(config.read(FirestoreConfig.WAITLIST_COUNTS,
+                    db.collection(EVENTS).whereIn(FieldPath.documentId(), chunk)));
+        }
+
+        return Tasks.whenAllSuccess(counterReads).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+
+            Map<String, Map<String, Long>> counts = new HashMap<>();
+            boolean countersCoverStatuses = WaitlistCounters.STATUSES.containsAll(statuses);
+
+            for (Object result : task.getResult()) {
+                for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                    Map<String, Long> stored = WaitlistCounters.read(doc);
+                    if (stored == null || !countersCoverStatuses) {
+                        continue;
+                    }
+                    Map<String, Long> eventCounts = new HashMap<>();
+                    for (String status : statuses) {
+                        eventCounts.put(status, stored.get(status));
+                    }
+                    counts.put(doc.getId(), eventCounts);
+                }
+            }
+
+            List<Task<Long>> fallbacks = new ArrayList<>();
+            for (String eventId : ids) {
+                if (counts.containsKey(eventId)) {
+                    continue;
+                }
+
+                Map<String, Long> eventCounts = new HashMap<>();
+                counts.put(eventId, eventCounts);
+
+                for (String status : statuses) {
+                    Query query = db.collection(EVENTS)
+                            .document(eventId)
+                            .collection(WAITLIST)
+                            .whereEqualTo("status", status);
+
+                    fallbacks.add(count(query).continueWith(t -> {
+                        if (!t.isSuccessful()) {
+                            throw t.getException();
+                        }
+                        eventCounts.put(status, t.getResult());
+                        return t.getResult();
+                    }));
+                }
+            }
+
+            return Tasks.whenAllSuccess(fallbacks).continueWith(t -> {
+                if (!t.isSuccessful()) {
+                    throw t.getException();
+                }
+                return counts;
+            });
+        });
+    }
+
+    /**
+     * Runs a server-side count aggregation for a query.
+     *
+     * @param query the query to count
+     * @return a {@link Task} that resolves to the number of matching documents
+     */
+    private Task<Long> count(@NonNull Query query) {
+        return query.count()
+                .get(AggregateSource.SERVER)
+                .continueWith(t -> {
+                    if (!t.isSuccessful()) throw t.getException();
+                    return t.getResult().getCount();
+                });
+    }
+
     /**
      * Marks an invited entrant as declined and, if possible, invites a replacement
      * entrant from the remaining waitlist for the same event.
@@ -382,8 +631,9 @@ public class WaitlistRepository implements IWaitlistRepository {
      *      - Choose the earliest joined (by joinedAt) as the replacement
      *      - Mark that replacement as "invited" and set invitedAt (both sides)
      *
-     * This is done inside a Firestore transaction so the update + replacement
-     * selection are consistent.
+     * The decline and the promotion each run in their own Firestore transaction, which reads
+     * the entry's status before moving the counters, so a racing write can never count the same
+     * change twice. A replacement that stopped waiting after the scan is left alone.
      */
     @Override
     public Task<Void> declineInvitationAndDrawReplacement(@NonNull Event event, @NonNull String uid) {
@@ -392,9 +642,10 @@ public class WaitlistRepository implements IWaitlistRepository {
             return Tasks.forException(new Exception("Event ID cannot be null"));
         }
 
+        DocumentReference eventRef = db.collection(EVENTS).document(eventId);
+
         // References for this entrant's waitlist docs (both sides)
-        DocumentReference eventWaitlistRef = db.collection(EVENTS)
-                .document(eventId)
+        DocumentReference eventWaitlistRef = eventRef
                 .collection(WAITLIST)
                 .document(uid);
 
@@ -403,130 +654,137 @@ public class WaitlistRepository implements IWaitlistRepository {
                 .collection(EVENTS)
                 .document(eventId);
 
-        // 1) Get the current entry so we know its previous status
-        return eventWaitlistRef.get().continueWithTask(task -> {
-            if (!task.isSuccessful()) {
-                throw task.getException();
-            }
-
-            DocumentSnapshot snapshot = task.getResult();
-            if (snapshot == null || !snapshot.exists()) {
+        // 1) Mark this entrant as declined on BOTH sides, returning the status it had
+        Task<String> declined = db.runTransaction((Transaction.Function<String>) transaction -> {
+            DocumentSnapshot snapshot = transaction.get(eventWaitlistRef);
+            if (!snapshot.exists()) {
                 // Nothing to do if the entry doesn't exist
-                return Tasks.forResult(null);
+                return null;
             }
 
-            WaitlistEntry entry = snapshot.toObject(WaitlistEntry.class);
-            if (entry == null) {
-                return Tasks.forResult(null);
-            }
-
-            String previousStatus = entry.getStatus();
+            String previousStatus = snapshot.getString("status");
             Date now = new Date();
 
-            // 2) Mark this entrant as declined on BOTH sides in a batch
-            WriteBatch batch = db.batch();
-            batch.update(eventWaitlistRef,
+            transaction.update(eventWaitlistRef,
                     "status", "declined",
                     "declinedAt", now);
-            batch.update(entrantWaitlistRef,
+            transaction.update(entrantWaitlistRef,
                     "status", "declined",
                     "declinedAt", now);
+            WaitlistCounters.applyTransition(transaction, eventRef, previousStatus, "declined");
+            return previousStatus;
+        });
 
-            return batch.commit().continueWithTask(commitTask -> {
-                if (!commitTask.isSuccessful()) {
-                    throw commitTask.getException();
-                }
+        return afterWrite(declined).continueWithTask(declineTask -> {
+            if (!declineTask.isSuccessful()) {
+                throw declineTask.getException();
+            }
 
-                // If they weren't invited, we don't need to draw a replacement
-                if (!"invited".equals(previousStatus)) {
-                    return Tasks.forResult(null);
-                }
+            // If they weren't invited, we don't need to draw a replacement
+            if (!"invited".equals(declineTask.getResult())) {
+                return Tasks.forResult(null);
+            }
 
-                // 3) Find a replacement from remaining "waiting" entries
-                return db.collection(EVENTS)
-                        .document(eventId)
-                        .collection(WAITLIST)
-                        .get()
-                        .continueWithTask(waitlistTask -> {
-                            if (!waitlistTask.isSuccessful()) {
-                                throw waitlistTask.getException();
-                            }
+            // 2) Find a replacement from remaining "waiting" entries
+            return eventRef
+                    .collection(WAITLIST)
+                    .get()
+                    .continueWithTask(waitlistTask -> {
+                        if (!waitlistTask.isSuccessful()) {
+                            throw waitlistTask.getException();
+                        }
 
-                            QuerySnapshot allEntriesSnapshot = waitlistTask.getResult();
-                            if (allEntriesSnapshot == null || allEntriesSnapshot.isEmpty()) {
-                                return Tasks.forResult(null);
-                            }
+                        QuerySnapshot allEntriesSnapshot = waitlistTask.getResult();
+                        if (allEntriesSnapshot == null || allEntriesSnapshot.isEmpty()) {
+                            return Tasks.forResult(null);
+                        }
 
-                            DocumentSnapshot replacementDoc = null;
-                            Date earliestJoined = null;
-
-                            // Pick the "waiting" entry with the earliest joinedAt
-                            for (DocumentSnapshot doc : allEntriesSnapshot.getDocuments()) {
-                                WaitlistEntry e = doc.toObject(WaitlistEntry.class);
-                                if (e == null) continue;
-                                if (!"waiting".equals(e.getStatus())) continue;
-
-                                Date joined = e.getJoinedAt();
-                                if (replacementDoc == null) {
-                                    replacementDoc = doc;
-                                    earliestJoined = joined;
-                                } else if (joined != null &&
-                                        (earliestJoined == null || joined.before(earliestJoined))) {
-                                    replacementDoc = doc;
-                                    earliestJoined = joined;
-                                }
-                            }
+                        DocumentSnapshot replacementDoc = null;
+                        Date earliestJoined = null;
+
+                        // Pick the "waiting" entry with the earliest joinedAt
+                        for (DocumentSnapshot doc : allEntriesSnapshot.getDocuments()) {
+                            WaitlistEntry e = doc.toObject(WaitlistEntry.class);
+                            if (e == null) continue;
+                            if (!"waiting".equals(e.getStatus())) continue;
 
+                            Date joined = e.getJoinedAt();
                             if (replacementDoc == null) {
-                                // No "waiting" entrants left
-                                return Tasks.forResult(null);
+                                replacementDoc = doc;
+                                earliestJoined = joined;
+                            } else if (joined != null &&
+                                    (earliestJoined == null || joined.before(earliestJoined))) {
+                                replacementDoc = doc;
+                                earliestJoined = joined;
                             }
+                        }
 
-                            String replacementUid = replacementDoc.getId();
-                            DocumentReference replacementEventRef = replacementDoc.getReference();
-                            DocumentReference replacementEntrantRef = db.collection(ENTRANT_WAITLISTS)
-                                    .document(replacementUid)
-                                    .collection(EVENTS)
-                                    .document(eventId);
+                        if (replacementDoc == null) {
+                            // No "waiting" entrants left
+                            return Tasks.forResult(null);
+                        }
 
-                            Date inviteTime = new Date();
+                        String replacementUid = replacementDoc.getId();
+                        DocumentReference replacementEventRef = replacementDoc.getReference();
+                        DocumentReference replacementEntrantRef = db.collection(ENTRANT_WAITLISTS)
+                                .document(replacementUid)
+                                .collection(EVENTS)
+                                .document(eventId);
+
+                        // 3) Promote the replacement to invited on BOTH sides, if still waiting
+                        return afterWrite(db.runTransaction((Transaction.Function<Void>) transaction -> {
+                            DocumentSnapshot current = transaction.get(replacementEventRef);
+                            if (!"waiting".equals(current.getString("status"))) {
+                                return null;
+                            }
 
-                            // 4) Promote the replacement to invited on BOTH sides
-                            WriteBatch promoteBatch = db.batch();
-                            promoteBatch.update(replacementEventRef,
+                            Date inviteTime = new Date();
+                            transaction.update(replacementEventRef,
                                     "status", "invited",
                                     "invitedAt", inviteTime);
-                            promoteBatch.update(replacementEntrantRef,
+                            transaction.update(replacementEntrantRef,
                                     "status", "invited",
                                     "invitedAt", inviteTime);
-
-                            return promoteBatch.commit();
-                        });
-            });
+                            WaitlistCounters.applyTransition(transaction, eventRef, "waiting", "invited");
+                            return null;
+                        }));
+                    });
         });
     }
     /**
-     * Writes multiple waitlist entries in a single batch operation, updating both
-     * the event-side and entrant-side documents for each entry.
+     * Writes multiple waitlist entries, updating both the event-side and entrant-side documents
+     * for each entry.
+     * <p>
+     * Each entry is written in its own transaction, which reads the stored entry so the event's
+     * waitlist counters move from its previous status exactly once even when another write
+     * races it. The transactions run in parallel.
      *
      * @param entries a list of {@link WaitlistEntry} objects to write; each must have
      *                a non-null {@code eventId} and {@link WaitlistEntry#getProfile()} UID
-     * @return a {@link Task} that completes when the batch has been committed
+     * @return a {@link Task} that completes when every transaction has been committed
      */
     @Override
     public Task<Void> updateMultipleEntries(List<WaitlistEntry> entries) {
-        WriteBatch batch = db.batch();
+        List<Task<Void>> writes = new ArrayList<>();
 
         for (WaitlistEntry entry : entries) {
             String eventId = entry.getEventId();
             String uid = entry.getProfile().getUid();
 
-            DocumentReference eventWaitlistEntryRef = db.collection(EVENTS).document(eventId).collection(WAITLIST).document(uid);
+            DocumentReference eventRef = db.collection(EVENTS).document(eventId);
+            DocumentReference eventWaitlistEntryRef = eventRef.collection(WAITLIST).document(uid);
             DocumentReference entrantWaitlistRef = db.collection(ENTRANT_WAITLISTS).document(uid).collection(EVENTS).document(eventId);
 
-            batch.set(eventWaitlistEntryRef, entry, SetOptions.merge());
-            batch.set(entrantWaitlistRef, entry, SetOptions.merge());
+            writes.add(db.runTransaction((Transaction.Function<Void>) transaction -> {
+                String previous = previousStatus(transaction.get(eventWaitlistEntryRef));
+
+                transaction.set(eventWaitlistEntryRef, entry, SetOptions.merge());
+                transaction.set(entrantWaitlistRef, entry, SetOptions.merge());
+                WaitlistCounters.applyTransition(transaction, eventRef, previous, entry.getStatus());
+                return null;
+            }));
         }
-        return batch.commit();
+
+        return afterWrite(Tasks.whenAll(writes));
     }
 }
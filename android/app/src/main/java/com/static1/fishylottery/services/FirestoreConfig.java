@@ -0,0 +1,218 @@
+package com.static1.fishylottery.services;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SnapshotMetadata;
+import com.google.firebase.firestore.Source;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the app's configured Firestore instance. The on-device cache size is set once at startup,
+ * and repositories get their instance from here instead of calling
+ * {@link FirebaseFirestore#getInstance()} themselves.
+ * <p>
+ * Reads that go through {@link #read(String, DocumentReference)} or
+ * {@link #read(String, Query)} are named, so each can be switched to a cache-first policy and
+ * reports how often it was answered from the device cache.
+ */
+public class FirestoreConfig {
+    /** The default size of the on-device Firestore cache. */
+    public static final long DEFAULT_CACHE_BYTES = 100L * 1024 * 1024;
+
+    // Names of the reads that can be tuned
+    public static final String EVENT_BY_ID = "events.byId";
+    public static final String EVENTS_BY_IDS = "events.byIds";
+    public static final String EVENT_ORGANIZERS = "events.organizers";
+    public static final String PROFILE_BY_ID = "profiles.byId";
+    public static final String PROFILES_BY_IDS = "profiles.byIds";
+    public static final String WAITLIST = "waitlist.byEvent";
+    public static final String WAITLIST_ENTRY = "waitlist.entry";
+    public static final String WAITLIST_COUNTS = "waitlist.counts";
+    public static final String ENTRANT_WAITLISTS = "waitlist.byEntrant";
+
+    /**
+     * How a named read picks between the device cache and the server.
+     */
+    public enum ReadPolicy {
+        /** Firestore's default: the server when online, the cache when offline. */
+        SERVER_FIRST,
+        /**
+         * The device cache, falling back to the server if the document or query results are not
+         * cached. Only suited to data that may be shown slightly stale.
+         */
+        CACHE_FIRST
+    }
+
+    private static FirestoreConfig instance;
+
+    private final FirebaseFirestore db;
+    private final Map<String, ReadPolicy> policies = new ConcurrentHashMap<>();
+    private final Map<String, long[]> counts = new TreeMap<>();
+
+    public FirestoreConfig(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Applies the cache settings to the default Firestore instance and makes it the shared
+     * configuration. Must run before anything else uses Firestore, so it is called from
+     * {@code MainApplication}.
+     *
+     * @param cacheSizeBytes The size of the on-device cache.
+     * @return The shared configuration.
+     */
+    public static synchronized FirestoreConfig initialize(long cacheSizeBytes) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                        .setSizeBytes(cacheSizeBytes)
+                        .build())
+                .build());
+        instance = new FirestoreConfig(db);
+        return instance;
+    }
+
+    /**
+     * Returns the shared configuration, using Firestore's default settings if
+     * {@link #initialize(long)} has not run.
+     *
+     * @return The shared configuration.
+     */
+    public static synchronized FirestoreConfig getInstance() {
+        if (instance == null) {
+            instance = new FirestoreConfig(FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    public static synchronized void setInstanceForTesting(FirestoreConfig config) {
+        instance = config;
+    }
+
+    /**
+     * @return The configured Firestore instance.
+     */
+    public FirebaseFirestore getFirestore() {
+        return db;
+    }
+
+    /**
+     * Sets the policy of a named read.
+     *
+     * @param read One of the read names, such as {@link #PROFILE_BY_ID}.
+     * @param policy The policy to use from now on.
+     */
+    public void setReadPolicy(@NonNull String read, @NonNull ReadPolicy policy) {
+        policies.put(read, policy);
+    }
+
+    /**
+     * @param read One of the read names.
+     * @return The policy of the read, {@link ReadPolicy#SERVER_FIRST} unless changed.
+     */
+    @NonNull
+    public ReadPolicy getReadPolicy(@NonNull String read) {
+        ReadPolicy policy = policies.get(read);
+        return policy != null ? policy : ReadPolicy.SERVER_FIRST;
+    }
+
+    /**
+     * Reads a document with the policy of the named read.
+     *
+     * @param read One of the read names.
+     * @param ref The document to read.
+     * @return A task with the snapshot.
+     */
+    public Task<DocumentSnapshot> read(@NonNull String read, @NonNull DocumentReference ref) {
+        if (getReadPolicy(read) == ReadPolicy.CACHE_FIRST) {
+            return ref.get(Source.CACHE).continueWithTask(cached -> {
+                if (cached.isSuccessful() && cached.getResult().exists()) {
+                    return record(read, cached.getResult().getMetadata(), cached);
+                }
+                return ref.get().continueWithTask(task -> recordDocument(read, task));
+            });
+        }
+        return ref.get().continueWithTask(task -> recordDocument(read, task));
+    }
+
+    /**
+     * Runs a query with the policy of the named read. A cache-first query whose cached results
+     * are empty goes to the server, since the cache cannot tell "none" from "never fetched".
+     *
+     * @param read One of the read names.
+     * @param query The query to run.
+     * @return A task with the results.
+     */
+    public Task<QuerySnapshot> read(@NonNull String read, @NonNull Query query) {
+        if (getReadPolicy(read) == ReadPolicy.CACHE_FIRST) {
+            return query.get(Source.CACHE).continueWithTask(cached -> {
+                if (cached.isSuccessful() && !cached.getResult().isEmpty()) {
+                    return record(read, cached.getResult().getMetadata(), cached);
+                }
+                return query.get().continueWithTask(task -> recordQuery(read, task));
+            });
+        }
+        return query.get().continueWithTask(task -> recordQuery(read, task));
+    }
+
+    private Task<DocumentSnapshot> recordDocument(String read, Task<DocumentSnapshot> task) {
+        return task.isSuccessful() ? record(read, task.getResult().getMetadata(), task) : task;
+    }
+
+    private Task<QuerySnapshot> recordQuery(String read, Task<QuerySnapshot> task) {
+        return task.isSuccessful() ? record(read, task.getResult().getMetadata(), task) : task;
+    }
+
+    private <T> Task<T> record(String read, SnapshotMetadata metadata, Task<T> task) {
+        synchronized (counts) {
+            long[] readCounts = counts.computeIfAbsent(read, k -> new long[2]);
+            readCounts[metadata.isFromCache() ? 0 : 1]++;
+        }
+        return task;
+    }
+
+    /**
+     * Returns the share of a named read's results that came from the device cache.
+     *
+     * @param read One of the read names.
+     * @return The ratio from 0 to 1, or 0 before the first read.
+     */
+    public double getCacheHitRatio(@NonNull String read) {
+        synchronized (counts) {
+            long[] readCounts = counts.get(read);
+            if (readCounts == null) return 0;
+            long total = readCounts[0] + readCounts[1];
+            return total == 0 ? 0 : (double) readCounts[0] / total;
+        }
+    }
+
+    /**
+     * Describes the cache hits and server reads of every named read so far.
+     *
+     * @return One line per read, e.g. {@code "profiles.byId: 12 cache, 3 server"}.
+     */
+    @NonNull
+    public String describeReads() {
+        StringBuilder out = new StringBuilder();
+        synchronized (counts) {
+            for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+                if (out.length() > 0) out.append('\n');
+                out.append(entry.getKey()).append(": ")
+                        .append(entry.getValue()[0]).append(" cache, ")
+                        .append(entry.getValue()[1]).append(" server");
+            }
+        }
+        return out.toString();
+    }
+}
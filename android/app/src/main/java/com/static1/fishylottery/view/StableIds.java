@@ -0,0 +1,33 @@
+package com.static1.fishylottery.view;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Turns the string keys of list items (event IDs, UIDs, notification IDs) into the long IDs
+ * RecyclerView needs for stable IDs.
+ */
+public final class StableIds {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StableIds() {}
+
+    /**
+     * Returns a 64-bit FNV-1a hash of the key. Collisions are far less likely than with
+     * {@link String#hashCode()}, even for lists of many thousands of rows.
+     *
+     * @param key The item's key, or null if it has none.
+     * @return The item ID, or {@link RecyclerView#NO_ID} for a null key.
+     */
+    public static long of(String key) {
+        if (key == null) {
+            return RecyclerView.NO_ID;
+        }
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash == RecyclerView.NO_ID ? 0 : hash;
+    }
+}
@@ -1,6 +1,7 @@
 package com.static1.fishylottery.view.admin;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,6 +13,7 @@ import androidx.fragment.app.FragmentTransaction;
 
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.logic.AdminSession;
+import com.static1.fishylottery.model.logic.CascadeDeleter;
 
 /**
  * Fragment acting as a dynamic container for all admin-related screens.
@@ -64,11 +66,16 @@ public class AdminContainerFragment extends Fragment {
 
     /**
      * Displays the admin dashboard fragment inside the container.
-     * This is shown when an admin user is already authenticated.
+     * This is shown when an admin user is already authenticated. Deletes that an earlier
+     * session left unfinished are resumed in the background.
      */
     public void showDashboard() {
         FragmentTransaction ft = getChildFragmentManager().beginTransaction();
         ft.replace(R.id.admin_container, new AdminDashboardFragment());
         ft.commit();
+
+        // Finish any delete that was interrupted, e.g. by the app being killed
+        new CascadeDeleter().resumeUnfinished()
+                .addOnFailureListener(e -> Log.e("CascadeDelete", "Could not resume deletes", e));
     }
 }
@@ -7,6 +7,7 @@ import android.view.ViewGroup;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 
+import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -25,6 +26,9 @@ import com.static1.fishylottery.viewmodel.AdminNotificationLogsViewModel;
  * is displayed instead.
  */
 public class AdminNotificationLogsFragment extends Fragment {
+    /** Items from the end of the list at which the next page is requested. */
+    private static final int LOAD_MORE_THRESHOLD = 10;
+
     private AdminNotificationLogsViewModel viewModel;
     private RecyclerView recyclerView;
     private NotificationLogAdapter adapter;
@@ -45,8 +49,8 @@ public class AdminNotificationLogsFragment extends Fragment {
      *     </ul>
      *   </li>
      *   <li>Observes loading state to show or hide the progress bar.</li>
-     *   <li>Triggers an initial load of all notifications via
-     *       {@code viewModel.loadAllNotifications()}.</li>
+     *   <li>Loads the newest page via {@code viewModel.loadFirstPage()} and further pages
+     *       via {@code viewModel.loadMore()} as the list is scrolled.</li>
      * </ul>
      *
      * @param inflater  the {@link LayoutInflater} used to inflate the fragment layout
@@ -65,10 +69,22 @@ public class AdminNotificationLogsFragment extends Fragment {
         progressBar = view.findViewById(R.id.progress_bar);
         textEmpty = view.findViewById(R.id.text_empty);
 
-        recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        recyclerView.setLayoutManager(layoutManager);
         adapter = new NotificationLogAdapter();
         recyclerView.setAdapter(adapter);
 
+        // Load the next page when the end of the list comes into view
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0) return;
+                if (layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadMore();
+                }
+            }
+        });
+
         BottomNavigationView navView = requireActivity().findViewById(R.id.nav_view);
         navView.post(() -> {
             recyclerView.setPadding(0, 0, 0, navView.getHeight());
@@ -83,7 +99,7 @@ public class AdminNotificationLogsFragment extends Fragment {
             progressBar.setVisibility(loading ? View.VISIBLE : View.GONE);
         });
 
-        viewModel.loadAllNotifications();
+        viewModel.loadFirstPage();
 
         return view;
     }
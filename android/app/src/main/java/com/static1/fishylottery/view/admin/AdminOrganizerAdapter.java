@@ -7,19 +7,24 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.static1.fishylottery.R;
+import com.static1.fishylottery.view.StableIds;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * A {@link RecyclerView.Adapter} that displays a list of event organizers in the admin panel.
+ * A {@link ListAdapter} that displays a list of event organizers in the admin panel.
  * Each item shows the organizer's name, email, number of events, and a remove button.
+ * Organizers are diffed by ID, so only changed rows are rebound.
  */
 
-public class AdminOrganizerAdapter extends RecyclerView.Adapter<AdminOrganizerAdapter.ViewHolder> {
+public class AdminOrganizerAdapter extends ListAdapter<AdminOrganizerAdapter.OrganizerInfo, AdminOrganizerAdapter.ViewHolder> {
 
     /**
      * Represents information about an event organizer from the admin perspective.
@@ -63,7 +68,22 @@ public class AdminOrganizerAdapter extends RecyclerView.Adapter<AdminOrganizerAd
         void onRemoveClick(OrganizerInfo organizer);
     }
 
-    private List<OrganizerInfo> organizers = new ArrayList<>();
+    private static final DiffUtil.ItemCallback<OrganizerInfo> DIFF = new DiffUtil.ItemCallback<OrganizerInfo>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull OrganizerInfo oldItem, @NonNull OrganizerInfo newItem) {
+            return oldItem.organizerId != null
+                    ? oldItem.organizerId.equals(newItem.organizerId)
+                    : oldItem == newItem;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull OrganizerInfo oldItem, @NonNull OrganizerInfo newItem) {
+            return Objects.equals(oldItem.organizerName, newItem.organizerName)
+                    && Objects.equals(oldItem.organizerEmail, newItem.organizerEmail)
+                    && oldItem.eventCount == newItem.eventCount;
+        }
+    };
+
     private final OnRemoveClickListener removeListener;
 
     /**
@@ -72,20 +92,25 @@ public class AdminOrganizerAdapter extends RecyclerView.Adapter<AdminOrganizerAd
      * @param removeListener listener to be notified when remove is clicked
      */
     public AdminOrganizerAdapter(OnRemoveClickListener removeListener) {
+        super(DIFF);
+        setHasStableIds(true);
         this.removeListener = removeListener;
     }
 
     /**
-     * Replaces the current list of organizers with a new list and notifies the adapter.
+     * Replaces the current list of organizers with a copy of a new list. The difference is
+     * computed in the background and only changed rows are updated.
      *
      * @param newOrganizers the new list of organizers; may be null to clear
      */
+    @Override
     public void submitList(List<OrganizerInfo> newOrganizers) {
-        organizers.clear();
-        if (newOrganizers != null) {
-            organizers.addAll(newOrganizers);
-        }
-        notifyDataSetChanged();
+        super.submitList(newOrganizers != null ? new ArrayList<>(newOrganizers) : null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).organizerId);
     }
 
     @NonNull
@@ -98,15 +123,10 @@ public class AdminOrganizerAdapter extends RecyclerView.Adapter<AdminOrganizerAd
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        OrganizerInfo organizer = organizers.get(position);
+        OrganizerInfo organizer = getItem(position);
         holder.bind(organizer, removeListener);
     }
 
-    @Override
-    public int getItemCount() {
-        return organizers.size();
-    }
-
     /**
      * ViewHolder for displaying a single organizer item with a remove button.
      */
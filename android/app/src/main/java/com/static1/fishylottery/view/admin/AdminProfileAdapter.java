@@ -7,19 +7,24 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.view.StableIds;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * A {@link RecyclerView.Adapter} that displays a list of user profiles in the admin panel.
+ * A {@link ListAdapter} that displays a list of user profiles in the admin panel.
  * Each item shows the user's name, email, phone, initials, and a delete button.
+ * Profiles are diffed by UID, so only changed rows are rebound.
  */
-public class AdminProfileAdapter extends RecyclerView.Adapter<AdminProfileAdapter.ViewHolder> {
+public class AdminProfileAdapter extends ListAdapter<Profile, AdminProfileAdapter.ViewHolder> {
     /**
      * Listener interface for handling delete button clicks on profile items.
      */
@@ -32,7 +37,23 @@ public class AdminProfileAdapter extends RecyclerView.Adapter<AdminProfileAdapte
         void onDeleteClick(Profile profile);
     }
 
-    private List<Profile> profiles = new ArrayList<>();
+    private static final DiffUtil.ItemCallback<Profile> DIFF = new DiffUtil.ItemCallback<Profile>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Profile oldItem, @NonNull Profile newItem) {
+            return oldItem.getUid() != null
+                    ? oldItem.getUid().equals(newItem.getUid())
+                    : oldItem == newItem;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Profile oldItem, @NonNull Profile newItem) {
+            return Objects.equals(oldItem.getFullName(), newItem.getFullName())
+                    && Objects.equals(oldItem.getEmail(), newItem.getEmail())
+                    && Objects.equals(oldItem.getFormattedPhone(), newItem.getFormattedPhone())
+                    && Objects.equals(oldItem.getInitials(), newItem.getInitials());
+        }
+    };
+
     private final OnDeleteClickListener deleteListener;
 
     /**
@@ -41,20 +62,25 @@ public class AdminProfileAdapter extends RecyclerView.Adapter<AdminProfileAdapte
      * @param deleteListener listener to be notified when delete is clicked
      */
     public AdminProfileAdapter(OnDeleteClickListener deleteListener) {
+        super(DIFF);
+        setHasStableIds(true);
         this.deleteListener = deleteListener;
     }
 
     /**
-     * Replaces the current list of profiles with a new list and notifies the adapter.
+     * Replaces the current list of profiles with a copy of a new list. The difference is
+     * computed in the background and only changed rows are updated.
      *
      * @param newProfiles the new list of profiles; may be null to clear the list
      */
+    @Override
     public void submitList(List<Profile> newProfiles) {
-        profiles.clear();
-        if (newProfiles != null) {
-            profiles.addAll(newProfiles);
-        }
-        notifyDataSetChanged();
+        super.submitList(newProfiles != null ? new ArrayList<>(newProfiles) : null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getUid());
     }
 
     @NonNull
@@ -67,15 +93,10 @@ public class AdminProfileAdapter extends RecyclerView.Adapter<AdminProfileAdapte
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Profile profile = profiles.get(position);
+        Profile profile = getItem(position);
         holder.bind(profile, deleteListener);
     }
 
-    @Override
-    public int getItemCount() {
-        return profiles.size();
-    }
-
     /**
      * ViewHolder for displaying a single user profile with a delete action.
      */
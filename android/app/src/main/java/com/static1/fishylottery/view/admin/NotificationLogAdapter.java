@@ -6,25 +6,32 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.static1.fishylottery.R;
+import com.static1.fishylottery.view.StableIds;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 /**
- * A {@link RecyclerView.Adapter} that displays a list of notification logs in the admin panel.
+ * A {@link ListAdapter} that displays a list of notification logs in the admin panel.
  * Each item shows recipient information, notification title, message, type, and timestamp.
+ * Logs are diffed by ID, so loading another page only binds the new rows.
  */
-public class NotificationLogAdapter extends RecyclerView.Adapter<NotificationLogAdapter.ViewHolder> {
+public class NotificationLogAdapter extends ListAdapter<NotificationLogAdapter.NotificationLog, NotificationLogAdapter.ViewHolder> {
 
     /**
      * Represents a single notification log entry.
      */
     public static class NotificationLog {
+        /** Unique key of the notification, e.g. its document path; may be null */
+        public String id;
         /** The name of the recipient */
         public String recipientName;
         /** The email address of the recipient */
@@ -51,6 +58,23 @@ public class NotificationLogAdapter extends RecyclerView.Adapter<NotificationLog
 
         public NotificationLog(String recipientName, String recipientEmail, String title,
                                String message, String type, long timestamp) {
+            this(null, recipientName, recipientEmail, title, message, type, timestamp);
+        }
+
+        /**
+         * Creates a new notification log entry with a unique key.
+         *
+         * @param id             unique key of the notification
+         * @param recipientName  name of the recipient
+         * @param recipientEmail email of the recipient
+         * @param title          notification title
+         * @param message        notification message body
+         * @param type           type of notification
+         * @param timestamp      time the notification was sent
+         */
+        public NotificationLog(String id, String recipientName, String recipientEmail, String title,
+                               String message, String type, long timestamp) {
+            this.id = id;
             this.recipientName = recipientName;
             this.recipientEmail = recipientEmail;
             this.title = title;
@@ -60,20 +84,44 @@ public class NotificationLogAdapter extends RecyclerView.Adapter<NotificationLog
         }
     }
 
-    private List<NotificationLog> logs = new ArrayList<>();
+    private static final DiffUtil.ItemCallback<NotificationLog> DIFF = new DiffUtil.ItemCallback<NotificationLog>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull NotificationLog oldItem, @NonNull NotificationLog newItem) {
+            return oldItem.id != null ? oldItem.id.equals(newItem.id) : oldItem == newItem;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull NotificationLog oldItem, @NonNull NotificationLog newItem) {
+            return Objects.equals(oldItem.recipientName, newItem.recipientName)
+                    && Objects.equals(oldItem.recipientEmail, newItem.recipientEmail)
+                    && Objects.equals(oldItem.title, newItem.title)
+                    && Objects.equals(oldItem.message, newItem.message)
+                    && Objects.equals(oldItem.type, newItem.type)
+                    && oldItem.timestamp == newItem.timestamp;
+        }
+    };
+
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy hh:mm a", Locale.getDefault());
 
+    public NotificationLogAdapter() {
+        super(DIFF);
+        setHasStableIds(true);
+    }
+
     /**
-     * Replaces the current list of notification logs with a new list and notifies the adapter.
+     * Replaces the current list of notification logs with a copy of a new list. The difference
+     * is computed in the background and only changed rows are updated.
      *
      * @param newLogs the new list of notification logs; may be null to clear the list
      */
+    @Override
     public void submitList(List<NotificationLog> newLogs) {
-        logs.clear();
-        if (newLogs != null) {
-            logs.addAll(newLogs);
-        }
-        notifyDataSetChanged();
+        super.submitList(newLogs != null ? new ArrayList<>(newLogs) : null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).id);
     }
 
     @NonNull
@@ -86,15 +134,10 @@ public class NotificationLogAdapter extends RecyclerView.Adapter<NotificationLog
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        NotificationLog log = logs.get(position);
+        NotificationLog log = getItem(position);
         holder.bind(log);
     }
 
-    @Override
-    public int getItemCount() {
-        return logs.size();
-    }
-
     /**
      * ViewHolder for displaying a single notification log item.
      */
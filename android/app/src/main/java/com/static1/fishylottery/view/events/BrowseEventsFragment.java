@@ -22,6 +22,8 @@ import androidx.core.view.MenuProvider;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentActivity;
 import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -29,16 +31,14 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.bottomsheet.BottomSheetBehavior;
 import com.static1.fishylottery.R;
-import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.model.repositories.BrowseQuery;
 import com.static1.fishylottery.model.repositories.EventRepository;
 import com.static1.fishylottery.model.repositories.IEventRepository;
+import com.static1.fishylottery.viewmodel.BrowseEventsViewModel;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Comparator;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -47,6 +47,9 @@ import java.util.Locale;
  */
 public class BrowseEventsFragment extends Fragment {
 
+    /** Items from the end of the list at which the next page is requested. */
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     /** Repository for accessing event data. */
     private IEventRepository eventsRepo;
 
@@ -68,8 +71,8 @@ public class BrowseEventsFragment extends Fragment {
     /** Date format for parsing and displaying dates. */
     private SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy", Locale.US);
 
-    /** List of all events fetched from the repository. */
-    private List<Event> allEvents = new ArrayList<>(); // Store all events
+    /** View model holding the loaded events so they survive rotation. */
+    private BrowseEventsViewModel viewModel;
 
     /**
      * Default constructor that initializes the event repository.
@@ -116,6 +119,34 @@ public class BrowseEventsFragment extends Fragment {
         });
         recyclerView.setAdapter(adapter);
 
+        viewModel = new ViewModelProvider(this, new ViewModelProvider.Factory() {
+            @NonNull
+            @Override
+            public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
+                return modelClass.cast(new BrowseEventsViewModel(eventsRepo));
+            }
+        }).get(BrowseEventsViewModel.class);
+
+        viewModel.getEvents().observe(getViewLifecycleOwner(), events -> {
+            adapter.submitList(events);
+            // A short first page may not fill the screen, so there is nothing to scroll
+            recyclerView.post(this::loadMoreIfNearEnd);
+        });
+        viewModel.getError().observe(getViewLifecycleOwner(), message -> {
+            if (message != null) {
+                Toast.makeText(requireContext(), message, Toast.LENGTH_LONG).show();
+                viewModel.onErrorShown();
+            }
+        });
+
+        // Load the next page as the end of the list comes into view
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0) loadMoreIfNearEnd();
+            }
+        });
+
         // Setup interests spinner
         setupInterestsSpinner();
 
@@ -134,11 +165,18 @@ public class BrowseEventsFragment extends Fragment {
 
         buttonApplyFilters.setOnClickListener(v -> {
             // When applying the filters, close the bottom navigation view
-            filterEvents();
+            BrowseQuery query = buildQuery();
+            if (query != null) {
+                viewModel.setFilters(query);
+            }
             sheetBehavior.setState(BottomSheetBehavior.STATE_HIDDEN);
         });
 
-        getEvents(); // load
+        // Load the first page, unless the view model kept the events across a rotation
+        BrowseQuery initial = buildQuery();
+        if (initial != null) {
+            viewModel.loadIfNeeded(initial);
+        }
 
         FragmentActivity activity = getActivity();
 
@@ -236,182 +274,68 @@ public class BrowseEventsFragment extends Fragment {
     }
 
     /**
-     * Filters the event list based on selected interest and date range, then updates the UI.
-     */
-    private void filterEvents() {
-        List<Event> filteredEvents = new ArrayList<>(allEvents);
-        applyFilters(filteredEvents);
-        sortEventsByStartDate(filteredEvents);
-        adapter.submitList(filteredEvents);
-    }
-
-    /**
-     * Fetches all events from the repository and applies initial filters.
+     * Fetches the next page if the last loaded events are on screen.
      */
-    private void getEvents() {
-        eventsRepo.fetchAllEvents().addOnSuccessListener(events -> {
-            // Store all events
-            allEvents = new ArrayList<>(events);
-
-            // Filter events (based on registration period)
-            removeClosedEvents(allEvents);
-
-            // Apply initial filters and display
-            filterEvents();
-        }).addOnFailureListener(e -> {
-            Log.e("BrowseEvents", "Failed to fetch events", e);
-            Toast.makeText(requireContext(), "Could not get events", Toast.LENGTH_LONG).show();
-        });
+    private void loadMoreIfNearEnd() {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager != null
+                && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+            viewModel.loadMore();
+        }
     }
 
     /**
-     * Applies interest and date range filters to the event list.
+     * Builds the browse query from the selected interest and date range. A start date includes
+     * its whole day from midnight, and an end date includes its whole day up to the last
+     * millisecond.
      *
-     * @param events the list of events to filter
+     * @return The query, or null if the selected dates are invalid.
      */
-    private void applyFilters(List<Event> events) {
-        // Filter by interest
+    private BrowseQuery buildQuery() {
+        String interest = null;
         if (spinnerInterests != null && spinnerInterests.getSelectedItemPosition() > 0) {
-            String selectedInterest = spinnerInterests.getSelectedItem().toString().trim();
-
-            events.removeIf(event -> {
-                // Check if event has interests list
-                List<String> eventInterests = event.getInterests();
-
-                if (eventInterests == null || eventInterests.isEmpty()) {
-                    return true; // Remove events without interests
-                }
-
-                // Check if any of the event's interests match the selected interest (case-insensitive)
-                for (String interest : eventInterests) {
-                    if (interest != null && interest.trim().equalsIgnoreCase(selectedInterest)) {
-                        return false; // Keep this event - it has a matching interest
-                    }
-                }
-
-                return true; // No matching interest found, remove this event
-            });
+            interest = spinnerInterests.getSelectedItem().toString().trim();
         }
 
-        // Filter by date range
-        String startDateStr = etStartDate.getText().toString().trim();
-        String endDateStr = etEndDate.getText().toString().trim();
-
-        // Only apply date filter if both dates are set
-        if (!startDateStr.isEmpty() && !endDateStr.isEmpty()) {
-            try {
-                Date startDate = dateFormat.parse(startDateStr);
-                Date endDate = dateFormat.parse(endDateStr);
-
-                if (startDate != null && endDate != null) {
-                    // Validate that start date is not after end date
-                    if (startDate.after(endDate)) {
-                        Toast.makeText(requireContext(), "Start date must be before end date", Toast.LENGTH_SHORT).show();
-                        return;
-                    }
-
-                    // Set time to start of day for startDate
-                    Calendar startCal = Calendar.getInstance();
-                    startCal.setTime(startDate);
-                    startCal.set(Calendar.HOUR_OF_DAY, 0);
-                    startCal.set(Calendar.MINUTE, 0);
-                    startCal.set(Calendar.SECOND, 0);
-                    startCal.set(Calendar.MILLISECOND, 0);
-                    startDate = startCal.getTime();
-
-                    // Set time to end of day for endDate
-                    Calendar endCal = Calendar.getInstance();
-                    endCal.setTime(endDate);
-                    endCal.set(Calendar.HOUR_OF_DAY, 23);
-                    endCal.set(Calendar.MINUTE, 59);
-                    endCal.set(Calendar.SECOND, 59);
-                    endCal.set(Calendar.MILLISECOND, 999);
-                    endDate = endCal.getTime();
-
-                    final Date finalStartDate = startDate;
-                    final Date finalEndDate = endDate;
-
-                    events.removeIf(event -> {
-                        Date eventDate = event.getEventStartDate();
-                        if (eventDate == null) {
-                            return true; // Remove events without a date
-                        }
-                        // Event must start on or after startDate and on or before endDate
-                        return eventDate.before(finalStartDate) || eventDate.after(finalEndDate);
-                    });
-                }
-            } catch (Exception e) {
-                Log.e("BrowseEvents", "Error parsing dates for filtering", e);
-                Toast.makeText(requireContext(), "Invalid date format", Toast.LENGTH_SHORT).show();
-            }
-        } else if (!startDateStr.isEmpty()) {
-            // Only start date is set - show events on or after this date
-            try {
-                Date startDate = dateFormat.parse(startDateStr);
-                if (startDate != null) {
-                    Calendar startCal = Calendar.getInstance();
-                    startCal.setTime(startDate);
-                    startCal.set(Calendar.HOUR_OF_DAY, 0);
-                    startCal.set(Calendar.MINUTE, 0);
-                    startCal.set(Calendar.SECOND, 0);
-                    startCal.set(Calendar.MILLISECOND, 0);
-                    final Date finalStartDate = startCal.getTime();
-
-                    events.removeIf(event -> {
-                        Date eventDate = event.getEventStartDate();
-                        return eventDate == null || eventDate.before(finalStartDate);
-                    });
-                }
-            } catch (Exception e) {
-                Log.e("BrowseEvents", "Error parsing start date", e);
+        Date startDate = null;
+        Date endDate = null;
+        try {
+            String startDateStr = etStartDate.getText().toString().trim();
+            if (!startDateStr.isEmpty()) {
+                startDate = atTimeOfDay(dateFormat.parse(startDateStr), 0, 0, 0, 0);
             }
-        } else if (!endDateStr.isEmpty()) {
-            // Only end date is set - show events on or before this date
-            try {
-                Date endDate = dateFormat.parse(endDateStr);
-                if (endDate != null) {
-                    Calendar endCal = Calendar.getInstance();
-                    endCal.setTime(endDate);
-                    endCal.set(Calendar.HOUR_OF_DAY, 23);
-                    endCal.set(Calendar.MINUTE, 59);
-                    endCal.set(Calendar.SECOND, 59);
-                    endCal.set(Calendar.MILLISECOND, 999);
-                    final Date finalEndDate = endCal.getTime();
-
-                    events.removeIf(event -> {
-                        Date eventDate = event.getEventStartDate();
-                        return eventDate == null || eventDate.after(finalEndDate);
-                    });
-                }
-            } catch (Exception e) {
-                Log.e("BrowseEvents", "Error parsing end date", e);
+            String endDateStr = etEndDate.getText().toString().trim();
+            if (!endDateStr.isEmpty()) {
+                endDate = atTimeOfDay(dateFormat.parse(endDateStr), 23, 59, 59, 999);
             }
+        } catch (Exception e) {
+            Log.e("BrowseEvents", "Error parsing dates for filtering", e);
+            Toast.makeText(requireContext(), "Invalid date format", Toast.LENGTH_SHORT).show();
+            return null;
         }
-    }
-
-    /**
-     * Removes events whose registration period is closed.
-     *
-     * @param events the list of events to filter
-     */
-    private void removeClosedEvents(List<Event> events) {
-        Date now = new Date();
 
-        // Remove events after the registration deadline
-        events.removeIf(event ->
-                event.getRegistrationCloses() != null && event.getRegistrationCloses().before(now));
+        // Validate that start date is not after end date
+        if (startDate != null && endDate != null && startDate.after(endDate)) {
+            Toast.makeText(requireContext(), "Start date must be before end date", Toast.LENGTH_SHORT).show();
+            return null;
+        }
 
-        // Remove events that are not open to registration
-        events.removeIf(event ->
-                event.getRegistrationOpens() != null && event.getRegistrationOpens().after(now));
+        return new BrowseQuery(interest, startDate, endDate, new Date(), BrowseQuery.DEFAULT_PAGE_SIZE);
     }
 
     /**
-     * Sorts the list of events by their start date in ascending order.
-     *
-     * @param events the list of events to sort
+     * Returns the given day at the given time of day, or null if the day is null.
      */
-    private void sortEventsByStartDate(List<Event> events) {
-        events.sort(Comparator.comparing(Event::getEventStartDate));
+    private static Date atTimeOfDay(Date day, int hour, int minute, int second, int millis) {
+        if (day == null) {
+            return null;
+        }
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(day);
+        cal.set(Calendar.HOUR_OF_DAY, hour);
+        cal.set(Calendar.MINUTE, minute);
+        cal.set(Calendar.SECOND, second);
+        cal.set(Calendar.MILLISECOND, millis);
+        return cal.getTime();
     }
-}
\ No newline at end of file
+}
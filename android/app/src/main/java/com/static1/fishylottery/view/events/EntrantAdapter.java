@@ -7,27 +7,42 @@ import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.view.StableIds;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter for displaying a list of event entrants in a RecyclerView.
  * Supports different list types (waiting, invited, enrolled) with conditional action buttons.
+ * Entrants are diffed by UID, so only changed rows are rebound.
  */
-public class EntrantAdapter extends RecyclerView.Adapter<EntrantAdapter.EntrantViewHolder> {
+public class EntrantAdapter extends ListAdapter<Profile, EntrantAdapter.EntrantViewHolder> {
+
+    /** Entrants are the same item when their UIDs match, and unchanged when their names are. */
+    private static final DiffUtil.ItemCallback<Profile> DIFF = new DiffUtil.ItemCallback<Profile>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Profile oldItem, @NonNull Profile newItem) {
+            return oldItem.getUid() != null
+                    ? oldItem.getUid().equals(newItem.getUid())
+                    : oldItem == newItem;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Profile oldItem, @NonNull Profile newItem) {
+            return Objects.equals(oldItem.getFullName(), newItem.getFullName());
+        }
+    };
 
-    /** List of entrant profiles to display. */
-    private List<Profile> entrants;
     /** Type of the entrant list (waiting, invited, or enrolled). */
     private ListType listType;
 
-    public void getItemId(List<String> profiles) {
-    }
-
     /**
      * Enum defining the types of entrant lists.
      */
@@ -39,23 +54,30 @@ public class EntrantAdapter extends RecyclerView.Adapter<EntrantAdapter.EntrantV
 
     /**
      * Constructor for the EntrantAdapter.
-     * Note: This constructor appears incomplete as it does not initialize fields properly.
+     * Note: the parameter names are swapped; the list type is not set by this constructor.
      *
-     * @param entrants the context (incorrectly typed, should be Context)
-     * @param listType the list of profiles (incorrectly typed, should be ListType)
+     * @param entrants the context
+     * @param listType the initial list of entrant profiles
      */
     public EntrantAdapter(Context entrants, ArrayList<Profile> listType) {
-
+        super(DIFF);
+        setHasStableIds(true);
+        updateData(listType);
     }
 
     /**
-     * Updates the adapter with a new list of entrants.
+     * Updates the adapter with a copy of a new list of entrants. The difference is computed in
+     * the background and only changed rows are updated.
      *
      * @param newEntrants the new list of entrant profiles
      */
     public void updateData(List<Profile> newEntrants) {
-        this.entrants = newEntrants;
-        notifyDataSetChanged();
+        submitList(newEntrants != null ? new ArrayList<>(newEntrants) : null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getUid());
     }
 
     /**
@@ -81,18 +103,9 @@ public class EntrantAdapter extends RecyclerView.Adapter<EntrantAdapter.EntrantV
      */
     @Override
     public void onBindViewHolder(@NonNull EntrantViewHolder holder, int position) {
-        Profile entrant = entrants.get(position);
+        Profile entrant = getItem(position);
         holder.bind(entrant, listType);
     }
-    /**
-     * Returns the total number of entrants in the adapter.
-     *
-     * @return the number of entrants
-     */
-    @Override
-    public int getItemCount() {
-        return entrants.size();
-    }
 
     /**
      * ViewHolder for displaying an entrant item in the RecyclerView.
@@ -9,26 +9,47 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.view.StableIds;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
 /**
  * Adapter for displaying a list of events in a RecyclerView.
  * Supports event click and delete actions, with optional delete button visibility.
+ * Lists are diffed on a background thread by event ID, so only changed rows are rebound.
  */
-public class EventAdapter extends RecyclerView.Adapter<EventAdapter.ViewHolder> {
+public class EventAdapter extends ListAdapter<Event, EventAdapter.ViewHolder> {
+
+    /** Events are the same item when their IDs match, and unchanged when every shown field is. */
+    private static final DiffUtil.ItemCallback<Event> DIFF = new DiffUtil.ItemCallback<Event>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return oldItem.getEventId() != null
+                    ? oldItem.getEventId().equals(newItem.getEventId())
+                    : oldItem == newItem;
+        }
 
-    /** List of events to display. */
-    private final List<Event> items = new ArrayList<>();
+        @Override
+        public boolean areContentsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getEventStartDate(), newItem.getEventStartDate())
+                    && Objects.equals(oldItem.getEventEndDate(), newItem.getEventEndDate())
+                    && Objects.equals(oldItem.getLocation(), newItem.getLocation())
+                    && Objects.equals(oldItem.getImageUrl(), newItem.getImageUrl());
+        }
+    };
 
     /** LayoutInflater for creating view holders. */
     private final LayoutInflater inflater;
@@ -67,6 +88,8 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.ViewHolder>
      * @param showDeleteButton whether to show the delete button for each event
      */
     public EventAdapter(Context context, boolean showDeleteButton) {
+        super(DIFF);
+        setHasStableIds(true);
         this.context = context;
         this.inflater = LayoutInflater.from(context);
         this.showDeleteButton = showDeleteButton;
@@ -115,14 +138,14 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.ViewHolder>
     }
 
     /**
-     * Updates the adapter with a new list of events.
+     * Updates the adapter with a new list of events. The list is copied, so callers may keep
+     * changing their own list and submit it again.
      *
      * @param newItems the new list of events to display
      */
+    @Override
     public void submitList(List<Event> newItems) {
-        items.clear();
-        if (newItems != null) items.addAll(newItems);
-        notifyDataSetChanged();
+        super.submitList(newItems != null ? new ArrayList<>(newItems) : null);
     }
 
     /**
@@ -131,8 +154,14 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.ViewHolder>
      * @param position the position of the event
      * @return the event at the specified position
      */
+    @Override
     public Event getItem(int position) {
-        return items.get(position);
+        return super.getItem(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getEventId());
     }
 
     /**
@@ -157,20 +186,10 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.ViewHolder>
      */
     @Override
     public void onBindViewHolder(@NonNull EventAdapter.ViewHolder holder, int position) {
-        Event ev = items.get(position);
+        Event ev = getItem(position);
         holder.bind(ev);
     }
 
-    /**
-     * Returns the total number of events in the adapter.
-     *
-     * @return the number of events
-     */
-    @Override
-    public int getItemCount() {
-        return items.size();
-    }
-
     /**
      * ViewHolder for displaying an event item in the RecyclerView.
      */
@@ -210,14 +229,14 @@ public class EventAdapter extends RecyclerView.Adapter<EventAdapter.ViewHolder>
             itemView.setOnClickListener(v -> {
                 int pos = getAdapterPosition();
                 if (pos != RecyclerView.NO_POSITION && onEventClickListener != null) {
-                    onEventClickListener.onEventClick(items.get(pos));
+                    onEventClickListener.onEventClick(getItem(pos));
                 }
             });
 
             buttonDelete.setOnClickListener(v -> {
                 int pos = getAdapterPosition();
                 if (pos != RecyclerView.NO_POSITION && onDeleteClickListener != null) {
-                    onDeleteClickListener.onDeleteClick(items.get(pos));
+                    onDeleteClickListener.onDeleteClick(getItem(pos));
                 }
             });
         }
@@ -15,10 +15,9 @@ import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.static1.fishylottery.R;
+import com.static1.fishylottery.model.entities.EventSummary;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
 import com.static1.fishylottery.model.repositories.EventRepository;
 import com.static1.fishylottery.model.repositories.IEventRepository;
@@ -96,11 +95,7 @@ public class MyEventsFragment extends Fragment {
         myEventsRecycler.setLayoutManager(new LinearLayoutManager(getContext()));
 
         adapter = new EventAdapter(requireContext());
-        adapter.setOnEventClickListener(event -> {
-            Bundle bundle = new Bundle();
-            bundle.putSerializable("event", event);
-            Navigation.findNavController(view).navigate(R.id.action_events_to_eventDetails, bundle);
-        });
+        adapter.setOnEventClickListener(event -> openEvent(view, event));
         myEventsRecycler.setAdapter(adapter);
 
         FragmentActivity activity = getActivity();
@@ -130,15 +125,28 @@ public class MyEventsFragment extends Fragment {
             return;
         }
 
-        Task<List<WaitlistEntry>> myWaitlistsTask = waitlistRepo.getEventWaitlistEntriesByUser(uid);
-        Task<List<Event>> allEventsTask = eventsRepo.fetchAllEvents();
-
-        Tasks.whenAllSuccess(myWaitlistsTask, allEventsTask)
-                .addOnSuccessListener(results -> {
-                    List<WaitlistEntry> myWaitlists = (List<WaitlistEntry>) results.get(0);
-                    List<Event> allEvents = (List<Event>) results.get(1);
-
-                    List<Event> myEvents = computeMyEvents(allEvents, myWaitlists);
+        List<Event> myEvents = new ArrayList<>();
+
+        // The list is drawn from the summaries on the user's own entries; only entries written
+        // before summaries existed need their event read
+        waitlistRepo.getEventWaitlistEntriesByUser(uid)
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    Set<String> unsummarized = new HashSet<>();
+                    for (WaitlistEntry entry : task.getResult()) {
+                        EventSummary summary = entry.getEventSummary();
+                        if (summary != null) {
+                            myEvents.add(summary.toEvent(entry.getEventId()));
+                        } else {
+                            unsummarized.add(entry.getEventId());
+                        }
+                    }
+                    return eventsRepo.fetchEventsByIds(unsummarized);
+                })
+                .addOnSuccessListener(events -> {
+                    myEvents.addAll(events);
 
                     // Filter my events (remove old events)
                     removePastEvents(myEvents);
@@ -159,28 +167,27 @@ public class MyEventsFragment extends Fragment {
     }
 
     /**
-     * Computes the list of events the user is registered for by matching waitlist entries.
+     * Reads the full event and opens its details. Events in the list may only hold their
+     * summary, which is not enough for the details screen.
      *
-     * @param allEvents   the list of all events
-     * @param myWaitlists the user's waitlist entries
-     * @return the list of events the user is registered for
+     * @param view  the fragment's root view
+     * @param event the selected event
      */
-    private List<Event> computeMyEvents(List<Event> allEvents, List<WaitlistEntry> myWaitlists) {
-        // Build a fast lookup set of eventIds that the user is on the waitlist for
-        Set<String> waitlistedEventIds = new HashSet<>();
-        for (WaitlistEntry entry : myWaitlists) {
-            waitlistedEventIds.add(entry.getEventId());
-        }
-
-        // Filter events whose id matches one in the waitlist
-        List<Event> result = new ArrayList<>();
-        for (Event event : allEvents) {
-            if (waitlistedEventIds.contains(event.getEventId())) {
-                result.add(event);
-            }
-        }
-
-        return result;
+    private void openEvent(View view, Event event) {
+        eventsRepo.getEventById(event.getEventId())
+                .addOnSuccessListener(fullEvent -> {
+                    if (fullEvent == null) {
+                        Toast.makeText(requireContext(), "Event no longer exists", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    Bundle bundle = new Bundle();
+                    bundle.putSerializable("event", fullEvent);
+                    Navigation.findNavController(view).navigate(R.id.action_events_to_eventDetails, bundle);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Could not get event", e);
+                    Toast.makeText(requireContext(), "Could not get event", Toast.LENGTH_SHORT).show();
+                });
     }
 
     /**
@@ -99,7 +99,7 @@ public class CancelledEntrantsFragment extends Fragment {
                                 .filter(entry -> "cancelled".equals(entry.getStatus()) || "declined".equals(entry.getStatus()))
                                 .collect(Collectors.toList())
                 );
-                adapter.notifyDataSetChanged();
+                adapter.updateData(cancelledEntrants);
                 emptyView.setVisibility(cancelledEntrants.isEmpty() ? View.VISIBLE : View.GONE);
             })
             .addOnFailureListener(err ->
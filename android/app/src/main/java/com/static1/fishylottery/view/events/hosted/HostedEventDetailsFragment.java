@@ -29,6 +29,7 @@ import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.Event;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
+import com.static1.fishylottery.model.logic.LotteryDrawEngine;
 import com.static1.fishylottery.services.DateUtils;
 import com.static1.fishylottery.viewmodel.HostedEventDetailsViewModel;
 /**
@@ -187,10 +188,25 @@ public class HostedEventDetailsFragment extends Fragment {
         });
 
         viewModel.isLoading().observe(getViewLifecycleOwner(), loading -> {
-            buttonRunLottery.setEnabled(!loading);
+            boolean drawing = Boolean.TRUE.equals(viewModel.isDrawInProgress().getValue());
+            buttonRunLottery.setEnabled(!loading && !drawing);
             buttonExportEnrolled.setEnabled(!loading);
         });
 
+        // The draw keeps the button disabled even when other loads finish in the meantime
+        viewModel.isDrawInProgress().observe(getViewLifecycleOwner(), drawing -> {
+            boolean loading = Boolean.TRUE.equals(viewModel.isLoading().getValue());
+            buttonRunLottery.setEnabled(!loading && !drawing);
+            if (!drawing) {
+                buttonRunLottery.setText(R.string.run_lottery);
+            }
+        });
+
+        viewModel.getDrawProgress().observe(getViewLifecycleOwner(), progress -> {
+            if (progress == null || !Boolean.TRUE.equals(viewModel.isDrawInProgress().getValue())) return;
+            buttonRunLottery.setText(formatDrawProgress(progress));
+        });
+
         viewModel.getWaitlist().observe(getViewLifecycleOwner(), waitlist -> {
 
             int waitingCount = 0;
@@ -237,6 +253,21 @@ public class HostedEventDetailsFragment extends Fragment {
         createFileLauncher.launch(intent);
     }
 
+    private String formatDrawProgress(LotteryDrawEngine.Progress progress) {
+        switch (progress.getStage()) {
+            case LOADING:
+                return "Loading " + progress.getDone() + "/" + progress.getTotal();
+            case SELECTING:
+                return "Selecting...";
+            case INVITING:
+                return "Inviting " + progress.getDone() + "/" + progress.getTotal();
+            case NOTIFYING:
+                return "Notifying " + progress.getDone() + "/" + progress.getTotal();
+            default:
+                return getString(R.string.run_lottery);
+        }
+    }
+
     private String formatCurrentOutOfMax(int current, Integer max) {
         String currentStr = Integer.valueOf(current).toString();
         if (max == null) {
@@ -8,14 +8,19 @@ import android.widget.PopupMenu;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
+import com.static1.fishylottery.view.StableIds;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 /**
  * RecyclerView adapter for displaying and managing waitlist entries
  * for a hosted event.
@@ -23,10 +28,27 @@ import java.util.Locale;
  * <p>Each row shows the entrant name, status, join date, and a menu
  * of actions such as inviting, accepting, cancelling, or deleting
  * the entrant.</p>
+ *
+ * <p>Entries are diffed by the entrant's UID on a background thread, so a live update of a
+ * large waitlist only rebinds the rows whose name, status or join date changed.</p>
  */
-public class WaitlistEntryAdapter extends RecyclerView.Adapter<WaitlistEntryAdapter.ViewHolder> {
+public class WaitlistEntryAdapter extends ListAdapter<WaitlistEntry, WaitlistEntryAdapter.ViewHolder> {
+
+    private static final DiffUtil.ItemCallback<WaitlistEntry> DIFF = new DiffUtil.ItemCallback<WaitlistEntry>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull WaitlistEntry oldItem, @NonNull WaitlistEntry newItem) {
+            String oldUid = uidOf(oldItem);
+            return oldUid != null ? oldUid.equals(uidOf(newItem)) : oldItem == newItem;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull WaitlistEntry oldItem, @NonNull WaitlistEntry newItem) {
+            return Objects.equals(nameOf(oldItem), nameOf(newItem))
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus())
+                    && Objects.equals(oldItem.getJoinedAt(), newItem.getJoinedAt());
+        }
+    };
 
-    private List<WaitlistEntry> waitlistEntries;
     private OnItemClickListener listener;
     /**
      * Listener interface for handling actions on a single waitlist entry.
@@ -56,12 +78,13 @@ public class WaitlistEntryAdapter extends RecyclerView.Adapter<WaitlistEntryAdap
      * Creates a new adapter instance with the initial list of waitlist entries
      * and a listener for row actions.
      *
-     * <p>The list reference is kept and may later be replaced via
-     * {@link #updateData(List)}.</p>
+     * <p>The list is copied; later changes are shown through {@link #updateData(List)}.</p>
      */
     public WaitlistEntryAdapter(List<WaitlistEntry> waitlistEntries, OnItemClickListener listener) {
-        this.waitlistEntries = waitlistEntries;
+        super(DIFF);
+        setHasStableIds(true);
         this.listener = listener;
+        updateData(waitlistEntries);
     }
     /**
      * Inflates the entrant row layout and wraps it in a {@link ViewHolder}.
@@ -79,25 +102,31 @@ public class WaitlistEntryAdapter extends RecyclerView.Adapter<WaitlistEntryAdap
      */
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        WaitlistEntry entry = waitlistEntries.get(position);
+        WaitlistEntry entry = getItem(position);
         holder.bind(entry, listener);
     }
-    /**
-     * Returns the number of waitlist entries currently displayed by the adapter.
-     */
+
     @Override
-    public int getItemCount() {
-        return waitlistEntries != null ? waitlistEntries.size() : 0;
+    public long getItemId(int position) {
+        return StableIds.of(uidOf(getItem(position)));
     }
+
     /**
-     * Replaces the current list of waitlist entries and refreshes the RecyclerView.
+     * Replaces the current list of waitlist entries with a copy of the new list.
      *
-     * <p>The adapter notifies that the entire data set has changed so the UI
-     * reflects the new list.</p>
+     * <p>The difference is computed in the background and only the rows that
+     * were added, removed, moved or changed are updated.</p>
      */
     public void updateData(List<WaitlistEntry> newEntries) {
-        this.waitlistEntries = newEntries;
-        notifyDataSetChanged();
+        submitList(newEntries != null ? new ArrayList<>(newEntries) : null);
+    }
+
+    private static String uidOf(WaitlistEntry entry) {
+        return entry.getProfile() != null ? entry.getProfile().getUid() : null;
+    }
+
+    private static String nameOf(WaitlistEntry entry) {
+        return entry.getProfile() != null ? entry.getProfile().getFullName() : null;
     }
 
     class ViewHolder extends RecyclerView.ViewHolder {
@@ -7,17 +7,39 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.AppNotification;
+import com.static1.fishylottery.view.StableIds;
 
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 
-public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.VH> {
+/**
+ * Shows the notification inbox. Lists are diffed by notification ID on a background thread, so
+ * a live update or a newly loaded page only binds the rows that changed.
+ */
+public class NotificationAdapter extends ListAdapter<AppNotification, NotificationAdapter.VH> {
+
+    private static final DiffUtil.ItemCallback<AppNotification> DIFF = new DiffUtil.ItemCallback<AppNotification>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull AppNotification oldItem, @NonNull AppNotification newItem) {
+            return oldItem.getId() != null ? oldItem.getId().equals(newItem.getId()) : oldItem == newItem;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull AppNotification oldItem, @NonNull AppNotification newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getMessage(), newItem.getMessage())
+                    && Objects.equals(oldItem.getCreatedAt(), newItem.getCreatedAt());
+        }
+    };
 
     public interface OnNotificationClick {
 
@@ -32,9 +54,6 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
     /** Listener triggered when an item is clicked. */
     private OnNotificationClick clickListener;
 
-    /** Internal list of notifications displayed by the adapter. */
-    private final List<AppNotification> items = new ArrayList<>();
-
     /** Formats notification dates based on system locale. */
     private final DateFormat fmt = DateFormat.getDateTimeInstance();
 
@@ -65,6 +84,11 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
 
     private final Random random = new Random();
 
+    public NotificationAdapter() {
+        super(DIFF);
+        setHasStableIds(true);
+    }
+
     /**
      * Returns the current click listener. (Required for automated tests.)
      *
@@ -85,15 +109,19 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
     }
 
     /**
-     * Replaces the current list of notifications with a new one.
-     * The adapter will immediately refresh the list.
+     * Replaces the current list of notifications with a copy of a new one. The difference is
+     * computed in the background, so appending an older page only inserts the new rows and keeps
+     * the scroll position.
      *
      * @param newItems List of new notifications. Can be null.
      */
     public void submit(List<AppNotification> newItems) {
-        items.clear();
-        if (newItems != null) items.addAll(newItems);
-        notifyDataSetChanged();
+        submitList(newItems != null ? new ArrayList<>(newItems) : null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     @NonNull
@@ -106,15 +134,17 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
 
     @Override
     public void onBindViewHolder(@NonNull VH h, int pos) {
-        AppNotification n = items.get(pos);
+        AppNotification n = getItem(pos);
 
         // Set text
         h.title.setText(n.getTitle());
         h.message.setText(n.getMessage());
         h.date.setText(n.getCreatedAt() != null ? fmt.format(n.getCreatedAt()) : "");
 
-        // 🐟 Set a random fish image
-        int randomFish = fishImages[random.nextInt(fishImages.length)];
+        // 🐟 Set a random fish image, fixed per notification so it survives rebinds while scrolling
+        int randomFish = n.getId() != null
+                ? fishImages[Math.floorMod(n.getId().hashCode(), fishImages.length)]
+                : fishImages[random.nextInt(fishImages.length)];
         h.randomFish.setImageResource(randomFish);
 
         // Click listener
@@ -123,11 +153,6 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
         });
     }
 
-    @Override
-    public int getItemCount() {
-        return items.size();
-    }
-
     /**
      * ViewHolder class that stores references to views inside each
      * notification list item for performance.
@@ -20,6 +20,8 @@ import com.static1.fishylottery.viewmodel.NotificationsViewModel;
 
 public class NotificationsFragment extends Fragment {
     private static final String TAG = "NotificationsFragment";
+    /** Items from the end of the list at which the next page is requested. */
+    private static final int LOAD_MORE_THRESHOLD = 5;
     public NotificationsViewModel vm;
     public NotificationAdapter adapter;
 
@@ -37,13 +39,26 @@ public class NotificationsFragment extends Fragment {
 
         RecyclerView rv = v.findViewById(R.id.rvNotifications);
         TextView textNoNotificationsMessage = v.findViewById(R.id.text_no_notifications_message);
-        rv.setLayoutManager(new LinearLayoutManager(requireContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        rv.setLayoutManager(layoutManager);
 
         adapter = new NotificationAdapter();
         rv.setAdapter(adapter);
 
         vm = new ViewModelProvider(this).get(NotificationsViewModel.class);
 
+        // Infinite scroll: ask for the next older page when the end of the list comes into view
+        rv.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    vm.loadMore();
+                }
+            }
+        });
+
         vm.getInbox().observe(getViewLifecycleOwner(), items -> {
             boolean notificationsEnabled = NotificationSettings.areNotificationsEnabled(requireContext());
             Log.d(TAG, "Observer triggered - Notifications enabled: " + notificationsEnabled + ", Items count: " + (items != null ? items.size() : 0));
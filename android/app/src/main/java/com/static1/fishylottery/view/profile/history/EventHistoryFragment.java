@@ -15,10 +15,9 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
 import com.static1.fishylottery.R;
 import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.model.entities.EventSummary;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
 import com.static1.fishylottery.model.repositories.EventRepository;
 import com.static1.fishylottery.model.repositories.WaitlistRepository;
@@ -28,7 +27,11 @@ import com.static1.fishylottery.services.DateUtils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class EventHistoryFragment extends Fragment {
 
@@ -74,20 +77,35 @@ public class EventHistoryFragment extends Fragment {
             return;
         };
 
-        Task<List<WaitlistEntry>> myWaitlistsTask = waitlistRepo.getEventWaitlistEntriesByUser(uid);
-        Task<List<Event>> allEventsTask = eventsRepo.fetchAllEvents();
-
-        Tasks.whenAllSuccess(myWaitlistsTask, allEventsTask)
-                .addOnSuccessListener(results -> {
-                    List<WaitlistEntry> myWaitlists = (List<WaitlistEntry>) results.get(0);
-                    List<Event> allEvents = (List<Event>) results.get(1);
+        // Index the user's entries by event so each event finds its entry in constant time
+        Map<String, WaitlistEntry> entriesByEvent = new HashMap<>();
+        List<Event> events = new ArrayList<>();
 
+        // Entries carry a summary of their event; only entries written before summaries
+        // existed need their event read
+        waitlistRepo.getEventWaitlistEntriesByUser(uid)
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    Set<String> unsummarized = new HashSet<>();
+                    for (WaitlistEntry entry : task.getResult()) {
+                        entriesByEvent.put(entry.getEventId(), entry);
+                        EventSummary summary = entry.getEventSummary();
+                        if (summary != null) {
+                            events.add(summary.toEvent(entry.getEventId()));
+                        } else {
+                            unsummarized.add(entry.getEventId());
+                        }
+                    }
+                    return eventsRepo.fetchEventsByIds(unsummarized);
+                })
+                .addOnSuccessListener(fetched -> {
+                    events.addAll(fetched);
                     eventHistoryItems.clear();
 
-                    for (Event event : allEvents) {
-                        WaitlistEntry w = myWaitlists.stream()
-                                .filter(x -> x.getEventId().equals(event.getEventId()))
-                                .findFirst().orElse(null);
+                    for (Event event : events) {
+                        WaitlistEntry w = entriesByEvent.get(event.getEventId());
 
                         if (w != null) {
                             String title = event.getTitle();
@@ -4,20 +4,62 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.static1.fishylottery.model.entities.AppNotification;
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.model.repositories.IProfileRepository;
+import com.static1.fishylottery.model.repositories.NotificationRepository;
+import com.static1.fishylottery.model.repositories.ProfileLookup;
+import com.static1.fishylottery.model.repositories.ProfileRepository;
+import com.static1.fishylottery.services.FirestoreConfig;
 import com.static1.fishylottery.view.admin.NotificationLogAdapter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Loads the notification log for administrators one page at a time. Every user's
+ * {@code notifications} subcollection is read through a single collection-group query ordered by
+ * {@code createdAt}, so opening the screen costs one page of reads no matter how many users
+ * there are. Recipient names are looked up in batches and cached for the life of the ViewModel.
+ */
 public class AdminNotificationLogsViewModel extends ViewModel {
-    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    /** Notifications read per page. */
+    private static final int PAGE_SIZE = 50;
+
+    private final FirebaseFirestore db;
+    private final IProfileRepository profileRepository;
+    private final NotificationRepository notificationRepository;
     private final MutableLiveData<List<NotificationLogAdapter.NotificationLog>> notificationLogs = new MutableLiveData<>();
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
 
+    private final List<NotificationLogAdapter.NotificationLog> loaded = new ArrayList<>();
+    private final Map<String, Profile> profileCache = new HashMap<>();
+    private DocumentSnapshot cursor;
+    private boolean hasMore = true;
+    private int generation;
+
+    public AdminNotificationLogsViewModel() {
+        this(FirestoreConfig.getInstance().getFirestore(), new ProfileRepository(), new NotificationRepository());
+    }
+
+    public AdminNotificationLogsViewModel(FirebaseFirestore db,
+                                          IProfileRepository profileRepository,
+                                          NotificationRepository notificationRepository) {
+        this.db = db;
+        this.profileRepository = profileRepository;
+        this.notificationRepository = notificationRepository;
+    }
+
     public LiveData<List<NotificationLogAdapter.NotificationLog>> getNotificationLogs() {
         return notificationLogs;
     }
@@ -26,66 +68,120 @@ public class AdminNotificationLogsViewModel extends ViewModel {
         return loading;
     }
 
-    public void loadAllNotifications() {
+    /**
+     * Clears the log and loads the newest page.
+     */
+    public void loadFirstPage() {
+        generation++;
+        loaded.clear();
+        cursor = null;
+        hasMore = true;
+        loading.setValue(false);
+        loadMore();
+    }
+
+    /**
+     * Loads the next, older page of the log. Does nothing while a page is loading or once every
+     * notification has been loaded.
+     */
+    public void loadMore() {
+        if (!hasMore || Boolean.TRUE.equals(loading.getValue())) {
+            return;
+        }
+
+        int requested = generation;
         loading.setValue(true);
-        List<NotificationLogAdapter.NotificationLog> allLogs = new ArrayList<>();
-
-        // First, get all profiles
-        db.collection("profiles").get().addOnSuccessListener(profilesSnapshot -> {
-            if (profilesSnapshot.isEmpty()) {
-                loading.setValue(false);
-                notificationLogs.setValue(allLogs);
-                return;
+
+        Query query = db.collectionGroup("notifications")
+                .orderBy("createdAt", Query.Direction.DESCENDING)
+                .limit(PAGE_SIZE);
+        if (cursor != null) {
+            query = query.startAfter(cursor);
+        }
+
+        query.get().continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
             }
 
-            int totalProfiles = profilesSnapshot.size();
-            final int[] processedProfiles = {0};
-
-            // For each profile, get their notifications
-            for (DocumentSnapshot profileDoc : profilesSnapshot.getDocuments()) {
-                Profile profile = profileDoc.toObject(Profile.class);
-                String uid = profileDoc.getId();
-
-                db.collection("profiles")
-                        .document(uid)
-                        .collection("notifications")
-                        .get()
-                        .addOnSuccessListener(notificationsSnapshot -> {
-                            for (DocumentSnapshot notifDoc : notificationsSnapshot.getDocuments()) {
-                                AppNotification notif = notifDoc.toObject(AppNotification.class);
-                                if (notif != null && profile != null) {
-                                    NotificationLogAdapter.NotificationLog log =
-                                            new NotificationLogAdapter.NotificationLog(
-                                                    profile.getFullName(),
-                                                    profile.getEmail(),
-                                                    notif.getTitle(),
-                                                    notif.getMessage(),
-                                                    notif.getType(),
-                                                    notif.getCreatedAt() != null ? notif.getCreatedAt().getTime() : 0
-                                            );
-                                    allLogs.add(log);
-                                }
-                            }
-
-                            processedProfiles[0]++;
-                            if (processedProfiles[0] == totalProfiles) {
-                                // All profiles processed, sort by date descending
-                                allLogs.sort((a, b) -> Long.compare(b.timestamp, a.timestamp));
-                                notificationLogs.setValue(allLogs);
-                                loading.setValue(false);
-                            }
-                        })
-                        .addOnFailureListener(e -> {
-                            processedProfiles[0]++;
-                            if (processedProfiles[0] == totalProfiles) {
-                                notificationLogs.setValue(allLogs);
-                                loading.setValue(false);
-                            }
-                        });
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            List<AppNotification> notifications = new ArrayList<>();
+            List<String> paths = new ArrayList<>();
+            List<String> recipients = new ArrayList<>();
+
+            for (DocumentSnapshot doc : docs) {
+                AppNotification notif = doc.toObject(AppNotification.class);
+                if (notif == null) continue;
+                notif.setId(doc.getId());
+                notifications.add(notif);
+                paths.add(doc.getReference().getPath());
+                recipients.add(recipientOf(doc));
             }
-        }).addOnFailureListener(e -> {
+
+            Task<List<AppNotification>> bodies = notificationRepository.resolveBroadcasts(notifications);
+            Task<Void> profiles = resolveProfiles(recipients);
+
+            return Tasks.whenAllComplete(bodies, profiles).continueWith(done -> {
+                if (requested != generation) return null;
+
+                for (int i = 0; i < notifications.size(); i++) {
+                    loaded.add(toLog(paths.get(i), notifications.get(i), profileCache.get(recipients.get(i))));
+                }
+                if (!docs.isEmpty()) {
+                    cursor = docs.get(docs.size() - 1);
+                }
+                hasMore = docs.size() == PAGE_SIZE;
+                return null;
+            });
+        }).addOnCompleteListener(task -> {
+            if (requested != generation) return;
             loading.setValue(false);
-            notificationLogs.setValue(allLogs);
+            notificationLogs.setValue(new ArrayList<>(loaded));
+        });
+    }
+
+    /**
+     * Resolves the profiles of recipients that have not been looked up yet. Recipients without a
+     * profile are remembered as null so later pages do not ask for them again, and are shown
+     * without a name.
+     */
+    private Task<Void> resolveProfiles(List<String> uids) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (String uid : uids) {
+            if (uid != null && !profileCache.containsKey(uid)) {
+                missing.add(uid);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+
+        return profileRepository.resolveProfiles(missing).continueWith(task -> {
+            if (task.isSuccessful() && task.getResult() != null) {
+                ProfileLookup lookup = task.getResult();
+                for (String uid : lookup.getUids()) {
+                    profileCache.put(uid, lookup.get(uid));
+                }
+            }
+            return null;
         });
     }
-}
\ No newline at end of file
+
+    /** The inbox owner of a notification at {@code profiles/{uid}/notifications/{id}}. */
+    private static String recipientOf(DocumentSnapshot doc) {
+        DocumentReference owner = doc.getReference().getParent().getParent();
+        return owner != null ? owner.getId() : null;
+    }
+
+    private static NotificationLogAdapter.NotificationLog toLog(String path, AppNotification notif, Profile profile) {
+        return new NotificationLogAdapter.NotificationLog(
+                path,
+                profile != null ? profile.getFullName() : "Unknown user",
+                profile != null ? profile.getEmail() : "",
+                notif.getTitle(),
+                notif.getMessage(),
+                notif.getType(),
+                notif.getCreatedAt() != null ? notif.getCreatedAt().getTime() : 0
+        );
+    }
+}
@@ -4,25 +4,24 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.static1.fishylottery.model.entities.Event;
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.model.logic.CascadeDeleter;
+import com.static1.fishylottery.model.logic.ICascadeDeleter;
 import com.static1.fishylottery.model.repositories.EventRepository;
 import com.static1.fishylottery.model.repositories.IEventRepository;
 import com.static1.fishylottery.model.repositories.IProfileRepository;
+import com.static1.fishylottery.model.repositories.ProfileLookup;
 import com.static1.fishylottery.model.repositories.ProfileRepository;
 import com.static1.fishylottery.view.admin.AdminOrganizerAdapter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class AdminOrganizersViewModel extends ViewModel {
     private final IEventRepository eventRepository;
     private final IProfileRepository profileRepository;
-    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
+    private final ICascadeDeleter cascadeDeleter;
 
     private final MutableLiveData<List<AdminOrganizerAdapter.OrganizerInfo>> organizers = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
@@ -30,14 +29,16 @@ public class AdminOrganizersViewModel extends ViewModel {
 
     // Default constructor - uses real repositories
     public AdminOrganizersViewModel() {
-        this.eventRepository = new EventRepository();
-        this.profileRepository = new ProfileRepository();
+        this(new EventRepository(), new ProfileRepository(), new CascadeDeleter());
     }
 
-    // Constructor for testing - accepts fake repositories
-    public AdminOrganizersViewModel(IEventRepository eventRepository, IProfileRepository profileRepository) {
+    // Constructor for testing - accepts fake repositories and a fake deleter
+    public AdminOrganizersViewModel(IEventRepository eventRepository,
+                                    IProfileRepository profileRepository,
+                                    ICascadeDeleter cascadeDeleter) {
         this.eventRepository = eventRepository;
         this.profileRepository = profileRepository;
+        this.cascadeDeleter = cascadeDeleter;
     }
 
     public LiveData<List<AdminOrganizerAdapter.OrganizerInfo>> getOrganizers() {
@@ -52,64 +53,30 @@ public class AdminOrganizersViewModel extends ViewModel {
         return message;
     }
 
+    /**
+     * Loads every organizer with their event count. This takes one query for the counts and one
+     * batched profile lookup for the names, however many organizers there are.
+     */
     public void loadOrganizers() {
         loading.setValue(true);
 
-        // Get all events first
-        eventRepository.fetchAllEvents()
-                .addOnSuccessListener(events -> {
-                    // Count events per organizer
-                    Map<String, Integer> eventCounts = new HashMap<>();
-                    for (Event event : events) {
-                        String orgId = event.getOrganizerId();
-                        if (orgId != null) {
-                            eventCounts.put(orgId, eventCounts.getOrDefault(orgId, 0) + 1);
-                        }
-                    }
-
-                    // Get profile info for each organizer
-                    List<AdminOrganizerAdapter.OrganizerInfo> organizerList = new ArrayList<>();
-
-                    if (eventCounts.isEmpty()) {
-                        organizers.setValue(organizerList);
-                        loading.setValue(false);
-                        return;
-                    }
-
-                    int totalOrganizers = eventCounts.size();
-                    final int[] processedOrganizers = {0};
-
-                    for (Map.Entry<String, Integer> entry : eventCounts.entrySet()) {
-                        String orgId = entry.getKey();
-                        int count = entry.getValue();
-
-                        profileRepository.getProfileById(orgId)
-                                .addOnSuccessListener(profile -> {
-                                    if (profile != null) {
-                                        AdminOrganizerAdapter.OrganizerInfo info =
-                                                new AdminOrganizerAdapter.OrganizerInfo(
-                                                        orgId,
-                                                        profile.getFullName(),
-                                                        profile.getEmail(),
-                                                        count
-                                                );
-                                        organizerList.add(info);
-                                    }
-
-                                    processedOrganizers[0]++;
-                                    if (processedOrganizers[0] == totalOrganizers) {
-                                        organizers.setValue(organizerList);
-                                        loading.setValue(false);
-                                    }
-                                })
-                                .addOnFailureListener(e -> {
-                                    processedOrganizers[0]++;
-                                    if (processedOrganizers[0] == totalOrganizers) {
-                                        organizers.setValue(organizerList);
-                                        loading.setValue(false);
-                                    }
-                                });
+        eventRepository.countEventsByOrganizer()
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
                     }
+                    Map<String, Integer> eventCounts = task.getResult();
+                    return profileRepository.resolveProfiles(eventCounts.keySet())
+                            .continueWith(profiles -> {
+                                if (!profiles.isSuccessful()) {
+                                    throw profiles.getException();
+                                }
+                                return toOrganizerInfos(eventCounts, profiles.getResult());
+                            });
+                })
+                .addOnSuccessListener(organizerList -> {
+                    organizers.setValue(organizerList);
+                    loading.setValue(false);
                 })
                 .addOnFailureListener(e -> {
                     message.setValue("Failed to load organizers: " + e.getMessage());
@@ -117,61 +84,42 @@ public class AdminOrganizersViewModel extends ViewModel {
                 });
     }
 
+    /**
+     * Pairs event counts with organizer profiles. Organizers whose profile no longer exists are
+     * left out.
+     */
+    private static List<AdminOrganizerAdapter.OrganizerInfo> toOrganizerInfos(
+            Map<String, Integer> eventCounts, ProfileLookup profiles) {
+        List<AdminOrganizerAdapter.OrganizerInfo> organizerList = new ArrayList<>();
+        for (String orgId : profiles.getUids()) {
+            Profile profile = profiles.get(orgId);
+            if (profile != null) {
+                organizerList.add(new AdminOrganizerAdapter.OrganizerInfo(
+                        orgId,
+                        profile.getFullName(),
+                        profile.getEmail(),
+                        eventCounts.get(orgId)
+                ));
+            }
+        }
+        return organizerList;
+    }
+
+    /**
+     * Deletes an organizer's events with everything under them, then the organizer's profile.
+     * An earlier removal of the same organizer that was interrupted is resumed.
+     */
     public void removeOrganizer(String organizerId) {
         loading.setValue(true);
 
-        // First, delete all events by this organizer
-        eventRepository.fetchEventsByOrganizerId(organizerId)
-                .addOnSuccessListener(events -> {
-                    // Delete each event
-                    int totalEvents = events.size();
-                    if (totalEvents == 0) {
-                        // No events, just delete the profile
-                        deleteOrganizerProfile(organizerId);
-                        return;
-                    }
-
-                    final int[] deletedEvents = {0};
-                    for (Event event : events) {
-                        eventRepository.deleteEvent(event)
-                                .addOnSuccessListener(aVoid -> {
-                                    deletedEvents[0]++;
-                                    if (deletedEvents[0] == totalEvents) {
-                                        // All events deleted, now delete the profile
-                                        deleteOrganizerProfile(organizerId);
-                                    }
-                                })
-                                .addOnFailureListener(e -> {
-                                    deletedEvents[0]++;
-                                    if (deletedEvents[0] == totalEvents) {
-                                        deleteOrganizerProfile(organizerId);
-                                    }
-                                });
-                    }
+        cascadeDeleter.deleteOrganizer(organizerId)
+                .addOnSuccessListener(job -> {
+                    message.setValue("Organizer removed successfully");
+                    loadOrganizers(); // Reload the list
                 })
                 .addOnFailureListener(e -> {
-                    message.setValue("Failed to fetch organizer events: " + e.getMessage());
+                    message.setValue("Failed to remove organizer: " + e.getMessage());
                     loading.setValue(false);
                 });
     }
-
-    private void deleteOrganizerProfile(String organizerId) {
-        profileRepository.getProfileById(organizerId)
-                .addOnSuccessListener(profile -> {
-                    if (profile != null) {
-                        profileRepository.deleteProfile(profile)
-                                .addOnSuccessListener(aVoid -> {
-                                    message.setValue("Organizer removed successfully");
-                                    loadOrganizers(); // Reload the list
-                                })
-                                .addOnFailureListener(e -> {
-                                    message.setValue("Failed to remove organizer profile: " + e.getMessage());
-                                    loading.setValue(false);
-                                });
-                    } else {
-                        message.setValue("Organizer profile not found");
-                        loading.setValue(false);
-                    }
-                });
-    }
 }
\ No newline at end of file
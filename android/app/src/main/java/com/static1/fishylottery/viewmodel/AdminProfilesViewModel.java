@@ -5,6 +5,8 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.model.logic.CascadeDeleter;
+import com.static1.fishylottery.model.logic.ICascadeDeleter;
 import com.static1.fishylottery.model.repositories.IProfileRepository;
 import com.static1.fishylottery.model.repositories.ProfileRepository;
 
@@ -13,18 +15,20 @@ import java.util.List;
 
 public class AdminProfilesViewModel extends ViewModel {
     private final IProfileRepository repository;
+    private final ICascadeDeleter cascadeDeleter;
     private final MutableLiveData<List<Profile>> profiles = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
     private final MutableLiveData<String> message = new MutableLiveData<>();
 
     // Default constructor - uses real repository
     public AdminProfilesViewModel() {
-        this.repository = new ProfileRepository();
+        this(new ProfileRepository(), new CascadeDeleter());
     }
 
-    // Constructor for testing - accepts fake repository
-    public AdminProfilesViewModel(IProfileRepository repository) {
+    // Constructor for testing - accepts a fake repository and a fake deleter
+    public AdminProfilesViewModel(IProfileRepository repository, ICascadeDeleter cascadeDeleter) {
         this.repository = repository;
+        this.cascadeDeleter = cascadeDeleter;
     }
 
     public LiveData<List<Profile>> getProfiles() {
@@ -52,10 +56,13 @@ public class AdminProfilesViewModel extends ViewModel {
                 });
     }
 
+    /**
+     * Deletes a profile together with its waitlist entries and notifications.
+     */
     public void deleteProfile(Profile profile) {
         loading.setValue(true);
-        repository.deleteProfile(profile)
-                .addOnSuccessListener(aVoid -> {
+        cascadeDeleter.deleteProfile(profile.getUid())
+                .addOnSuccessListener(job -> {
                     message.setValue("Profile deleted successfully");
                     // Reload the list
                     loadProfiles();
@@ -0,0 +1,240 @@
+package com.static1.fishylottery.viewmodel;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.model.logic.EventFilterIndex;
+import com.static1.fishylottery.model.repositories.BrowseQuery;
+import com.static1.fishylottery.model.repositories.EventPage;
+import com.static1.fishylottery.model.repositories.EventRepository;
+import com.static1.fishylottery.model.repositories.IEventRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the state of the entrant's browse screen so it survives configuration changes. Filter
+ * changes are debounced, pages are fetched with {@link IEventRepository#browseEvents}, and the
+ * work of combining pages, building the {@link EventFilterIndex} and filtering it runs on a
+ * background thread. The event list is published as an unmodifiable snapshot. While the first
+ * page loads, the events cached on the device are shown in its place.
+ */
+public class BrowseEventsViewModel extends ViewModel {
+    private static final String TAG = "BrowseEvents";
+
+    /** Time filter changes must settle before they are applied. */
+    static final long DEBOUNCE_MILLIS = 300;
+
+    private final IEventRepository eventRepository;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final MutableLiveData<List<Event>> events = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private final MutableLiveData<String> error = new MutableLiveData<>();
+
+    // State below is only touched on the main thread
+    private BrowseQuery currentQuery;
+    private List<Event> loaded = Collections.emptyList();
+    private DocumentSnapshot cursor;
+    private boolean hasMore;
+    private int generation;
+    private EventFilterIndex index;
+    private BrowseQuery indexedQuery;
+    private Runnable pendingFilters;
+
+    public BrowseEventsViewModel() {
+        this(new EventRepository());
+    }
+
+    public BrowseEventsViewModel(IEventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    /**
+     * @return The events matching the current filters, in start date order.
+     */
+    public LiveData<List<Event>> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return Whether a page of events is being fetched.
+     */
+    public LiveData<Boolean> isLoading() {
+        return loading;
+    }
+
+    /**
+     * @return A message to show when a page could not be fetched.
+     */
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    /**
+     * Clears the error once it has been shown, so it is not shown again after a rotation.
+     */
+    public void onErrorShown() {
+        error.setValue(null);
+    }
+
+    /**
+     * Loads the first page for the given filters unless events were already loaded, e.g. before
+     * the screen was rotated.
+     *
+     * @param query The initial filters.
+     */
+    public void loadIfNeeded(@NonNull BrowseQuery query) {
+        if (currentQuery == null) {
+            applyFilters(query);
+        }
+    }
+
+    /**
+     * Applies new filters once no other change has arrived for {@link #DEBOUNCE_MILLIS}.
+     *
+     * @param query The new filters.
+     */
+    public void setFilters(@NonNull BrowseQuery query) {
+        if (pendingFilters != null) {
+            mainHandler.removeCallbacks(pendingFilters);
+        }
+        pendingFilters = () -> {
+            pendingFilters = null;
+            applyFilters(query);
+        };
+        mainHandler.postDelayed(pendingFilters, DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Fetches the next page for the current filters. Does nothing while a page is loading or once
+     * every matching event has been loaded.
+     */
+    public void loadMore() {
+        if (currentQuery == null || !hasMore || Boolean.TRUE.equals(loading.getValue())) {
+            return;
+        }
+
+        int requested = generation;
+        BrowseQuery query = currentQuery;
+        List<Event> before = loaded;
+        loading.setValue(true);
+
+        if (cursor == null) {
+            showCachedFirstPage(query, requested);
+        }
+
+        eventRepository.browseEvents(query, cursor).addOnCompleteListener(task -> {
+            if (requested != generation) return;
+
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to fetch events", task.getException());
+                loading.setValue(false);
+                error.setValue("Could not get events");
+                return;
+            }
+
+            EventPage page = task.getResult();
+            executor.execute(() -> {
+                List<Event> combined = new ArrayList<>(before.size() + page.getEvents().size());
+                combined.addAll(before);
+                combined.addAll(page.getEvents());
+                List<Event> snapshot = Collections.unmodifiableList(combined);
+                // Once every match is loaded, later narrower filters are answered locally
+                EventFilterIndex built = page.hasMore() ? null : new EventFilterIndex(snapshot);
+
+                mainHandler.post(() -> {
+                    if (requested != generation) return;
+                    loaded = snapshot;
+                    cursor = page.getCursor();
+                    hasMore = page.hasMore();
+                    if (built != null) {
+                        index = built;
+                        indexedQuery = query;
+                    }
+                    loading.setValue(false);
+                    events.setValue(snapshot);
+                });
+            });
+        });
+    }
+
+    /**
+     * Shows the events cached on the device for the first page while the server is asked, so
+     * the screen is not blank until the network answers. The server page replaces it.
+     */
+    private void showCachedFirstPage(BrowseQuery query, int requested) {
+        eventRepository.browseCachedEvents(query).addOnSuccessListener(page -> {
+            // Too late once the server page has been shown
+            if (requested != generation || !loaded.isEmpty()
+                    || !Boolean.TRUE.equals(loading.getValue()) || page.getEvents().isEmpty()) {
+                return;
+            }
+            events.setValue(Collections.unmodifiableList(new ArrayList<>(page.getEvents())));
+        });
+    }
+
+    private void applyFilters(BrowseQuery query) {
+        generation++;
+        currentQuery = query;
+        loaded = Collections.emptyList();
+        cursor = null;
+        hasMore = true;
+        loading.setValue(false);
+
+        if (index != null && !indexedQuery.covers(query)) {
+            // Too old or too narrow; a fully loaded query rebuilds it
+            index = null;
+            indexedQuery = null;
+        }
+
+        if (index == null) {
+            events.setValue(loaded);
+            loadMore();
+            return;
+        }
+
+        // Everything matching is already in the index
+        hasMore = false;
+        int requested = generation;
+        EventFilterIndex source = index;
+        executor.execute(() -> {
+            List<Event> matching = new ArrayList<>();
+            for (Event event : source.filter(query.getInterest(), query.getStartFrom(), query.getStartTo())) {
+                // Re-checked so events whose registration closed since loading drop out
+                if (query.matches(event)) {
+                    matching.add(event);
+                }
+            }
+            List<Event> snapshot = Collections.unmodifiableList(matching);
+
+            mainHandler.post(() -> {
+                if (requested != generation) return;
+                loaded = snapshot;
+                events.setValue(snapshot);
+            });
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        // Drops pages still in flight, which would otherwise hit the stopped executor
+        generation++;
+        if (pendingFilters != null) {
+            mainHandler.removeCallbacks(pendingFilters);
+        }
+        executor.shutdownNow();
+    }
+}
@@ -21,9 +21,9 @@ import com.static1.fishylottery.services.AuthManager;
 import com.static1.fishylottery.services.LocationService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 public class EventDetailsViewModel extends ViewModel {
 
@@ -83,26 +83,11 @@ public class EventDetailsViewModel extends ViewModel {
             return;
         }
 
-        waitlistRepository.getWaitlist(event)
-                .addOnSuccessListener(entries -> {
-                    int count = 0;
-                    if (entries == null) {
-                        Log.d("EventDetailsVM", "getWaitlist returned null");
-                    } else {
-                        Log.d("EventDetailsVM", "getWaitlist returned size=" + entries.size());
-                        for (WaitlistEntry entry : entries) {
-                            String s = entry == null ? null : entry.getStatus();
-                            Log.d("EventDetailsVM", "entry status: " + s);
-                            if (s != null) {
-                                String ss = s.trim().toLowerCase(Locale.ROOT);
-                                // count both waiting and invited (change as you need)
-                                if ("waiting".equals(ss) || "invited".equals(ss)) {
-                                    count++;
-                                }
-                            }
-                        }
-                    }
-                    waitlistCount.postValue(count);
+        // count both waiting and invited (change as you need)
+        waitlistRepository.countWaitlist(event, Arrays.asList("waiting", "invited"))
+                .addOnSuccessListener(count -> {
+                    Log.d("EventDetailsVM", "countWaitlist returned " + count);
+                    waitlistCount.postValue(count != null ? count.intValue() : 0);
                 })
                 .addOnFailureListener(e -> {
                     Log.e("EventDetailsVM", "Failed to load waitlist count", e);
@@ -12,17 +12,17 @@ import androidx.lifecycle.ViewModel;
 import com.static1.fishylottery.model.entities.AppNotification;
 import com.static1.fishylottery.model.entities.Event;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
+import com.static1.fishylottery.model.logic.ILotteryDrawEngine;
+import com.static1.fishylottery.model.logic.LotteryDrawEngine;
 import com.static1.fishylottery.model.repositories.EventRepository;
 import com.static1.fishylottery.model.repositories.IEventRepository;
 import com.static1.fishylottery.model.repositories.IWaitlistRepository;
-import com.static1.fishylottery.model.repositories.NotificationRepository;
 import com.static1.fishylottery.model.repositories.WaitlistRepository;
 import com.static1.fishylottery.services.CsvExporter;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -33,30 +33,32 @@ import java.util.stream.Collectors;
 public class HostedEventDetailsViewModel extends ViewModel {
     private final IWaitlistRepository waitlistRepository;
     private final IEventRepository eventRepository;
-    private final NotificationRepository notificationRepository;
+    private final ILotteryDrawEngine drawEngine;
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private final MutableLiveData<Boolean> drawInProgress = new MutableLiveData<>(false);
     private final MutableLiveData<String> message = new MutableLiveData<>();
     private final MutableLiveData<List<WaitlistEntry>> waitlist = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<Event> event = new MutableLiveData<>();
 
     public HostedEventDetailsViewModel() {
-        this.eventRepository = new EventRepository();
-        this.waitlistRepository = new WaitlistRepository();
-        this.notificationRepository = new NotificationRepository();
+        this(new EventRepository(), new WaitlistRepository(), new LotteryDrawEngine());
     }
 
     /**
-     * Constructs a ViewModel instance using interfaces for the event and waitlist repository so
-     * that the appropriate dependencies can be injected, such as in the case of unit and UI
-     * testing.
+     * Constructs a ViewModel instance using interfaces for the event and waitlist repository and
+     * the draw engine so that the appropriate dependencies can be injected, such as in the case
+     * of unit and UI testing.
      *
      * @param eventRepository The event repository.
      * @param waitlistRepository The waitlist repository.
+     * @param drawEngine The engine that runs the lottery draw.
      */
-    public HostedEventDetailsViewModel(IEventRepository eventRepository, IWaitlistRepository waitlistRepository) {
+    public HostedEventDetailsViewModel(IEventRepository eventRepository,
+                                       IWaitlistRepository waitlistRepository,
+                                       ILotteryDrawEngine drawEngine) {
         this.eventRepository = eventRepository;
         this.waitlistRepository = waitlistRepository;
-        this.notificationRepository = new NotificationRepository();
+        this.drawEngine = drawEngine;
     }
 
 
@@ -96,6 +98,15 @@ public class HostedEventDetailsViewModel extends ViewModel {
         return waitlist;
     }
 
+    /**
+     * Returns the progress of the lottery draw started by {@link #runLottery()}.
+     *
+     * @return The live draw progress.
+     */
+    public LiveData<LotteryDrawEngine.Progress> getDrawProgress() {
+        return drawEngine.getProgress();
+    }
+
     /**
      * A boolean indicating if the current state is loading used when making a call to the database.
      *
@@ -105,6 +116,17 @@ public class HostedEventDetailsViewModel extends ViewModel {
         return loading;
     }
 
+    /**
+     * Whether a draw started by {@link #runLottery()} is still running. Unlike
+     * {@link #isLoading()} this is not cleared by the other loaders, so it stays true for the
+     * whole draw.
+     *
+     * @return The live boolean data.
+     */
+    public LiveData<Boolean> isDrawInProgress() {
+        return drawInProgress;
+    }
+
     /**
      * Method to export the current final list of entrants to a selected file.
      *
@@ -133,9 +155,14 @@ public class HostedEventDetailsViewModel extends ViewModel {
     }
 
     /**
-     * Runs the lottery randomization algorithm when the button is selected.
+     * Runs the lottery randomization algorithm when the button is selected. Does nothing while
+     * a draw is already running, so a second tap cannot start a concurrent draw.
      */
     public void runLottery() {
+        if (Boolean.TRUE.equals(drawInProgress.getValue())) {
+            return;
+        }
+
         Event e = event.getValue();
 
         if (e == null || e.getEventId() == null) {
@@ -150,24 +177,9 @@ public class HostedEventDetailsViewModel extends ViewModel {
             return;
         }
 
+        drawInProgress.setValue(true);
         loading.setValue(true);
-
-        // New algorithm for selection and sending instant notifications
         runLotteryWithSelectionAndNotifications(e);
-
-//        eventRepository.drawEntrants(e.getEventId())
-//                .addOnSuccessListener(unused -> {
-//                    message.setValue("Draw complete! Selected entrants recorded.");
-//                    loading.setValue(false);
-//                    fetchWaitlist(e);
-//                })
-//                .addOnFailureListener(err -> {
-//                    String msg = (err.getMessage() != null)
-//                            ? err.getMessage()
-//                            : "Draw failed.";
-//                    message.setValue(msg);
-//                    loading.setValue(false);
-//                });
     }
 
     /**
@@ -201,15 +213,17 @@ public class HostedEventDetailsViewModel extends ViewModel {
             return;
         }
 
-        // Update the entry status for the waitlist
-        entry.setStatus(status);
+        // Update a copy, so the list keeps showing the old status until the save succeeds
+        WaitlistEntry updated = new WaitlistEntry(entry);
+        updated.setStatus(status);
 
         // Start the update
         loading.setValue(true);
-        waitlistRepository.addToWaitlistRespectingLimit(e, entry)
+        waitlistRepository.addToWaitlistRespectingLimit(e, updated)
                 .addOnSuccessListener(v -> {
                     loading.setValue(false);
                     message.setValue("Update entrant on waitlist");
+                    replaceInWaitlist(entry, updated);
                 })
                 .addOnFailureListener(exception -> {
                     loading.setValue(false);
@@ -225,6 +239,21 @@ public class HostedEventDetailsViewModel extends ViewModel {
                 });
     }
 
+    /**
+     * Publishes a new waitlist with one entry replaced by its updated copy.
+     */
+    private void replaceInWaitlist(WaitlistEntry original, WaitlistEntry updated) {
+        List<WaitlistEntry> current = waitlist.getValue();
+        if (current == null) return;
+
+        List<WaitlistEntry> next = new ArrayList<>(current);
+        int index = next.indexOf(original);
+        if (index >= 0) {
+            next.set(index, updated);
+            waitlist.setValue(next);
+        }
+    }
+
     /**
      * Deletes an entrant from the waitlist given the waitlist entry item.
      *
@@ -284,96 +313,26 @@ public class HostedEventDetailsViewModel extends ViewModel {
         return n;
     }
 
-    private void sendNotification(@NonNull String uid, @NonNull AppNotification notification) {
-        notificationRepository.addNotification(uid, notification);
-    }
-
     private void runLotteryWithSelectionAndNotifications(Event e) {
-        // Get the current waitlist
-        waitlistRepository.getWaitlist(e)
-                .addOnSuccessListener(waitlist -> {
-                    if (waitlist.isEmpty()) {
-                        loading.setValue(false);
+        // The engine loads the waitlist, invites in chunks and notifies everyone, resuming any
+        // unfinished draw for this event instead of starting a second one
+        drawEngine.draw(e, createInvitedNotification(e), createNotSelectedNotification(e))
+                .addOnSuccessListener(run -> {
+                    drawInProgress.setValue(false);
+                    loading.setValue(false);
+                    if (run.getCandidateCount() == 0) {
                         message.setValue("No one on the waitlist");
                         return;
                     }
-
-                    int invitedCount = 0;
-                    int acceptedCount = 0;
-
-                    for (WaitlistEntry entry : waitlist) {
-                        String status = entry.getStatus();
-
-                        if ("accepted".equals(status)) {
-                            acceptedCount++;
-                        } else if ("invited".equals(status)) {
-                            invitedCount++;
-                        }
-                    }
-
-                    int maxSelectableEntrantsCount = e.getCapacity() - invitedCount - acceptedCount;
-
-                    if (maxSelectableEntrantsCount <= 0) {
-                        message.setValue("Max invitations has already been sent");
-                        loading.setValue(false);
-                        return;
-                    }
-
-                    // Get the list of entrants that are "waiting"
-                    List<WaitlistEntry> waitingEntrants = waitlist.stream()
-                            .filter(entry -> "waiting".equals(entry.getStatus()))
-                            .collect(Collectors.toList());
-
-                    // Shuffle the list of entrants (no particular order)
-                    Collections.shuffle(waitingEntrants);
-
-                    List<WaitlistEntry> invitedEntrants = new ArrayList<>();
-
-                    // Loop through each entrant in the random order and update their invite status until
-                    // room is full. Each entrant invited receives a notification and everyone else receives
-                    // a not selected notification.
-                    for (int i = 0; i < waitingEntrants.size(); i++) {
-                        WaitlistEntry entry = waitingEntrants.get(i);
-                        String uid = entry.getProfile().getUid();
-
-                        // INVITE: This entrant will be invited
-                        if (i < maxSelectableEntrantsCount) {
-                            // Invite this person now
-                            entry.setInvitedAt(new Date());
-                            entry.setStatus("invited");
-                            invitedEntrants.add(entry);
-
-                            // Send the invite notification
-                            sendNotification(uid, createInvitedNotification(e));
-                        } else {
-                            // NOT SELECTED: Not chosen this draw
-                            // Send a notification to these entrants
-                            sendNotification(uid, createNotSelectedNotification(e));
-                        }
-                    }
-
-                    // Update the entrants
-                    waitlistRepository.updateMultipleEntries(invitedEntrants)
-                            .addOnSuccessListener(a -> {
-                                message.setValue("Draw Complete!");
-                                loading.setValue(false);
-                                fetchWaitlist(e);
-                            })
-                            .addOnFailureListener(err -> {
-                                String msg = (err.getMessage() != null)
-                                        ? err.getMessage()
-                                        : "Draw failed.";
-                                message.setValue(msg);
-                                loading.setValue(false);
-                            });
-
-
+                    message.setValue("Draw Complete!");
+                    fetchWaitlist(e);
                 })
                 .addOnFailureListener(err -> {
                     String msg = (err.getMessage() != null)
                             ? err.getMessage()
                             : "Draw failed.";
                     message.setValue(msg);
+                    drawInProgress.setValue(false);
                     loading.setValue(false);
                 });
     }
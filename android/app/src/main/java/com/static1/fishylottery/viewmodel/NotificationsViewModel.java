@@ -10,7 +10,6 @@ import androidx.lifecycle.ViewModel;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.QuerySnapshot;
 import com.static1.fishylottery.model.entities.AppNotification;
 import com.static1.fishylottery.model.repositories.NotificationRepository;
 import com.static1.fishylottery.services.NotificationSettings;
@@ -24,15 +23,35 @@ import java.util.List;
  */
 public class NotificationsViewModel extends ViewModel {
 
+    /** Notifications per page, both for the live newest page and for each older page. */
+    private static final int PAGE_SIZE = 20;
+
     private final NotificationRepository repo = new NotificationRepository();
     private final MutableLiveData<List<AppNotification>> inbox = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> loadingMore = new MutableLiveData<>(false);
     private ListenerRegistration reg;
     private Context context;
 
+    private String uid;
+    private List<AppNotification> newest = new ArrayList<>();
+    private final List<AppNotification> older = new ArrayList<>();
+    private DocumentSnapshot olderCursor;
+    private boolean hasMore;
+    private int generation;
+
     public LiveData<List<AppNotification>> getInbox() {
         return inbox;
     }
 
+    /**
+     * Returns whether an older page is being loaded.
+     *
+     * @return The live boolean.
+     */
+    public LiveData<Boolean> isLoadingMore() {
+        return loadingMore;
+    }
+
     /**
      * Called by NotificationsFragment.onStart()
      */
@@ -40,6 +59,12 @@ public class NotificationsViewModel extends ViewModel {
         this.context = context;
         stop();
 
+        this.uid = uid;
+        newest = new ArrayList<>();
+        older.clear();
+        olderCursor = null;
+        hasMore = false;
+
         // Check if notifications are enabled before starting listener
         if (!NotificationSettings.areNotificationsEnabled(context)) {
             // If notifications are disabled, post empty list and return
@@ -47,9 +72,10 @@ public class NotificationsViewModel extends ViewModel {
             return;
         }
 
+        // Only the newest page is live; older pages are appended by loadMore()
         // IMPORTANT: use FirebaseFirestoreException (not Exception)
-        reg = repo.listenToInbox(uid, (QuerySnapshot snap, FirebaseFirestoreException err) -> {
-            if (snap == null) return;
+        reg = repo.listenToInbox(uid, PAGE_SIZE, (NotificationRepository.InboxPage page, FirebaseFirestoreException err) -> {
+            if (page == null) return;
 
             // Double-check preference hasn't changed
             if (!NotificationSettings.areNotificationsEnabled(context)) {
@@ -57,25 +83,53 @@ public class NotificationsViewModel extends ViewModel {
                 return;
             }
 
-            List<AppNotification> out = new ArrayList<>();
-
-            // IMPORTANT: explicitly type DocumentSnapshot
-            for (DocumentSnapshot doc : snap.getDocuments()) {
-                AppNotification n = doc.toObject(AppNotification.class);
-                if (n != null) {
-                    n.setId(doc.getId());
-                    out.add(n);
-                }
+            newest = page.getItems();
+            if (older.isEmpty()) {
+                olderCursor = page.getCursor();
+                hasMore = page.hasMore();
             }
-
-            inbox.postValue(out);
+            publish();
         });
     }
 
+    /**
+     * Loads the next page of older notifications below the ones already shown. Does nothing while
+     * a page is loading or once the end of the inbox has been reached.
+     */
+    public void loadMore() {
+        if (uid == null || reg == null || !hasMore || olderCursor == null
+                || Boolean.TRUE.equals(loadingMore.getValue())) {
+            return;
+        }
+
+        int requested = generation;
+        loadingMore.setValue(true);
+        repo.fetchInboxPage(uid, olderCursor, PAGE_SIZE)
+                .addOnSuccessListener(page -> {
+                    loadingMore.setValue(false);
+                    // The inbox was restarted while this page loaded
+                    if (requested != generation) return;
+
+                    older.addAll(page.getItems());
+                    olderCursor = page.getCursor();
+                    hasMore = page.hasMore();
+                    publish();
+                })
+                .addOnFailureListener(e -> loadingMore.setValue(false));
+    }
+
+    private void publish() {
+        List<AppNotification> all = new ArrayList<>(newest.size() + older.size());
+        all.addAll(newest);
+        all.addAll(older);
+        inbox.postValue(all);
+    }
+
     /**
      * Called by NotificationsFragment.onStop()
      */
     public void stop() {
+        generation++;
         if (reg != null) {
             reg.remove();
             reg = null;
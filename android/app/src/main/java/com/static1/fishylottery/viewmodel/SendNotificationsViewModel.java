@@ -6,12 +6,6 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.google.android.gms.tasks.Task;
-import com.google.android.gms.tasks.Tasks;
-import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.SetOptions;
-import com.google.firebase.firestore.WriteBatch;
 import com.static1.fishylottery.model.entities.AppNotification;
 import com.static1.fishylottery.model.entities.Event;
 import com.static1.fishylottery.model.entities.WaitlistEntry;
@@ -19,12 +13,14 @@ import com.static1.fishylottery.model.repositories.NotificationRepository;
 import com.static1.fishylottery.model.repositories.WaitlistRepository;
 import com.static1.fishylottery.services.AuthManager;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class SendNotificationsViewModel extends ViewModel {
+    /** Audience size from which the notification body is stored once as a shared broadcast. */
+    private static final int SHARED_BODY_MIN_RECIPIENTS = 50;
+
     private final MutableLiveData<Boolean> sending = new MutableLiveData<>(false);
     private final MutableLiveData<String> error = new MutableLiveData<>(null);
     private final MutableLiveData<Boolean> success = new MutableLiveData<>(false);
@@ -35,7 +31,21 @@ public class SendNotificationsViewModel extends ViewModel {
     public LiveData<String> getError() { return error; }
     public LiveData<Boolean> getSuccess() { return success; }
 
+    /**
+     * Sends a notification to every entrant of the event in the chosen audience. The
+     * notifications are written in bulk batches; the returned task completes once every batch
+     * has finished and fails if any recipient did not get the notification.
+     *
+     * @param event The event whose waitlist is notified.
+     * @param audience The entrants to notify.
+     * @param title The notification title.
+     * @param message The notification message.
+     * @return A task indicating success or failure.
+     */
     public Task<Void> sendCustomNotification(Event event, Audience audience, String title, String message) {
+        sending.setValue(true);
+        success.setValue(false);
+
         return waitlistRepo.getWaitlist(event).continueWithTask(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
@@ -66,56 +76,45 @@ public class SendNotificationsViewModel extends ViewModel {
             notification.setCreatedAt(new Date());
             notification.setSenderId(senderId);
 
+            List<String> uids = new ArrayList<>();
             for (WaitlistEntry entry : waitlist) {
-                String uid = entry.getProfile().getUid();
-
                 // Ensure that the entry is part of the target audience for the notification
                 if (!isEntrantInAudience(entry, audience)) {
                     continue;
                 }
+                if (entry.getProfile() != null && entry.getProfile().getUid() != null) {
+                    uids.add(entry.getProfile().getUid());
+                }
+            }
 
-                // Send the notification to the user
-                notificationRepository.addNotification(uid, notification)
-                        .continueWithTask(task2 -> {
-                            if (!task2.isSuccessful()) {
-                                throw task2.getException();
-                            }
+            // Large audiences share one stored body and each inbox only gets a pointer to it
+            if (uids.size() >= SHARED_BODY_MIN_RECIPIENTS) {
+                return notificationRepository.broadcastNotificationsBulk(uids, notification, null);
+            }
+            return notificationRepository.addNotificationsBulk(uids, notification, null);
+        }).continueWith(task -> {
+            sending.setValue(false);
 
-                            return Tasks.forResult(null);
-                        });
+            if (!task.isSuccessful()) {
+                error.setValue("Failed to send notification");
+                throw task.getException();
+            }
+
+            NotificationRepository.BulkResult result = task.getResult();
+            if (!result.isComplete()) {
+                error.setValue("Failed to notify " + result.getFailedUids().size() + " entrants");
+                throw result.getFirstError() != null
+                        ? result.getFirstError()
+                        : new IllegalStateException("Notification was not sent to every entrant");
             }
 
-            return Tasks.forResult(null);
+            success.setValue(true);
+            return null;
         });
     }
 
     public enum Audience { SELECTED, WAITLIST, CANCELLED, EVERYONE, ACCEPTED }
 
-    private final FirebaseFirestore db = FirebaseFirestore.getInstance();
-
-    /** Send one notification to each uid (batched). Returns a Task that completes when all writes finish. */
-    private Task<Void> sendToUids(@NonNull List<String> uids, @NonNull AppNotification notif) {
-        if (uids.isEmpty()) return com.google.android.gms.tasks.Tasks.forResult(null);
-
-        WriteBatch batch = db.batch();
-        Timestamp ts = Timestamp.now();
-
-        for (String uid : uids) {
-            DocumentReference ref = db.collection("users").document(uid)
-                    .collection("notifications").document();
-            Map<String, Object> data = new HashMap<>();
-            data.put("eventId", notif.getEventId());
-            data.put("senderId", notif.getSenderId());
-            data.put("title", notif.getTitle());
-            data.put("message", notif.getMessage());
-            data.put("type", notif.getType());
-            data.put("createdAt", ts);
-            data.put("read", false);
-            batch.set(ref, data, SetOptions.merge());
-        }
-        return batch.commit();
-    }
-
     private boolean isEntrantInAudience(@NonNull WaitlistEntry entry, Audience audience) {
         String status = entry.getStatus();
         switch (audience) {
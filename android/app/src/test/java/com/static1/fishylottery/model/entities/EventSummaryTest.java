@@ -0,0 +1,60 @@
+package com.static1.fishylottery.model.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.util.Date;
+
+/**
+ * Tests for the event summary mirrored onto entrant waitlist documents.
+ */
+public class EventSummaryTest {
+
+    private static Event event() {
+        Event event = new Event();
+        event.setEventId("e1");
+        event.setTitle("Swim lessons");
+        event.setDescription("Beginner level");
+        event.setEventStartDate(new Date(1000));
+        event.setEventEndDate(new Date(2000));
+        event.setLocation("Pool");
+        event.setImageUrl("https://example.com/poster.png");
+        return event;
+    }
+
+    @Test
+    public void toEvent_keepsOnlySummaryFields() {
+        Event partial = EventSummary.from(event()).toEvent("e1");
+
+        assertEquals("e1", partial.getEventId());
+        assertEquals("Swim lessons", partial.getTitle());
+        assertEquals(new Date(1000), partial.getEventStartDate());
+        assertEquals(new Date(2000), partial.getEventEndDate());
+        assertEquals("Pool", partial.getLocation());
+        assertEquals("https://example.com/poster.png", partial.getImageUrl());
+        assertNull(partial.getDescription());
+    }
+
+    @Test
+    public void equals_ignoresFieldsOutsideSummary() {
+        Event changed = event();
+        changed.setDescription("Advanced level");
+        changed.setCapacity(10);
+
+        assertEquals(EventSummary.from(event()), EventSummary.from(changed));
+    }
+
+    @Test
+    public void equals_detectsSummaryChanges() {
+        Event moved = event();
+        moved.setLocation("Gym");
+        Event renamed = event();
+        renamed.setTitle("Dive lessons");
+
+        assertNotEquals(EventSummary.from(event()), EventSummary.from(moved));
+        assertNotEquals(EventSummary.from(event()), EventSummary.from(renamed));
+    }
+}
@@ -0,0 +1,36 @@
+package com.static1.fishylottery.model.logic;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CascadeDeleterTest {
+
+    private static boolean deletes(String collection, String child) {
+        for (String[] deleted : CascadeDeleter.EVENT_SUBCOLLECTIONS) {
+            List<String> children = Arrays.asList(deleted).subList(1, deleted.length);
+            if (deleted[0].equals(collection) && (child == null || children.contains(child))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void eventSubcollections_coverEverythingTheDrawWrites() {
+        for (String[] written : LotteryDrawEngine.SUBCOLLECTIONS) {
+            assertTrue(written[0], deletes(written[0], null));
+            for (int i = 1; i < written.length; i++) {
+                assertTrue(written[0] + "/" + written[i], deletes(written[0], written[i]));
+            }
+        }
+    }
+
+    @Test
+    public void eventSubcollections_includeDrawWinners() {
+        assertTrue(deletes(LotteryDrawEngine.DRAWS, LotteryDrawEngine.WINNERS));
+    }
+}
@@ -0,0 +1,92 @@
+package com.static1.fishylottery.model.logic;
+
+import com.static1.fishylottery.model.entities.DrawRecord;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DrawAuditTest {
+
+    private static List<String> candidates(int n) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) ids.add("uid" + i);
+        return ids;
+    }
+
+    private static DrawRecord record(List<String> candidates, int slots, long seed) {
+        DrawRecord r = new DrawRecord();
+        r.setDrawId("run1");
+        r.setAlgorithm(DrawAudit.ALGORITHM);
+        r.setSeed(seed);
+        r.setSlots(slots);
+        r.setCandidateCount(candidates.size());
+        r.setCandidateHash(DrawAudit.hashCandidates(candidates));
+        List<String> winners = DrawAudit.replay(candidates, slots, seed);
+        r.setWinnerCount(winners.size());
+        r.setWinnerHash(DrawAudit.hashWinners(winners));
+        return r;
+    }
+
+    @Test
+    public void replay_matchesDrawSelector() {
+        List<String> ids = candidates(50);
+        assertEquals(DrawSelector.select(ids, 5, 77L), DrawAudit.replay(ids, 5, 77L));
+    }
+
+    @Test
+    public void hash_isOrderSensitive_andUnambiguous() {
+        assertNotEquals(
+                DrawAudit.hashCandidates(Arrays.asList("a", "b")),
+                DrawAudit.hashCandidates(Arrays.asList("b", "a")));
+        assertNotEquals(
+                DrawAudit.hashCandidates(Arrays.asList("ab", "c")),
+                DrawAudit.hashCandidates(Arrays.asList("a", "bc")));
+        assertEquals(64, DrawAudit.hashCandidates(new ArrayList<>()).length());
+    }
+
+    @Test
+    public void verify_recordedDraw_isVerified() {
+        List<String> ids = candidates(200);
+        DrawAudit.Verification v = DrawAudit.verify(record(ids, 10, 1234L), ids);
+        assertTrue(v.isVerified());
+        assertEquals("run1", v.getDrawId());
+    }
+
+    @Test
+    public void verify_changedCandidates_isCandidatesMismatch() {
+        List<String> ids = candidates(20);
+        DrawRecord r = record(ids, 3, 9L);
+        List<String> tampered = new ArrayList<>(ids);
+        tampered.set(4, "intruder");
+        assertEquals(DrawAudit.Outcome.CANDIDATES_MISMATCH, DrawAudit.verify(r, tampered).getOutcome());
+    }
+
+    @Test
+    public void verify_changedWinners_isWinnersMismatch() {
+        List<String> ids = candidates(20);
+        DrawRecord r = record(ids, 3, 9L);
+        r.setWinnerHash(DrawAudit.hashWinners(Arrays.asList("uid0", "uid1", "uid2")));
+        assertEquals(DrawAudit.Outcome.WINNERS_MISMATCH, DrawAudit.verify(r, ids).getOutcome());
+    }
+
+    @Test
+    public void verify_recordWithoutWinnerHash_isWinnersMismatch() {
+        List<String> ids = candidates(30);
+        DrawRecord r = record(ids, 4, 5L);
+        r.setWinnerHash(null);
+        assertEquals(DrawAudit.Outcome.WINNERS_MISMATCH, DrawAudit.verify(r, ids).getOutcome());
+    }
+
+    @Test
+    public void verify_unknownAlgorithm_isUnsupported() {
+        List<String> ids = candidates(5);
+        DrawRecord r = record(ids, 2, 1L);
+        r.setAlgorithm("Collections.shuffle");
+        assertEquals(DrawAudit.Outcome.UNSUPPORTED_ALGORITHM, DrawAudit.verify(r, ids).getOutcome());
+    }
+}
@@ -0,0 +1,71 @@
+package com.static1.fishylottery.model.logic;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rough timing of {@link DrawSelector#select(List, int, Random)} against the previous
+ * copy-and-shuffle implementation. Wall-clock timings are noisy, so this only fails when the
+ * selection is several times slower than the shuffle on a large waitlist; the timings of every
+ * case are part of the failure message. Skipped by default; run with
+ * {@code ./gradlew test -Dbenchmarks=true --tests "*DrawSelectorBenchmark"}.
+ */
+public class DrawSelectorBenchmark {
+    private static final int[] SIZES = {1_000, 100_000, 1_000_000};
+    private static final int[] KS = {10, 1_000};
+    /** Below this size both are too fast for the comparison to mean anything. */
+    private static final int MIN_COMPARED_SIZE = 100_000;
+    /** How many times slower than the shuffle the selection may be before this fails. */
+    private static final int MAX_SLOWDOWN = 3;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Test
+    public void compareWithFullShuffle() {
+        assumeTrue(Boolean.getBoolean("benchmarks"));
+
+        StringBuilder timings = new StringBuilder();
+        boolean regressed = false;
+        for (int size : SIZES) {
+            List<String> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ids.add("entrant" + i);
+            }
+            for (int k : KS) {
+                long shuffle = time(() -> fullShuffle(ids, k, new Random(1L)));
+                long partial = time(() -> DrawSelector.select(ids, k, new Random(1L)));
+                timings.append(String.format("%nN=%,d k=%,d  shuffle=%,d ns/op  select=%,d ns/op",
+                        size, k, shuffle, partial));
+                if (size >= MIN_COMPARED_SIZE && partial > MAX_SLOWDOWN * shuffle) {
+                    regressed = true;
+                }
+            }
+        }
+        assertFalse("Selection much slower than a full shuffle:" + timings, regressed);
+    }
+
+    /** The selection as it was before: copy the whole list, shuffle it, take the first k. */
+    private static List<String> fullShuffle(List<String> ids, int k, Random rng) {
+        List<String> copy = new ArrayList<>(ids);
+        Collections.shuffle(copy, rng);
+        return new ArrayList<>(copy.subList(0, Math.min(k, copy.size())));
+    }
+
+    private static long time(Runnable op) {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            op.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -4,7 +4,10 @@ import org.junit.Test;
 import java.util.Collections;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -46,4 +49,53 @@ public class DrawSelectorTest {
     public void negativeN_throws() {
         DrawSelector.select(Collections.singletonList("A"), -1, 7L);
     }
+
+    @Test
+    public void selectIndices_floydPath_uniqueAndInRange() {
+        // k is far below N / 16, so Floyd's algorithm is used
+        int[] out = DrawSelector.selectIndices(1_000_000, 10, new Random(7L));
+        assertEquals(10, out.length);
+        Set<Integer> seen = new HashSet<>();
+        for (int index : out) {
+            assertTrue(index >= 0 && index < 1_000_000);
+            assertTrue(seen.add(index));
+        }
+    }
+
+    @Test
+    public void selectIndices_fisherYatesPath_uniqueAndInRange() {
+        int[] out = DrawSelector.selectIndices(100, 60, new Random(7L));
+        assertEquals(60, out.length);
+        Set<Integer> seen = new HashSet<>();
+        for (int index : out) {
+            assertTrue(index >= 0 && index < 100);
+            assertTrue(seen.add(index));
+        }
+    }
+
+    @Test
+    public void selectIndices_deterministicWithSeed() {
+        assertArrayEquals(
+                DrawSelector.selectIndices(100_000, 1000, new Random(42L)),
+                DrawSelector.selectIndices(100_000, 1000, new Random(42L)));
+        assertArrayEquals(
+                DrawSelector.selectIndices(50, 20, new Random(42L)),
+                DrawSelector.selectIndices(50, 20, new Random(42L)));
+    }
+
+    @Test
+    public void select_nonRandomAccessList_matchesArrayList() {
+        List<String> ids = Arrays.asList("A","B","C","D","E","F","G","H");
+        List<String> out1 = DrawSelector.select(ids, 3, 99L);
+        List<String> out2 = DrawSelector.select(new LinkedList<>(ids), 3, 99L);
+        assertEquals(out1, out2);
+    }
+
+    @Test
+    public void select_doesNotMutateInput() {
+        List<String> ids = Arrays.asList("1","2","3","4","5");
+        List<String> copy = Arrays.asList(ids.toArray(new String[0]));
+        DrawSelector.select(ids, 5, 3L);
+        assertEquals(copy, ids);
+    }
 }
@@ -0,0 +1,87 @@
+package com.static1.fishylottery.model.logic;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.static1.fishylottery.model.entities.Event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rough timing of {@link EventFilterIndex#filter} over 50,000 synthetic events against a full
+ * rescan of the list, the way the browse screen used to re-apply filters. A frame is about
+ * 16 ms; the timings are part of the failure message. Skipped by default; run with
+ * {@code ./gradlew test -Dbenchmarks=true --tests "*EventFilterIndexBenchmark"}.
+ */
+public class EventFilterIndexBenchmark {
+    private static final int EVENTS = 50_000;
+    private static final String[] INTERESTS = {
+            "Music", "Sports", "Art", "Technology", "Travel", "Food",
+            "Fitness", "Education", "Nature", "Movies", "Reading"};
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long FRAME_NANOS = 16_000_000L;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 50;
+
+    @Test
+    public void compareWithRescan() {
+        assumeTrue(Boolean.getBoolean("benchmarks"));
+
+        Random rng = new Random(1L);
+        List<Event> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            Event e = new Event();
+            e.setEventId("event" + i);
+            e.setEventStartDate(new Date(rng.nextInt(3650) * DAY));
+            e.setInterests(Arrays.asList(
+                    INTERESTS[rng.nextInt(INTERESTS.length)],
+                    INTERESTS[rng.nextInt(INTERESTS.length)]));
+            events.add(e);
+        }
+
+        long build = time(() -> new EventFilterIndex(events));
+        EventFilterIndex index = new EventFilterIndex(events);
+        Date from = new Date(1000 * DAY);
+        Date to = new Date(1365 * DAY);
+
+        long rescan = time(() -> rescan(events, "music", from, to));
+        long indexed = time(() -> index.filter("music", from, to));
+        long interestOnly = time(() -> index.filter("music", null, null));
+        String timings = String.format("N=%,d  build=%,d ns  rescan=%,d ns/op  index=%,d ns/op  interestOnly=%,d ns/op",
+                EVENTS, build, rescan, indexed, interestOnly);
+        assertTrue("Filtering took longer than a frame: " + timings,
+                indexed < FRAME_NANOS && interestOnly < FRAME_NANOS);
+    }
+
+    /** The filter as it was before: copy, scan every event's interests and dates, then sort. */
+    private static List<Event> rescan(List<Event> events, String interest, Date from, Date to) {
+        List<Event> result = new ArrayList<>(events);
+        result.removeIf(event -> {
+            for (String i : event.getInterests()) {
+                if (i != null && i.trim().equalsIgnoreCase(interest)) {
+                    return event.getEventStartDate().before(from) || event.getEventStartDate().after(to);
+                }
+            }
+            return true;
+        });
+        result.sort((a, b) -> a.getEventStartDate().compareTo(b.getEventStartDate()));
+        return result;
+    }
+
+    private static long time(Runnable op) {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            op.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
@@ -0,0 +1,74 @@
+package com.static1.fishylottery.model.logic;
+
+import com.static1.fishylottery.model.entities.Event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventFilterIndexTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static Event event(String id, Long startDay, String... interests) {
+        Event e = new Event();
+        e.setEventId(id);
+        e.setEventStartDate(startDay != null ? new Date(startDay * DAY) : null);
+        e.setInterests(Arrays.asList(interests));
+        return e;
+    }
+
+    private static List<String> ids(List<Event> events) {
+        List<String> ids = new ArrayList<>();
+        for (Event e : events) ids.add(e.getEventId());
+        return ids;
+    }
+
+    private static Date day(long d) {
+        return new Date(d * DAY);
+    }
+
+    private final EventFilterIndex index = new EventFilterIndex(Arrays.asList(
+            event("c", 30L, "Music"),
+            event("a", 10L, "Art", "Music"),
+            event("none", null, "Music"),
+            event("b", 20L, " art "),
+            event("d", 40L)));
+
+    @Test
+    public void noFilters_returnsAllSortedByStart_undatedLast() {
+        assertEquals(Arrays.asList("a", "b", "c", "d", "none"), ids(index.filter(null, null, null)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void interest_isCaseAndWhitespaceInsensitive() {
+        assertEquals(Arrays.asList("a", "b"), ids(index.filter("ART", null, null)));
+        assertEquals(Arrays.asList("a", "c", "none"), ids(index.filter("music", null, null)));
+        assertTrue(index.filter("Travel", null, null).isEmpty());
+    }
+
+    @Test
+    public void dateRange_isInclusive_andSkipsUndated() {
+        assertEquals(Arrays.asList("b", "c"), ids(index.filter(null, day(20), day(30))));
+        assertEquals(Arrays.asList("c", "d"), ids(index.filter(null, day(25), null)));
+        assertEquals(Arrays.asList("a"), ids(index.filter(null, null, day(15))));
+        assertTrue(index.filter(null, day(50), day(60)).isEmpty());
+    }
+
+    @Test
+    public void interestAndRange_intersect() {
+        assertEquals(Arrays.asList("c"), ids(index.filter("Music", day(15), null)));
+    }
+
+    @Test
+    public void emptyIndex_returnsNothing() {
+        EventFilterIndex empty = new EventFilterIndex(new ArrayList<>());
+        assertTrue(empty.filter(null, null, null).isEmpty());
+        assertTrue(empty.filter("Music", day(1), day(2)).isEmpty());
+    }
+}
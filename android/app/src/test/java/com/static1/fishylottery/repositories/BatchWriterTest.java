@@ -0,0 +1,266 @@
+package com.static1.fishylottery.repositories;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.WriteBatch;
+import com.static1.fishylottery.model.repositories.BatchWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class BatchWriterTest {
+
+    private final List<WriteBatch> batches = new ArrayList<>();
+    private final List<Task<Void>> commits = new ArrayList<>();
+    private final List<Runnable> retries = new ArrayList<>();
+    private final DocumentReference ref = mock(DocumentReference.class);
+    private FirebaseFirestore db;
+    private long now;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        db = mock(FirebaseFirestore.class);
+        when(db.batch()).thenAnswer(invocation -> {
+            WriteBatch batch = mock(WriteBatch.class);
+            Task<Void> commit = mock(Task.class);
+            when(batch.commit()).thenReturn(commit);
+            batches.add(batch);
+            commits.add(commit);
+            return batch;
+        });
+    }
+
+    private BatchWriter writer() {
+        return new BatchWriter(db, (action, delay) -> retries.add(action), () -> now, new Random(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void finish(int commit, Exception error) {
+        Task<Void> task = commits.get(commit);
+        when(task.isSuccessful()).thenReturn(error == null);
+        when(task.getException()).thenReturn(error);
+        ArgumentCaptor<OnCompleteListener<Void>> listener = ArgumentCaptor.forClass(OnCompleteListener.class);
+        verify(task).addOnCompleteListener(listener.capture());
+        listener.getValue().onComplete(task);
+    }
+
+    @Test
+    public void deletes_areSplitAtTheWriteLimit() {
+        BatchWriter writer = writer();
+        for (int i = 0; i < 1200; i++) {
+            writer.delete(ref);
+        }
+        Task<Void> flushed = writer.flush();
+
+        assertEquals(3, batches.size());
+        verify(batches.get(0), times(500)).delete(any(DocumentReference.class));
+        verify(batches.get(1), times(500)).delete(any(DocumentReference.class));
+        verify(batches.get(2), times(200)).delete(any(DocumentReference.class));
+
+        now = 2000;
+        for (int i = 0; i < 3; i++) {
+            finish(i, null);
+        }
+        assertTrue(flushed.isSuccessful());
+        assertEquals(3, writer.getMetrics().getBatches());
+        assertEquals(1200, writer.getMetrics().getWrites());
+        assertEquals(600.0, writer.getMetrics().getWritesPerSecond(), 0.001);
+    }
+
+    @Test
+    public void group_isNeverSplitAcrossBatches() {
+        BatchWriter writer = writer();
+        writer.add(300, batch -> { });
+        writer.add(300, batch -> { });
+        writer.flush();
+
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    public void batchesBeyondTheLimit_waitForACommitSlot() {
+        BatchWriter writer = writer().setMaxInFlight(1);
+        for (int i = 0; i < 1000; i++) {
+            writer.delete(ref);
+        }
+        Task<Void> flushed = writer.flush();
+        Task<Void> ready = writer.ready();
+
+        assertEquals(1, batches.size());
+        assertFalse(ready.isComplete());
+
+        finish(0, null);
+        assertEquals(2, batches.size());
+        assertTrue(ready.isComplete());
+        assertFalse(flushed.isComplete());
+
+        finish(1, null);
+        assertTrue(flushed.isSuccessful());
+    }
+
+    @Test
+    public void abortedCommit_isRebuiltAndRetried() {
+        BatchWriter writer = writer();
+        writer.delete(ref);
+        Task<Void> flushed = writer.flush();
+
+        finish(0, new FirebaseFirestoreException("contention", FirebaseFirestoreException.Code.ABORTED));
+        assertEquals(1, retries.size());
+        assertFalse(flushed.isComplete());
+
+        retries.get(0).run();
+        assertEquals(2, batches.size());
+        verify(batches.get(1)).delete(ref);
+
+        finish(1, null);
+        assertTrue(flushed.isSuccessful());
+        assertEquals(1, writer.getMetrics().getRetries());
+    }
+
+    @Test
+    public void permanentFailure_failsFlush() {
+        BatchWriter writer = writer();
+        writer.delete(ref);
+        Task<Void> flushed = writer.flush();
+
+        FirebaseFirestoreException denied =
+                new FirebaseFirestoreException("denied", FirebaseFirestoreException.Code.PERMISSION_DENIED);
+        finish(0, denied);
+
+        assertTrue(retries.isEmpty());
+        assertTrue(flushed.isComplete());
+        assertSame(denied, flushed.getException());
+    }
+
+    @Test
+    public void retries_giveUpAfterMaxAttempts() {
+        BatchWriter writer = writer().setMaxAttempts(2);
+        writer.delete(ref);
+        Task<Void> flushed = writer.flush();
+
+        finish(0, new FirebaseFirestoreException("busy", FirebaseFirestoreException.Code.UNAVAILABLE));
+        retries.get(0).run();
+        finish(1, new FirebaseFirestoreException("busy", FirebaseFirestoreException.Code.UNAVAILABLE));
+
+        assertEquals(1, retries.size());
+        assertTrue(flushed.isComplete());
+        assertFalse(flushed.isSuccessful());
+    }
+
+    @Test
+    public void nonIdempotentGroup_isNotRetriedAfterATimeout() {
+        BatchWriter writer = writer();
+        writer.delete(ref);
+        writer.add(1, false, batch -> { });
+        Task<Void> flushed = writer.flush();
+
+        finish(0, new FirebaseFirestoreException("timeout", FirebaseFirestoreException.Code.DEADLINE_EXCEEDED));
+
+        assertTrue(retries.isEmpty());
+        assertTrue(flushed.isComplete());
+        assertFalse(flushed.isSuccessful());
+    }
+
+    @Test
+    public void nonIdempotentGroup_isRetriedWhenAborted() {
+        BatchWriter writer = writer();
+        writer.add(1, false, batch -> { });
+        Task<Void> flushed = writer.flush();
+
+        finish(0, new FirebaseFirestoreException("contention", FirebaseFirestoreException.Code.ABORTED));
+        retries.get(0).run();
+        finish(1, null);
+
+        assertTrue(flushed.isSuccessful());
+    }
+
+    @Test
+    public void nonIdempotentGroup_onlyAffectsItsOwnBatch() {
+        BatchWriter writer = writer();
+        writer.add(400, false, batch -> { });
+        writer.add(400, batch -> { });
+        writer.flush();
+
+        finish(1, new FirebaseFirestoreException("busy", FirebaseFirestoreException.Code.UNAVAILABLE));
+
+        assertEquals(1, retries.size());
+    }
+
+    @Test
+    public void nonIdempotentBatchHook_stopsRetriesAfterATimeout() {
+        BatchWriter writer = writer().setBatchHook(1, false, (batch, writes) -> { });
+        writer.delete(ref);
+        Task<Void> flushed = writer.flush();
+
+        finish(0, new FirebaseFirestoreException("busy", FirebaseFirestoreException.Code.UNAVAILABLE));
+
+        assertTrue(retries.isEmpty());
+        assertFalse(flushed.isSuccessful());
+    }
+
+    @Test
+    public void batchHook_isAddedToEveryBatchAndLeavesRoom() {
+        List<Integer> hooked = new ArrayList<>();
+        BatchWriter writer = writer().setBatchHook(1, (batch, writes) -> hooked.add(writes));
+        for (int i = 0; i < 998; i++) {
+            writer.delete(ref);
+        }
+        writer.flush();
+
+        assertEquals(2, batches.size());
+        assertEquals(Arrays.asList(499, 499), hooked);
+    }
+
+    @Test
+    public void backoff_growsAndStaysInBounds() {
+        assertEquals(100, BatchWriter.backoffMillis(1, 0));
+        assertTrue(BatchWriter.backoffMillis(1, 0.999) < 200);
+        assertEquals(400, BatchWriter.backoffMillis(3, 0));
+        assertEquals(5_000, BatchWriter.backoffMillis(30, 0));
+        assertTrue(BatchWriter.backoffMillis(30, 0.999) < 10_000);
+    }
+
+    @Test
+    public void isRetryable_onlyForTemporaryErrors() {
+        assertTrue(BatchWriter.isRetryable(
+                new FirebaseFirestoreException("", FirebaseFirestoreException.Code.ABORTED)));
+        assertTrue(BatchWriter.isRetryable(
+                new FirebaseFirestoreException("", FirebaseFirestoreException.Code.DEADLINE_EXCEEDED)));
+        assertFalse(BatchWriter.isRetryable(
+                new FirebaseFirestoreException("", FirebaseFirestoreException.Code.NOT_FOUND)));
+        assertFalse(BatchWriter.isRetryable(new IllegalStateException()));
+        assertFalse(BatchWriter.isRetryable(null));
+    }
+
+    @Test
+    public void isRetryable_whenNotIdempotent_onlyForRejectedCommits() {
+        assertTrue(BatchWriter.isRetryable(
+                new FirebaseFirestoreException("", FirebaseFirestoreException.Code.ABORTED), false));
+        assertTrue(BatchWriter.isRetryable(
+                new FirebaseFirestoreException("", FirebaseFirestoreException.Code.RESOURCE_EXHAUSTED), false));
+        assertFalse(BatchWriter.isRetryable(
+                new FirebaseFirestoreException("", FirebaseFirestoreException.Code.UNAVAILABLE), false));
+        assertFalse(BatchWriter.isRetryable(
+                new FirebaseFirestoreException("", FirebaseFirestoreException.Code.DEADLINE_EXCEEDED), false));
+    }
+}
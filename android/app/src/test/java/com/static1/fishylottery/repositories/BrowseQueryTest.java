@@ -0,0 +1,106 @@
+package com.static1.fishylottery.repositories;
+
+import com.static1.fishylottery.model.entities.Event;
+import com.static1.fishylottery.model.repositories.BrowseQuery;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class BrowseQueryTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final Date NOW = new Date(100 * DAY);
+
+    private static Event openEvent(long startDay, String... interests) {
+        Event e = new Event();
+        e.setRegistrationOpens(new Date(NOW.getTime() - DAY));
+        e.setRegistrationCloses(new Date(NOW.getTime() + DAY));
+        e.setEventStartDate(new Date(startDay * DAY));
+        e.setInterests(Arrays.asList(interests));
+        return e;
+    }
+
+    private static BrowseQuery query(String interest, Long fromDay, Long toDay) {
+        return new BrowseQuery(
+                interest,
+                fromDay != null ? new Date(fromDay * DAY) : null,
+                toDay != null ? new Date(toDay * DAY) : null,
+                NOW,
+                BrowseQuery.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    public void noFilters_matchesOpenEvent() {
+        assertTrue(query(null, null, null).matches(openEvent(110)));
+    }
+
+    @Test
+    public void closedOrNotYetOpenRegistration_doesNotMatch() {
+        Event closed = openEvent(110);
+        closed.setRegistrationCloses(new Date(NOW.getTime() - 1));
+        Event notOpen = openEvent(110);
+        notOpen.setRegistrationOpens(new Date(NOW.getTime() + 1));
+        Event noWindow = openEvent(110);
+        noWindow.setRegistrationOpens(null);
+
+        BrowseQuery q = query(null, null, null);
+        assertFalse(q.matches(closed));
+        assertFalse(q.matches(notOpen));
+        assertFalse(q.matches(noWindow));
+    }
+
+    @Test
+    public void interest_mustBeTagged() {
+        BrowseQuery q = query("Music", null, null);
+        assertTrue(q.matches(openEvent(110, "Art", "Music")));
+        assertFalse(q.matches(openEvent(110, "Art")));
+    }
+
+    @Test
+    public void startRange_isInclusive() {
+        BrowseQuery q = query(null, 105L, 110L);
+        assertTrue(q.matches(openEvent(105)));
+        assertTrue(q.matches(openEvent(110)));
+        assertFalse(q.matches(openEvent(104)));
+        assertFalse(q.matches(openEvent(111)));
+    }
+
+    @Test
+    public void missingStartDate_doesNotMatch() {
+        Event e = openEvent(110);
+        e.setEventStartDate(null);
+        assertFalse(query(null, null, null).matches(e));
+    }
+
+    @Test
+    public void covers_onlyNarrowerQueries() {
+        BrowseQuery broad = query(null, 100L, null);
+        assertTrue(broad.covers(query("Music", 105L, 120L)));
+        assertTrue(broad.covers(broad));
+        assertFalse(broad.covers(query(null, 90L, null)));
+        assertFalse(broad.covers(query(null, null, 120L)));
+        assertFalse(query("Music", null, null).covers(query(null, null, null)));
+        assertFalse(query(null, null, 120L).covers(query(null, 100L, null)));
+    }
+
+    @Test
+    public void covers_onlyQueriesShortlyAfterIt() {
+        BrowseQuery broad = query(null, null, null);
+        BrowseQuery later = new BrowseQuery(null, null, null,
+                new Date(NOW.getTime() + BrowseQuery.MAX_COVERED_AGE_MILLIS), BrowseQuery.DEFAULT_PAGE_SIZE);
+        BrowseQuery tooLate = new BrowseQuery(null, null, null,
+                new Date(NOW.getTime() + BrowseQuery.MAX_COVERED_AGE_MILLIS + 1), BrowseQuery.DEFAULT_PAGE_SIZE);
+
+        assertTrue(broad.covers(later));
+        assertFalse(broad.covers(tooLate));
+        assertFalse(later.covers(broad));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositivePageSize_isRejected() {
+        new BrowseQuery(null, null, null, NOW, 0);
+    }
+}
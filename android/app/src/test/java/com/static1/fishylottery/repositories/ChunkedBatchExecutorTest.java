@@ -0,0 +1,29 @@
+package com.static1.fishylottery.repositories;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.static1.fishylottery.model.repositories.BatchWriter;
+import com.static1.fishylottery.model.repositories.ChunkedBatchExecutor.Group;
+
+import org.junit.Test;
+
+public class ChunkedBatchExecutorTest {
+
+    @Test
+    public void group_ofAFullBatch_isAccepted() {
+        assertEquals(BatchWriter.MAX_BATCH_WRITES, new Group(BatchWriter.MAX_BATCH_WRITES, batch -> { }).getSize());
+    }
+
+    @Test
+    public void group_isIdempotentUnlessMarked() {
+        assertTrue(new Group(1, batch -> { }).isIdempotent());
+        assertFalse(new Group(1, false, batch -> { }).isIdempotent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void group_largerThanABatch_isRejected() {
+        new Group(BatchWriter.MAX_BATCH_WRITES + 1, batch -> { });
+    }
+}
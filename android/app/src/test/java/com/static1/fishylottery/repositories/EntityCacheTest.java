@@ -0,0 +1,81 @@
+package com.static1.fishylottery.repositories;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.firebase.firestore.ListenerRegistration;
+import com.static1.fishylottery.model.repositories.EntityCache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class EntityCacheTest {
+
+    private long now = 0;
+
+    private EntityCache<String> cache(int capacity) {
+        return new EntityCache<>("test", capacity, 1000, () -> now);
+    }
+
+    @Test
+    public void get_countsHitsAndMisses() {
+        EntityCache<String> cache = cache(10);
+        assertNull(cache.get("a"));
+        cache.put("a", "A", null);
+        assertEquals("A", cache.get("a"));
+        assertEquals("A", cache.get("a"));
+
+        EntityCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2.0 / 3, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void put_overCapacity_evictsLeastRecentlyUsed() {
+        EntityCache<String> cache = cache(2);
+        cache.put("a", "A", null);
+        cache.put("b", "B", null);
+        cache.get("a");
+        cache.put("c", "C", null);
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    public void get_afterTtl_isMiss() {
+        EntityCache<String> cache = cache(10);
+        cache.put("a", "A", null);
+        now = 999;
+        assertEquals("A", cache.get("a"));
+        now = 1000;
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void listener_isRemovedWheneverEntryLeaves() {
+        EntityCache<String> cache = cache(1);
+        List<String> removed = new ArrayList<>();
+        ListenerRegistration a = () -> removed.add("a");
+        ListenerRegistration b = () -> removed.add("b");
+        ListenerRegistration c = () -> removed.add("c");
+
+        cache.put("a", "A", a);
+        cache.put("a", "A2", b);   // replaced
+        cache.put("c", "C", c);    // evicts the entry for a
+        cache.invalidate("c");
+
+        assertEquals(Arrays.asList("a", "b", "c"), removed);
+        assertEquals(1, cache.getStats().getInvalidations());
+        assertTrue(cache.getStats().toString().startsWith("test:"));
+    }
+}
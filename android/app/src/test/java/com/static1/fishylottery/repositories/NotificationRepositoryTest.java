@@ -1,14 +1,20 @@
 package com.static1.fishylottery.repositories;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.mockStatic;
 
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.static1.fishylottery.model.entities.AppNotification;
 import com.static1.fishylottery.model.repositories.NotificationRepository;
 
 import org.junit.Test;
 import org.mockito.MockedStatic;
 
+import java.util.Date;
+import java.util.Map;
+
 public class NotificationRepositoryTest {
 
     @Test
@@ -21,4 +27,19 @@ public class NotificationRepositoryTest {
             assertNotNull(repo);
         }
     }
+
+    @Test
+    public void pointer_keepsPerUserFields_withoutBody() {
+        AppNotification notif = new AppNotification("event1", "sender1", "Title",
+                "A long message body", "declined", "pending", new Date(1000L), false);
+
+        Map<String, Object> pointer = NotificationRepository.pointerFor("b1", notif);
+
+        assertEquals("b1", pointer.get("broadcastId"));
+        assertEquals("event1", pointer.get("eventId"));
+        assertEquals("pending", pointer.get("status"));
+        assertEquals(false, pointer.get("read"));
+        assertFalse(pointer.containsKey("title"));
+        assertFalse(pointer.containsKey("message"));
+    }
 }
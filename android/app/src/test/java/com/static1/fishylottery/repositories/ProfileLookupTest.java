@@ -0,0 +1,53 @@
+package com.static1.fishylottery.repositories;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.static1.fishylottery.model.entities.Profile;
+import com.static1.fishylottery.model.repositories.ProfileLookup;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProfileLookupTest {
+
+    private static Profile profile(String uid) {
+        Profile profile = new Profile();
+        profile.setUid(uid);
+        return profile;
+    }
+
+    @Test
+    public void distinct_dropsDuplicatesAndNulls_keepingOrder() {
+        List<String> ids = ProfileLookup.distinct(Arrays.asList("b", "a", null, "b", "c", "a"));
+
+        assertEquals(Arrays.asList("b", "a", "c"), ids);
+    }
+
+    @Test
+    public void distinct_nullInput_isEmpty() {
+        assertTrue(ProfileLookup.distinct(null).isEmpty());
+    }
+
+    @Test
+    public void profiles_followRequestOrder_andMissingAreReported() {
+        Profile a = profile("a");
+        Profile c = profile("c");
+        Map<String, Profile> found = new HashMap<>();
+        found.put("c", c);
+        found.put("a", a);
+
+        ProfileLookup lookup = new ProfileLookup(Arrays.asList("c", "b", "a"), found);
+
+        assertEquals(Arrays.asList(c, a), lookup.getProfiles());
+        assertEquals(Arrays.asList("b"), lookup.getMissing());
+        assertSame(a, lookup.get("a"));
+        assertNull(lookup.get("b"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.static1.fishylottery.repositories;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.android.gms.tasks.OnCompleteListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.static1.fishylottery.model.repositories.SingleFlight;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest {
+
+    @SuppressWarnings("unchecked")
+    private static Task<String> pendingTask() {
+        Task<String> task = mock(Task.class);
+        when(task.isComplete()).thenReturn(false);
+        return task;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void complete(Task<String> task) {
+        ArgumentCaptor<OnCompleteListener<String>> listener = ArgumentCaptor.forClass(OnCompleteListener.class);
+        verify(task).addOnCompleteListener(listener.capture());
+        listener.getValue().onComplete(task);
+    }
+
+    @Test
+    public void sameKeyInFlight_sharesOneRead() {
+        SingleFlight flight = new SingleFlight("test");
+        Task<String> pending = pendingTask();
+        AtomicInteger loads = new AtomicInteger();
+
+        Task<String> first = flight.run("a", () -> { loads.incrementAndGet(); return pending; });
+        Task<String> second = flight.run("a", () -> { loads.incrementAndGet(); return pendingTask(); });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, flight.getStarted());
+        assertEquals(1, flight.getCoalesced());
+    }
+
+    @Test
+    public void differentKeys_readSeparately() {
+        SingleFlight flight = new SingleFlight("test");
+        Task<String> a = flight.run("a", SingleFlightTest::pendingTask);
+        Task<String> b = flight.run("b", SingleFlightTest::pendingTask);
+
+        assertNotSame(a, b);
+        assertEquals(0, flight.getCoalesced());
+    }
+
+    @Test
+    public void completedRead_isNotShared() {
+        SingleFlight flight = new SingleFlight("test");
+        Task<String> pending = pendingTask();
+        flight.run("a", () -> pending);
+        complete(pending);
+
+        Task<String> next = flight.run("a", SingleFlightTest::pendingTask);
+        assertNotSame(pending, next);
+        assertEquals(2, flight.getStarted());
+    }
+
+    @Test
+    public void alreadyCompleteRead_isNotKept() {
+        SingleFlight flight = new SingleFlight("test");
+        flight.run("a", () -> Tasks.forResult("done"));
+        flight.run("a", () -> Tasks.forResult("again"));
+
+        assertEquals(2, flight.getStarted());
+        assertEquals(0, flight.getCoalesced());
+    }
+
+    @Test
+    public void forgetAll_startsFreshRead_andOldCompletionKeepsNewOne() {
+        SingleFlight flight = new SingleFlight("test");
+        Task<String> old = pendingTask();
+        flight.run("a", () -> old);
+        flight.forgetAll();
+
+        Task<String> fresh = pendingTask();
+        assertSame(fresh, flight.run("a", () -> fresh));
+
+        // The old read finishing must not drop the fresh one
+        complete(old);
+        assertSame(fresh, flight.run("a", SingleFlightTest::pendingTask));
+        verify(fresh).addOnCompleteListener(any(OnCompleteListener.class));
+    }
+}
@@ -0,0 +1,64 @@
+package com.static1.fishylottery.repositories;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.static1.fishylottery.model.repositories.WaitlistCounters;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class WaitlistCountersTest {
+
+    @Test
+    public void newEntry_incrementsOnlyNewStatus() {
+        Map<String, Long> delta = new HashMap<>();
+        WaitlistCounters.addTransition(delta, null, "waiting");
+        assertEquals(1, delta.size());
+        assertEquals(Long.valueOf(1), delta.get("waiting"));
+    }
+
+    @Test
+    public void removedEntry_decrementsOnlyOldStatus() {
+        Map<String, Long> delta = new HashMap<>();
+        WaitlistCounters.addTransition(delta, "invited", null);
+        assertEquals(1, delta.size());
+        assertEquals(Long.valueOf(-1), delta.get("invited"));
+    }
+
+    @Test
+    public void statusChange_movesOneBetweenCounters() {
+        Map<String, Long> delta = new HashMap<>();
+        WaitlistCounters.addTransition(delta, "waiting", "invited");
+        WaitlistCounters.addTransition(delta, "waiting", "invited");
+        assertEquals(Long.valueOf(-2), delta.get("waiting"));
+        assertEquals(Long.valueOf(2), delta.get("invited"));
+    }
+
+    @Test
+    public void sameStatus_isNoChange() {
+        Map<String, Long> delta = new HashMap<>();
+        WaitlistCounters.addTransition(delta, "accepted", "accepted");
+        assertTrue(delta.isEmpty());
+    }
+
+    @Test
+    public void unknownStatus_isIgnored() {
+        Map<String, Long> delta = new HashMap<>();
+        WaitlistCounters.addTransition(delta, "unknown", "waiting");
+        assertFalse(delta.containsKey("unknown"));
+        assertEquals(Long.valueOf(1), delta.get("waiting"));
+    }
+
+    @Test
+    public void total_sumsEveryStatus() {
+        Map<String, Long> counts = WaitlistCounters.zeroCounts();
+        counts.put("waiting", 3L);
+        counts.put("accepted", 2L);
+        assertEquals(5, WaitlistCounters.total(counts));
+        assertEquals(0, WaitlistCounters.total(null));
+    }
+}
@@ -0,0 +1,56 @@
+package com.static1.fishylottery.services;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class FirestoreConfigTest {
+
+    private FirebaseFirestore mockDb;
+    private FirestoreConfig config;
+
+    @Before
+    public void setUp() {
+        mockDb = mock(FirebaseFirestore.class);
+        config = new FirestoreConfig(mockDb);
+        FirestoreConfig.setInstanceForTesting(config);
+    }
+
+    @After
+    public void tearDown() {
+        FirestoreConfig.setInstanceForTesting(null);
+    }
+
+    @Test
+    public void testSharedInstanceIsInjected() {
+        assertSame(config, FirestoreConfig.getInstance());
+        assertSame(mockDb, FirestoreConfig.getInstance().getFirestore());
+    }
+
+    @Test
+    public void testReadsAreServerFirstByDefault() {
+        assertEquals(FirestoreConfig.ReadPolicy.SERVER_FIRST,
+                config.getReadPolicy(FirestoreConfig.PROFILE_BY_ID));
+    }
+
+    @Test
+    public void testReadPolicyIsPerRead() {
+        config.setReadPolicy(FirestoreConfig.PROFILE_BY_ID, FirestoreConfig.ReadPolicy.CACHE_FIRST);
+
+        assertEquals(FirestoreConfig.ReadPolicy.CACHE_FIRST,
+                config.getReadPolicy(FirestoreConfig.PROFILE_BY_ID));
+        assertEquals(FirestoreConfig.ReadPolicy.SERVER_FIRST,
+                config.getReadPolicy(FirestoreConfig.EVENT_BY_ID));
+    }
+
+    @Test
+    public void testHitRatioBeforeAnyRead() {
+        assertEquals(0.0, config.getCacheHitRatio(FirestoreConfig.EVENT_BY_ID), 0.0);
+        assertEquals("", config.describeReads());
+    }
+}
@@ -0,0 +1,33 @@
+package com.static1.fishylottery.view;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class StableIdsTest {
+
+    @Test
+    public void sameKey_sameId() {
+        assertEquals(StableIds.of("event123"), StableIds.of("event123"));
+    }
+
+    @Test
+    public void nullKey_isNoId() {
+        assertEquals(RecyclerView.NO_ID, StableIds.of(null));
+    }
+
+    @Test
+    public void manyKeys_doNotCollide() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            long id = StableIds.of("uid" + i);
+            assertNotEquals(RecyclerView.NO_ID, id);
+            assertTrue(ids.add(id));
+        }
+    }
+}